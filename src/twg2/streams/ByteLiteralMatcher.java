@@ -0,0 +1,114 @@
+package twg2.streams;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collection;
+
+/** An Aho-Corasick automaton, compiled to a byte level DFA, which searches for any of a set of literals in a single pass over raw bytes.<br>
+ * Each input byte costs one table lookup regardless of the number of literals. The {@link #table} is indexed by
+ * {@code state + (byte & 0xFF)} and contains the next state (pre-multiplied by 256), or -1 if a literal ends at that byte.
+ * Memory use is 1 KB per automaton state, there are at most as many states as the total number of bytes in the literals.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+final class ByteLiteralMatcher {
+	/** the transition table, -1 marks a transition which completes a literal */
+	final int[] table;
+
+
+	/**
+	 * @param literals the literals to search for, must not be empty or contain {@code '\n'}
+	 * @param cs the charset used to convert the literals to bytes
+	 * @param ignoreCase true to match ASCII letters case-insensitively
+	 */
+	ByteLiteralMatcher(Collection<String> literals, Charset cs, boolean ignoreCase) {
+		if(literals.isEmpty()) {
+			throw new IllegalArgumentException("literals must contain at least one literal");
+		}
+		byte[][] patterns = new byte[literals.size()][];
+		int maxStates = 1;
+		int n = 0;
+		for(String literal : literals) {
+			if(literal.isEmpty() || literal.indexOf('\n') > -1) {
+				throw new IllegalArgumentException("literals must not be empty or contain newlines, was: '" + literal + "'");
+			}
+			byte[] bytes = literal.getBytes(cs);
+			if(ignoreCase) {
+				for(int i = 0; i < bytes.length; i++) {
+					bytes[i] = toLowerAscii(bytes[i]);
+				}
+			}
+			patterns[n++] = bytes;
+			maxStates += bytes.length;
+		}
+
+		// build the trie, -1 marks a missing edge
+		int[] delta = new int[maxStates * 256];
+		Arrays.fill(delta, -1);
+		boolean[] out = new boolean[maxStates];
+		int states = 1;
+		for(byte[] pattern : patterns) {
+			int s = 0;
+			for(byte b : pattern) {
+				int idx = (s << 8) | (b & 0xFF);
+				if(delta[idx] < 0) {
+					delta[idx] = states++;
+				}
+				s = delta[idx];
+			}
+			out[s] = true;
+		}
+
+		// breadth first, replace missing edges with the failure state's edges, so each state has a transition for every byte
+		int[] fail = new int[states];
+		int[] queue = new int[states];
+		int head = 0;
+		int tail = 0;
+		for(int c = 0; c < 256; c++) {
+			int t = delta[c];
+			if(t < 0) {
+				delta[c] = 0;
+			}
+			else {
+				queue[tail++] = t;
+			}
+		}
+		while(head < tail) {
+			int s = queue[head++];
+			int f = fail[s];
+			out[s] |= out[f];
+			for(int c = 0; c < 256; c++) {
+				int idx = (s << 8) | c;
+				int t = delta[idx];
+				if(t < 0) {
+					delta[idx] = delta[(f << 8) | c];
+				}
+				else {
+					fail[t] = delta[(f << 8) | c];
+					queue[tail++] = t;
+				}
+			}
+		}
+
+		int[] res = new int[states * 256];
+		for(int i = 0; i < res.length; i++) {
+			int t = delta[i];
+			res[i] = out[t] ? -1 : t << 8;
+		}
+		if(ignoreCase) {
+			// the literals are lower case, so upper case input follows the lower case transitions
+			for(int s = 0; s < states; s++) {
+				for(int c = 'A'; c <= 'Z'; c++) {
+					res[(s << 8) | c] = res[(s << 8) | (c + ('a' - 'A'))];
+				}
+			}
+		}
+		this.table = res;
+	}
+
+
+	private static byte toLowerAscii(byte b) {
+		return b >= 'A' && b <= 'Z' ? (byte)(b + ('a' - 'A')) : b;
+	}
+
+}
@@ -0,0 +1,348 @@
+package twg2.streams;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/** A replayable {@link Iterable} which reads its source iterator at most once.<br>
+ * The first traversal lazily pulls elements from the source into an append-only buffer of fixed size chunks, later (or concurrent)
+ * calls to {@link #iterator()} replay elements from the buffer and only pull from the source when they get ahead of all other readers.
+ * Each source element is read exactly once even when readers are interleaved across threads. Reading elements which are already
+ * buffered does not lock.<br>
+ * At most {@code maxInMemory} elements (rounded up to a whole chunk) are kept in memory. If an {@link ElementSerializer} is provided,
+ * older chunks are spilled to a temporary file once that limit is reached and read back by readers which replay them, otherwise
+ * an {@link IllegalStateException} is thrown when the limit is exceeded.<br>
+ * This is a multi-pass alternative to {@link IterableLimited}, {@link #close()} closes the source and deletes the temporary file.
+ * @param <T> the data type of the elements
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class CachingIterable<T> implements Iterable<T>, AutoCloseable {
+	public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+	private final Iterator<? extends T> source;
+	private final int chunkSize;
+	private final int maxChunksInMemory;
+	private final ElementSerializer<T> serializer;
+	private final Path tempDir;
+	private final Object sourceLock = new Object();
+	/** replaced (not modified) when it grows, always written before {@link #cached} */
+	private volatile Chunk[] chunks;
+	/** the number of elements read from the source and available to readers */
+	private volatile long cached;
+	private volatile boolean sourceEnded;
+	// the following are only accessed while holding 'sourceLock'
+	private int chunksInMemory;
+	private int oldestInMemory;
+	private Path spillPath;
+	private FileChannel spillChannel;
+	private long spillEnd;
+
+
+	/** Create a caching iterable which keeps all elements in memory
+	 * @param source the source elements, read lazily at most once
+	 */
+	public CachingIterable(Iterator<? extends T> source) {
+		this(source, DEFAULT_CHUNK_SIZE, Long.MAX_VALUE, null, null);
+	}
+
+
+	/** Create a caching iterable
+	 * @param source the source elements, read lazily at most once
+	 * @param chunkSize the number of elements per buffer chunk
+	 * @param maxInMemory the maximum number of elements to keep in memory
+	 * @param serializer the serializer used to spill chunks to a temporary file once {@code maxInMemory} is reached,
+	 * null to throw an {@link IllegalStateException} instead
+	 * @param tempDir the directory to create the temporary file in, null for the default temporary-file directory
+	 */
+	public CachingIterable(Iterator<? extends T> source, int chunkSize, long maxInMemory, ElementSerializer<T> serializer, Path tempDir) {
+		if(chunkSize < 1) {
+			throw new IllegalArgumentException("chunkSize must be greater than 0, was: " + chunkSize);
+		}
+		if(maxInMemory < 1) {
+			throw new IllegalArgumentException("maxInMemory must be greater than 0, was: " + maxInMemory);
+		}
+		this.source = source;
+		this.chunkSize = chunkSize;
+		this.maxChunksInMemory = (int)Math.min(Integer.MAX_VALUE, maxInMemory / chunkSize + (maxInMemory % chunkSize != 0 ? 1 : 0));
+		this.serializer = serializer;
+		this.tempDir = tempDir;
+		this.chunks = new Chunk[8];
+	}
+
+
+	/**
+	 * @return a new iterator which starts from the first source element, safe to use concurrently with other iterators from this iterable
+	 */
+	@Override
+	public PeekableIterator<T> iterator() {
+		return new Reader();
+	}
+
+
+	/**
+	 * @return the number of source elements read so far
+	 */
+	public long cachedCount() {
+		return cached;
+	}
+
+
+	/**
+	 * @return true if the source has been completely read
+	 */
+	public boolean isFullyCached() {
+		return sourceEnded;
+	}
+
+
+	/** Close the source if it is {@link AutoCloseable} and delete the temporary spill file, iterators should not be used after this is called
+	 */
+	@Override
+	public void close() throws Exception {
+		synchronized(sourceLock) {
+			sourceEnded = true;
+			try {
+				if(source instanceof AutoCloseable) {
+					((AutoCloseable)source).close();
+				}
+			} finally {
+				if(spillChannel != null) {
+					spillChannel.close();
+					spillChannel = null;
+					Files.deleteIfExists(spillPath);
+				}
+			}
+		}
+	}
+
+
+	/** Ensure that the element at {@code index} has been read from the source
+	 * @return true if the element exists, false if the source ended before {@code index}
+	 */
+	private boolean ensure(long index) {
+		if(index < cached) {
+			return true;
+		}
+		if(sourceEnded) {
+			return index < cached;
+		}
+		synchronized(sourceLock) {
+			while(index >= cached && !sourceEnded) {
+				if(source.hasNext()) {
+					append(source.next());
+				}
+				else {
+					sourceEnded = true;
+				}
+			}
+			return index < cached;
+		}
+	}
+
+
+	// must be called while holding 'sourceLock'
+	private void append(T elem) {
+		long count = cached;
+		int chunkIdx = (int)(count / chunkSize);
+		int off = (int)(count % chunkSize);
+		Chunk[] curChunks = chunks;
+		if(off == 0) {
+			if(chunksInMemory >= maxChunksInMemory) {
+				spillOldest(curChunks);
+			}
+			if(chunkIdx == curChunks.length) {
+				curChunks = Arrays.copyOf(curChunks, curChunks.length * 2);
+			}
+			curChunks[chunkIdx] = new Chunk(new Object[chunkSize]);
+			chunks = curChunks;
+			chunksInMemory++;
+		}
+		curChunks[chunkIdx].elems[off] = elem;
+		// publishes the element (and any new chunk) to readers
+		cached = count + 1;
+	}
+
+
+	// must be called while holding 'sourceLock'
+	private void spillOldest(Chunk[] curChunks) {
+		if(serializer == null) {
+			throw new IllegalStateException("CachingIterable memory limit of " + ((long)maxChunksInMemory * chunkSize) + " elements exceeded and no serializer was provided to spill to disk");
+		}
+		Chunk chunk = curChunks[oldestInMemory];
+		try {
+			if(spillChannel == null) {
+				spillPath = tempDir != null ? Files.createTempFile(tempDir, "cache-", ".tmp") : Files.createTempFile("cache-", ".tmp");
+				spillChannel = FileChannel.open(spillPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			}
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			Object[] elems = chunk.elems;
+			for(int i = 0; i < chunkSize; i++) {
+				@SuppressWarnings("unchecked")
+				T elem = (T)elems[i];
+				serializer.write(elem, out);
+			}
+			out.flush();
+			ByteBuffer buf = ByteBuffer.wrap(bytes.toByteArray());
+			long pos = spillEnd;
+			while(buf.hasRemaining()) {
+				pos += spillChannel.write(buf, pos);
+			}
+			chunk.fileOffset = spillEnd;
+			spillEnd = pos;
+			// must be written last, readers check 'elems' before reading 'fileOffset'
+			chunk.elems = null;
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		oldestInMemory++;
+		chunksInMemory--;
+	}
+
+
+	private Object[] readSpilled(Chunk chunk) {
+		try {
+			DataInputStream in = new DataInputStream(new ChannelInputStream(spillChannel, chunk.fileOffset));
+			Object[] elems = new Object[chunkSize];
+			for(int i = 0; i < chunkSize; i++) {
+				elems[i] = serializer.read(in);
+			}
+			return elems;
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+
+
+
+	private static class Chunk {
+		volatile Object[] elems;
+		/** set before {@link #elems} is cleared */
+		long fileOffset;
+
+		Chunk(Object[] elems) {
+			this.elems = elems;
+		}
+	}
+
+
+
+
+	private class Reader implements PeekableIterator<T> {
+		private long index;
+		/** the most recently read spilled chunk, so sequential reads only read each spilled chunk once */
+		private int spilledChunkIdx = -1;
+		private Object[] spilledChunk;
+
+
+		@Override
+		public boolean hasNext() {
+			return ensure(index);
+		}
+
+
+		@Override
+		public T peek() {
+			return ensure(index) ? get(index) : null;
+		}
+
+
+		@Override
+		public T next() {
+			if(!ensure(index)) {
+				throw new NoSuchElementException();
+			}
+			return get(index++);
+		}
+
+
+		@SuppressWarnings("unchecked")
+		private T get(long idx) {
+			int chunkIdx = (int)(idx / chunkSize);
+			int off = (int)(idx % chunkSize);
+			Chunk chunk = chunks[chunkIdx];
+			Object[] elems = chunk.elems;
+			if(elems == null) {
+				if(spilledChunkIdx != chunkIdx) {
+					spilledChunk = readSpilled(chunk);
+					spilledChunkIdx = chunkIdx;
+				}
+				elems = spilledChunk;
+			}
+			return (T)elems[off];
+		}
+
+	}
+
+
+
+
+	/** An {@link InputStream} which uses positional reads (safe for concurrent readers) from a {@link FileChannel}
+	 */
+	private static class ChannelInputStream extends InputStream {
+		private final FileChannel channel;
+		private final ByteBuffer buf;
+		private long position;
+
+
+		ChannelInputStream(FileChannel channel, long position) {
+			this.channel = channel;
+			this.position = position;
+			this.buf = ByteBuffer.allocate(SpillFile.BUFFER_SIZE);
+			this.buf.limit(0);
+		}
+
+
+		@Override
+		public int read() throws IOException {
+			if(!fill()) {
+				return -1;
+			}
+			return buf.get() & 0xFF;
+		}
+
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if(len == 0) {
+				return 0;
+			}
+			if(!fill()) {
+				return -1;
+			}
+			int n = Math.min(len, buf.remaining());
+			buf.get(b, off, n);
+			return n;
+		}
+
+
+		private boolean fill() throws IOException {
+			if(buf.hasRemaining()) {
+				return true;
+			}
+			buf.clear();
+			int n = channel.read(buf, position);
+			buf.flip();
+			if(n <= 0) {
+				return false;
+			}
+			position += n;
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,219 @@
+package twg2.streams;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/** A thread-safe, multi-consumer counterpart to {@link EnhancedIterator}.<br>
+ * Several worker threads can share one {@link Supplier} source by calling {@link #nextBatch()}, each call claims the next
+ * {@code batchSize} elements from the source. Only one consumer reads from the source at a time, the source is locked once
+ * per batch (no per-element locking), other consumers block on the lock until the batch has been read.<br>
+ * Each {@link Batch} carries the sequence number of its first element so {@link Batch#previousIndex()} returns the same
+ * indices a single-threaded {@link EnhancedIterator#previousIndex()} would have returned for those elements.<br>
+ * Like {@link EnhancedIterator}, the source is read until {@link Supplier#get()} returns null.
+ * @param <T> the data type of the elements
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class ConcurrentEnhancedIterator<T> implements AutoCloseable {
+	private final Supplier<T> source;
+	private final AutoCloseable sourceToClose;
+	private final int batchSize;
+	private final ReentrantLock sourceLock = new ReentrantLock();
+	/** guarded by {@link #sourceLock} */
+	private int nextIndex = 0;
+	private volatile boolean ended = false;
+
+
+	/** Create a concurrent iterator from a supplier
+	 * @param source the source to read input from, null marks the end of the stream
+	 * @param batchSize the maximum number of elements returned by each {@link #nextBatch()} call
+	 */
+	public ConcurrentEnhancedIterator(Supplier<T> source, int batchSize) {
+		this(source, null, batchSize);
+	}
+
+
+	/** Create a concurrent iterator from an iterator, if the iterator is {@link AutoCloseable} it is closed when {@link #close()} is called
+	 * @param source the source to read input from
+	 * @param batchSize the maximum number of elements returned by each {@link #nextBatch()} call
+	 */
+	public ConcurrentEnhancedIterator(Iterator<T> source, int batchSize) {
+		this(new IteratorToSupplier<>(source), source instanceof AutoCloseable ? (AutoCloseable)source : null, batchSize);
+	}
+
+
+	/** Create a concurrent iterator from a supplier and closable source
+	 * @param source the source to read input from, null marks the end of the stream
+	 * @param sourceToClose the source to close when {@link #close()} is called
+	 * @param batchSize the maximum number of elements returned by each {@link #nextBatch()} call
+	 */
+	public ConcurrentEnhancedIterator(Supplier<T> source, AutoCloseable sourceToClose, int batchSize) {
+		if(batchSize < 1) {
+			throw new IllegalArgumentException("batchSize must be greater than 0, was: " + batchSize);
+		}
+		this.source = source;
+		this.sourceToClose = sourceToClose != null ? sourceToClose : (source instanceof AutoCloseable ? (AutoCloseable)source : null);
+		this.batchSize = batchSize;
+	}
+
+
+	/** Claim the next batch of elements from the source. Safe to call from multiple threads.
+	 * @return a batch containing between 1 and {@code batchSize} elements, or null if the source is empty
+	 */
+	public Batch<T> nextBatch() {
+		if(ended) {
+			return null;
+		}
+		sourceLock.lock();
+		try {
+			return readBatch();
+		} finally {
+			sourceLock.unlock();
+		}
+	}
+
+
+	/**
+	 * @return true if the source has returned null and all elements have been claimed by {@link #nextBatch()} calls
+	 */
+	public boolean isEnded() {
+		return ended;
+	}
+
+
+	/**
+	 * @return the maximum number of elements returned by each {@link #nextBatch()} call
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+
+	@Override
+	public void close() throws Exception {
+		ended = true;
+		if(sourceToClose != null) {
+			sourceToClose.close();
+		}
+	}
+
+
+	// must only be called while holding 'sourceLock'
+	private Batch<T> readBatch() {
+		if(ended) {
+			return null;
+		}
+		Object[] elems = new Object[batchSize];
+		int count = 0;
+		T elem;
+		while(count < batchSize && (elem = source.get()) != null) {
+			elems[count++] = elem;
+		}
+		if(count < batchSize) {
+			ended = true;
+		}
+		if(count == 0) {
+			return null;
+		}
+		int startIndex = nextIndex;
+		nextIndex += count;
+		return new Batch<>(elems, count, startIndex);
+	}
+
+
+
+
+	/** A group of consecutive elements claimed from a {@link ConcurrentEnhancedIterator}.
+	 * A batch is only intended to be used by the thread which claimed it.
+	 * @param <E> the data type of the elements
+	 * @author TeamworkGuy2
+	 * @since 2026-10-19
+	 */
+	public static class Batch<E> implements PeekableIterator<E> {
+		private final Object[] elems;
+		private final int size;
+		private final int startIndex;
+		private int off = 0;
+
+
+		Batch(Object[] elems, int size, int startIndex) {
+			this.elems = elems;
+			this.size = size;
+			this.startIndex = startIndex;
+		}
+
+
+		@Override
+		public boolean hasNext() {
+			return off < size;
+		}
+
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E peek() {
+			return off < size ? (E)elems[off] : null;
+		}
+
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E next() {
+			if(off >= size) {
+				throw new NoSuchElementException();
+			}
+			return (E)elems[off++];
+		}
+
+
+		/**
+		 * @param i the index of the element, in the range {@code [0, size())}
+		 * @return the element at index {@code i} in this batch
+		 */
+		@SuppressWarnings("unchecked")
+		public E get(int i) {
+			if(i < 0 || i >= size) {
+				throw new IndexOutOfBoundsException(i + " of [0, " + size + ")");
+			}
+			return (E)elems[i];
+		}
+
+
+		/**
+		 * @return the number of elements in this batch
+		 */
+		public int size() {
+			return size;
+		}
+
+
+		/**
+		 * @return the source sequence number of the first element in this batch
+		 */
+		public int startIndex() {
+			return startIndex;
+		}
+
+
+		/**
+		 * @return the source sequence number of the last call to {@link #next()}, {@code startIndex() - 1} if {@code next()} has not been called
+		 * @see EnhancedIterator#previousIndex()
+		 */
+		public int previousIndex() {
+			return startIndex + off - 1;
+		}
+
+
+		/**
+		 * @return the source sequence number of the next call to {@link #next()}
+		 * @see EnhancedIterator#nextIndex()
+		 */
+		public int nextIndex() {
+			return startIndex + off;
+		}
+
+	}
+
+}
@@ -0,0 +1,244 @@
+package twg2.streams;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/** A {@link PeekableIterator} which applies a mapping function to each source element concurrently and returns the results in source order.<br>
+ * At most {@code maxInFlight} mapping tasks are outstanding at any time, the source iterator is only advanced as results are consumed.
+ * Intended for I/O-bound (blocking) mapping functions where a CPU sized thread pool (such as the one used by parallel streams) is the wrong fit.<br>
+ * If a mapping task fails, the failure is thrown from the next call to {@link #next()} or {@link #peek()} (even if earlier results
+ * are still pending) and all outstanding tasks are cancelled. {@link #close()} cancels outstanding tasks and closes the source if it is {@link AutoCloseable}.<br>
+ * If the executor rejects a task, the {@link RejectedExecutionException} is thrown from {@link #hasNext()}, {@link #next()} or {@link #peek()}
+ * (a {@code next()} call which already has its result returns it and leaves the rejection to the following call). The rejected element
+ * is kept and submitted again by the following call, so callers can retry once the executor has capacity without losing elements.
+ * @param <T> the source element type
+ * @param <R> the result type
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @see StreamUtil#mapConcurrent(Iterator, Function, int)
+ */
+public class ConcurrentMapIterator<T, R> implements ClosableIterator<R>, PeekableIterator<R> {
+	private final Iterator<? extends T> source;
+	private final Function<? super T, ? extends R> mapper;
+	private final int maxInFlight;
+	private final Executor executor;
+	/** the executor created by this iterator which must be shutdown, or null if the executor was supplied by the caller */
+	private final ExecutorService ownedExecutor;
+	private final ArrayDeque<Task> inFlight;
+	/** a task which the executor rejected, submitted again by the next {@link #fill()} before any new source elements */
+	private Task rejected;
+	private volatile Thread waiter;
+	private volatile Throwable failure;
+	private boolean closed;
+
+
+	/** Create a concurrent mapping iterator which runs tasks on virtual threads if the runtime supports them,
+	 * otherwise on a new cached thread pool. The executor is shutdown when the iterator is exhausted or closed.
+	 * @param source the source elements
+	 * @param mapper the mapping function, may block
+	 * @param maxInFlight the maximum number of mapping tasks outstanding at once
+	 */
+	public ConcurrentMapIterator(Iterator<? extends T> source, Function<? super T, ? extends R> mapper, int maxInFlight) {
+		this(source, mapper, maxInFlight, null, newDefaultExecutor());
+	}
+
+
+	/** Create a concurrent mapping iterator
+	 * @param source the source elements
+	 * @param mapper the mapping function, may block
+	 * @param maxInFlight the maximum number of mapping tasks outstanding at once
+	 * @param executor the executor to run mapping tasks on, it is not shutdown by this iterator
+	 */
+	public ConcurrentMapIterator(Iterator<? extends T> source, Function<? super T, ? extends R> mapper, int maxInFlight, Executor executor) {
+		this(source, mapper, maxInFlight, executor, null);
+	}
+
+
+	private ConcurrentMapIterator(Iterator<? extends T> source, Function<? super T, ? extends R> mapper, int maxInFlight, Executor executor, ExecutorService ownedExecutor) {
+		if(maxInFlight < 1) {
+			throw new IllegalArgumentException("maxInFlight must be greater than 0, was: " + maxInFlight);
+		}
+		this.source = source;
+		this.mapper = mapper;
+		this.maxInFlight = maxInFlight;
+		this.executor = executor != null ? executor : ownedExecutor;
+		this.ownedExecutor = ownedExecutor;
+		this.inFlight = new ArrayDeque<>(maxInFlight);
+	}
+
+
+	@Override
+	public boolean hasNext() {
+		fill();
+		return !inFlight.isEmpty();
+	}
+
+
+	@Override
+	public R peek() {
+		fill();
+		Task head = inFlight.peekFirst();
+		return head != null ? await(head) : null;
+	}
+
+
+	@Override
+	public R next() {
+		fill();
+		Task head = inFlight.peekFirst();
+		if(head == null) {
+			throw new NoSuchElementException();
+		}
+		R res = await(head);
+		inFlight.pollFirst();
+		try {
+			fill();
+		} catch(RejectedExecutionException e) {
+			// don't lose 'res', the rejected task is kept and submitted again by the next call
+		}
+		return res;
+	}
+
+
+	/** Cancel all outstanding tasks, shutdown the executor if it was created by this iterator, and close the source iterator if it is {@link AutoCloseable}
+	 */
+	@Override
+	public void close() throws Exception {
+		if(closed) {
+			return;
+		}
+		closed = true;
+		cancelAll();
+		if(ownedExecutor != null) {
+			ownedExecutor.shutdownNow();
+		}
+		if(source instanceof AutoCloseable) {
+			((AutoCloseable)source).close();
+		}
+	}
+
+
+	private void fill() {
+		if(closed) {
+			throw new IllegalStateException("iterator closed");
+		}
+		while(inFlight.size() < maxInFlight && (rejected != null || source.hasNext())) {
+			Task task = rejected != null ? rejected : new Task(source.next());
+			// only track the task once the executor has accepted it, so a rejected task is never awaited
+			rejected = task;
+			executor.execute(task);
+			rejected = null;
+			inFlight.addLast(task);
+		}
+		if(inFlight.isEmpty() && ownedExecutor != null) {
+			ownedExecutor.shutdown();
+		}
+	}
+
+
+	private R await(Task task) {
+		waiter = Thread.currentThread();
+		try {
+			while(!task.isDone() && failure == null) {
+				LockSupport.park(this);
+				if(Thread.interrupted()) {
+					cancelAll();
+					Thread.currentThread().interrupt();
+					throw new CancellationException("interrupted while waiting for mapping result");
+				}
+			}
+		} finally {
+			waiter = null;
+		}
+
+		Throwable err = failure;
+		if(err != null) {
+			cancelAll();
+			if(err instanceof RuntimeException) {
+				throw (RuntimeException)err;
+			}
+			if(err instanceof Error) {
+				throw (Error)err;
+			}
+			throw new CompletionException(err);
+		}
+		try {
+			return task.get();
+		} catch(ExecutionException e) {
+			// only reachable if the failure was not recorded, e.g. the task failed after being removed
+			throw new CompletionException(e.getCause());
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException("interrupted while waiting for mapping result");
+		}
+	}
+
+
+	private void cancelAll() {
+		rejected = null;
+		Task task;
+		while((task = inFlight.pollFirst()) != null) {
+			task.cancel(true);
+		}
+	}
+
+
+	/**
+	 * @return an executor which runs each task on a new virtual thread if the runtime supports them, otherwise a cached pool of daemon threads
+	 */
+	static ExecutorService newDefaultExecutor() {
+		try {
+			return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch(ReflectiveOperationException | RuntimeException e) {
+			// virtual threads are not available in this runtime
+			ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+			return Executors.newCachedThreadPool((r) -> {
+				Thread thread = defaultFactory.newThread(r);
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+
+
+
+	private class Task extends FutureTask<R> {
+
+		Task(T elem) {
+			super(() -> mapper.apply(elem));
+		}
+
+
+		@Override
+		protected void setException(Throwable t) {
+			if(failure == null) {
+				failure = t;
+			}
+			super.setException(t);
+		}
+
+
+		@Override
+		protected void done() {
+			Thread thread = waiter;
+			if(thread != null) {
+				LockSupport.unpark(thread);
+			}
+		}
+
+	}
+
+}
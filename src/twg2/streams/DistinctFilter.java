@@ -0,0 +1,325 @@
+package twg2.streams;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/** A stateful {@link Predicate} which returns true the first time an element is seen and false for duplicates.
+ * Elements are compared by a 64-bit fingerprint (see {@link #fingerprint(CharSequence)}) rather than {@link Object#equals(Object)},
+ * so the elements themselves are never retained and memory use is predictable. Three implementations are available:<br>
+ * - {@link #exact(ToLongFunction, long)} stores every fingerprint in an off-heap hash set (8-16 bytes per distinct element),
+ * two elements are only treated as equal if their 64-bit fingerprints collide.<br>
+ * - {@link #approximate(ToLongFunction, long, double)} uses a Bloom filter with a fixed size, some distinct elements
+ * (with probability of approximately {@code falsePositiveRate}) are incorrectly reported as duplicates.<br>
+ * - {@link #windowed(ToLongFunction, int)} only removes duplicates which occur within the last {@code windowSize} elements.<br>
+ * Filters are not thread-safe. {@link #close()} releases a filter's memory, this matters for {@link #exact(ToLongFunction, long)}
+ * filters whose off-heap memory is otherwise only freed once the filter is garbage collected.
+ * @param <T> the data type of the elements
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @see StreamUtil#distinct(PeekableIterator, DistinctFilter)
+ */
+public abstract class DistinctFilter<T> implements Predicate<T>, AutoCloseable {
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	protected final ToLongFunction<? super T> fingerprinter;
+
+
+	protected DistinctFilter(ToLongFunction<? super T> fingerprinter) {
+		this.fingerprinter = fingerprinter;
+	}
+
+
+	/**
+	 * @return true if the element has not been seen before (and records it as seen), false if it is a duplicate
+	 */
+	@Override
+	public boolean test(T elem) {
+		return add(fingerprinter.applyAsLong(elem));
+	}
+
+
+	/**
+	 * @param fingerprint the 64-bit fingerprint of an element
+	 * @return true if the fingerprint has not been seen before
+	 */
+	protected abstract boolean add(long fingerprint);
+
+
+	/** Release the memory used to remember elements, the filter can not be used afterward.
+	 * The default implementation does nothing, filters whose memory is reclaimed by garbage collection do not need to override it
+	 */
+	@Override
+	public void close() {
+	}
+
+
+	/** Create a filter which remembers every distinct element's fingerprint in an off-heap hash set
+	 * @param fingerprinter the function which computes a 64-bit fingerprint for each element
+	 * @param expectedSize the expected number of distinct elements, the set grows if this is exceeded
+	 */
+	public static <T> DistinctFilter<T> exact(ToLongFunction<? super T> fingerprinter, long expectedSize) {
+		return new Exact<>(fingerprinter, expectedSize);
+	}
+
+
+	/** Create a filter backed by a Bloom filter which uses a fixed amount of memory
+	 * @param fingerprinter the function which computes a 64-bit fingerprint for each element
+	 * @param expectedSize the expected number of distinct elements, if exceeded the false positive rate increases
+	 * @param falsePositiveRate the probability, in the range (0, 1), that a distinct element is incorrectly reported as a duplicate
+	 */
+	public static <T> DistinctFilter<T> approximate(ToLongFunction<? super T> fingerprinter, long expectedSize, double falsePositiveRate) {
+		return new Approximate<>(fingerprinter, expectedSize, falsePositiveRate);
+	}
+
+
+	/** Create a filter which only removes duplicates that occur within the last {@code windowSize} elements
+	 * @param fingerprinter the function which computes a 64-bit fingerprint for each element
+	 * @param windowSize the number of preceding elements (including duplicates) to compare each element against
+	 */
+	public static <T> DistinctFilter<T> windowed(ToLongFunction<? super T> fingerprinter, int windowSize) {
+		return new Windowed<>(fingerprinter, windowSize);
+	}
+
+
+	/** A 64-bit fingerprint of a string's characters (FNV-1a followed by a MurmurHash3 finalization mix),
+	 * suitable for use as the {@code fingerprinter} of a {@code DistinctFilter<String>}
+	 */
+	public static long fingerprint(CharSequence str) {
+		long h = FNV_OFFSET;
+		for(int i = 0, size = str.length(); i < size; i++) {
+			h = (h ^ str.charAt(i)) * FNV_PRIME;
+		}
+		return OffHeapLongHashSet.mix(h ^ str.length());
+	}
+
+
+
+
+	static class Exact<T> extends DistinctFilter<T> {
+		private final OffHeapLongHashSet set;
+
+
+		Exact(ToLongFunction<? super T> fingerprinter, long expectedSize) {
+			super(fingerprinter);
+			this.set = new OffHeapLongHashSet(expectedSize);
+		}
+
+
+		@Override
+		protected boolean add(long fingerprint) {
+			return set.add(fingerprint);
+		}
+
+
+		@Override
+		public void close() {
+			set.close();
+		}
+
+	}
+
+
+
+
+	static class Approximate<T> extends DistinctFilter<T> {
+		private final long[] bits;
+		private final long bitCount;
+		private final int hashCount;
+
+
+		Approximate(ToLongFunction<? super T> fingerprinter, long expectedSize, double falsePositiveRate) {
+			super(fingerprinter);
+			if(!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+				throw new IllegalArgumentException("falsePositiveRate must be in the range (0, 1), was: " + falsePositiveRate);
+			}
+			long n = Math.max(1, expectedSize);
+			// optimal Bloom filter size: m = -n*ln(p) / ln(2)^2, k = m/n * ln(2)
+			long m = (long)Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+			long words = Math.max(1, (m + 63) >>> 6);
+			if(words > Integer.MAX_VALUE - 8) {
+				throw new IllegalArgumentException("Bloom filter for " + expectedSize + " elements at a " + falsePositiveRate + " false positive rate is too large");
+			}
+			this.bits = new long[(int)words];
+			this.bitCount = words << 6;
+			this.hashCount = Math.max(1, (int)Math.round((double)bitCount / n * Math.log(2)));
+		}
+
+
+		@Override
+		protected boolean add(long fingerprint) {
+			// double hashing (Kirsch-Mitzenmacher), derive all bit positions from two hashes
+			long h1 = fingerprint;
+			long h2 = OffHeapLongHashSet.mix(fingerprint) | 1;
+			boolean added = false;
+			for(int i = 0; i < hashCount; i++) {
+				long bit = Math.floorMod(h1 + i * h2, bitCount);
+				int word = (int)(bit >>> 6);
+				long mask = 1L << bit;
+				if((bits[word] & mask) == 0) {
+					bits[word] |= mask;
+					added = true;
+				}
+			}
+			return added;
+		}
+
+	}
+
+
+
+
+	static class Windowed<T> extends DistinctFilter<T> {
+		private final long[] window;
+		private int windowOff;
+		private int windowCount;
+		/** open-addressing map of fingerprint -> number of occurrences in the window */
+		private final long[] keys;
+		private final int[] counts;
+		private final int mask;
+		private int zeroCount;
+
+
+		Windowed(ToLongFunction<? super T> fingerprinter, int windowSize) {
+			super(fingerprinter);
+			if(windowSize < 1) {
+				throw new IllegalArgumentException("windowSize must be greater than 0, was: " + windowSize);
+			}
+			this.window = new long[windowSize];
+			int slots = Integer.highestOneBit(Math.max(2, windowSize) * 2 - 1) << 1;
+			this.keys = new long[slots];
+			this.counts = new int[slots];
+			this.mask = slots - 1;
+		}
+
+
+		@Override
+		protected boolean add(long fingerprint) {
+			boolean unique = increment(fingerprint) == 1;
+			if(windowCount == window.length) {
+				decrement(window[windowOff]);
+			}
+			else {
+				windowCount++;
+			}
+			window[windowOff] = fingerprint;
+			windowOff = windowOff + 1 == window.length ? 0 : windowOff + 1;
+			return unique;
+		}
+
+
+		private int increment(long key) {
+			if(key == 0) {
+				return ++zeroCount;
+			}
+			for(int i = (int)OffHeapLongHashSet.mix(key) & mask; ; i = (i + 1) & mask) {
+				if(keys[i] == key) {
+					return ++counts[i];
+				}
+				if(keys[i] == 0) {
+					keys[i] = key;
+					counts[i] = 1;
+					return 1;
+				}
+			}
+		}
+
+
+		private void decrement(long key) {
+			if(key == 0) {
+				zeroCount--;
+				return;
+			}
+			int i = (int)OffHeapLongHashSet.mix(key) & mask;
+			while(keys[i] != key) {
+				i = (i + 1) & mask;
+			}
+			if(--counts[i] > 0) {
+				return;
+			}
+			// remove the entry and shift following entries back to close the gap (linear probing deletion)
+			keys[i] = 0;
+			for(int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+				int home = (int)OffHeapLongHashSet.mix(keys[j]) & mask;
+				// move entry 'j' into the gap if its home slot is not in the (cyclic) range (i, j]
+				if(((j - home) & mask) >= ((j - i) & mask)) {
+					keys[i] = keys[j];
+					counts[i] = counts[j];
+					keys[j] = 0;
+					i = j;
+				}
+			}
+		}
+
+	}
+
+
+
+
+	/** A {@link PeekableIterator} which skips elements rejected by a {@link DistinctFilter}
+	 */
+	static class DistinctIterator<T> implements ClosableIterator<T>, PeekableIterator<T> {
+		private final Iterator<? extends T> source;
+		private final DistinctFilter<? super T> filter;
+		private T nextElem;
+		private boolean hasNextElem;
+
+
+		DistinctIterator(Iterator<? extends T> source, DistinctFilter<? super T> filter) {
+			this.source = source;
+			this.filter = filter;
+		}
+
+
+		@Override
+		public boolean hasNext() {
+			return advance();
+		}
+
+
+		@Override
+		public T peek() {
+			return advance() ? nextElem : null;
+		}
+
+
+		@Override
+		public T next() {
+			if(!advance()) {
+				throw new NoSuchElementException();
+			}
+			T elem = nextElem;
+			nextElem = null;
+			hasNextElem = false;
+			return elem;
+		}
+
+
+		@Override
+		public void close() throws Exception {
+			try {
+				filter.close();
+			} finally {
+				if(source instanceof AutoCloseable) {
+					((AutoCloseable)source).close();
+				}
+			}
+		}
+
+
+		private boolean advance() {
+			while(!hasNextElem && source.hasNext()) {
+				T elem = source.next();
+				if(filter.test(elem)) {
+					nextElem = elem;
+					hasNextElem = true;
+				}
+			}
+			return hasNextElem;
+		}
+
+	}
+
+}
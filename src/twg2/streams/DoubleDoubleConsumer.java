@@ -0,0 +1,16 @@
+package twg2.streams;
+
+/** Represents an operation that accepts two {@code double} arguments and returns no result,
+ * the primitive specialization of {@link java.util.function.BiConsumer} for {@code double} pairs.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @see StreamUtil#forEachPair(double[], double[], DoubleDoubleConsumer)
+ */
+@FunctionalInterface
+public interface DoubleDoubleConsumer {
+
+	/** Performs this operation on the given arguments
+	 */
+	public void accept(double a, double b);
+
+}
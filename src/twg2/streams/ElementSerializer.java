@@ -0,0 +1,78 @@
+package twg2.streams;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/** Writes and reads individual elements to and from a binary stream. Used by operations which spill elements to temporary files,
+ * such as {@link ExternalSort}.
+ * @param <T> the data type of the elements
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public interface ElementSerializer<T> {
+
+	/** A serializer for strings of any length, encoded as a length prefixed UTF-8 byte sequence
+	 */
+	public static final ElementSerializer<String> UTF8_STRING = new ElementSerializer<String>() {
+		@Override
+		public void write(String elem, DataOutput out) throws IOException {
+			byte[] bytes = elem.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+
+		@Override
+		public String read(DataInput in) throws IOException {
+			byte[] bytes = new byte[in.readInt()];
+			in.readFully(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+
+
+	/** A serializer for {@code Long} values
+	 */
+	public static final ElementSerializer<Long> LONG = new ElementSerializer<Long>() {
+		@Override
+		public void write(Long elem, DataOutput out) throws IOException {
+			out.writeLong(elem);
+		}
+
+		@Override
+		public Long read(DataInput in) throws IOException {
+			return in.readLong();
+		}
+	};
+
+
+	/** A serializer for {@code Integer} values
+	 */
+	public static final ElementSerializer<Integer> INT = new ElementSerializer<Integer>() {
+		@Override
+		public void write(Integer elem, DataOutput out) throws IOException {
+			out.writeInt(elem);
+		}
+
+		@Override
+		public Integer read(DataInput in) throws IOException {
+			return in.readInt();
+		}
+	};
+
+
+	/** Write an element
+	 * @param elem the element to write, never null
+	 * @param out the destination
+	 */
+	public void write(T elem, DataOutput out) throws IOException;
+
+
+	/** Read an element previously written by {@link #write(Object, DataOutput)}
+	 * @param in the source
+	 * @return the element read from {@code in}
+	 */
+	public T read(DataInput in) throws IOException;
+
+}
@@ -6,8 +6,12 @@ import java.io.InputStreamReader;
 import java.io.UncheckedIOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.function.Function;
@@ -20,12 +24,27 @@ import java.util.function.Supplier;
  * @since 2015-1-31
  */
 public class EnhancedIterator<T> implements ClosableIterator<T>, PeekableIterator<T> {
+	private static final Supplier<Object> EMPTY_SOURCE = () -> null;
+	private static final ThreadLocalPool<EnhancedIterator<?>> POOL = new ThreadLocalPool<>(() -> new EnhancedIterator<Object>(), ThreadLocalPool.DEFAULT_MAX_PER_THREAD);
+
 	private Supplier<T> source;
 	private AutoCloseable sourceToClose;
 	private T currentElem;
 	private T nextElem;
 	// package-private
 	int currentIndex = -1;
+	/** reused by {@link #reset(Iterator)} */
+	private IteratorToSupplier<T> iterSource;
+	/** true while this iterator is leased from the pool, see {@link #release()} */
+	private boolean leased;
+
+
+	/** Create an empty iterator, call {@link #reset(Supplier)} or {@link #reset(Iterator)} to give it a source
+	 */
+	@SuppressWarnings("unchecked")
+	public EnhancedIterator() {
+		this.source = (Supplier<T>)EMPTY_SOURCE;
+	}
 
 
 	public EnhancedIterator(Supplier<T> source) {
@@ -93,6 +112,126 @@ public class EnhancedIterator<T> implements ClosableIterator<T>, PeekableIterato
 	}
 
 
+	/** Reuse this iterator with a new source, this does not close the previous source
+	 * @param source the source to read input from, null marks the end of the stream
+	 */
+	public void reset(Supplier<T> source) {
+		reset(source, null);
+	}
+
+
+	/** Reuse this iterator with a new source, this does not close the previous source
+	 * @param source the source to read input from, null marks the end of the stream
+	 * @param sourceToClose the source to close when {@link #close()} is called
+	 */
+	public void reset(Supplier<T> source, AutoCloseable sourceToClose) {
+		this.source = source;
+		this.sourceToClose = sourceToClose != null ? sourceToClose : (source instanceof AutoCloseable ? (AutoCloseable)source : null);
+		this.currentElem = null;
+		this.currentIndex = -1;
+		this.nextElem = source.get();
+	}
+
+
+	/** Reuse this iterator with a new source iterator, without allocating a new wrapper for each source.
+	 * This does not close the previous source
+	 * @param iter the source elements, a null element marks the end of the stream
+	 */
+	public void reset(Iterator<T> iter) {
+		if(iterSource == null) {
+			iterSource = new IteratorToSupplier<>(iter);
+		}
+		else {
+			iterSource.reset(iter);
+		}
+		reset(iterSource, iter instanceof AutoCloseable ? (AutoCloseable)iter : null);
+	}
+
+
+	/** Lease an iterator from the current thread's pool, or create one if the pool is empty.
+	 * Call {@link #release()} when done to return it to the pool
+	 * @param source the source to read input from, null marks the end of the stream
+	 */
+	public static <T> EnhancedIterator<T> lease(Supplier<T> source) {
+		EnhancedIterator<T> iter = leasePooled();
+		iter.reset(source);
+		return iter;
+	}
+
+
+	/** Lease an iterator from the current thread's pool, or create one if the pool is empty.
+	 * Call {@link #release()} when done to return it to the pool
+	 * @param iter the source elements, a null element marks the end of the stream
+	 */
+	public static <T> EnhancedIterator<T> lease(Iterator<T> iter) {
+		EnhancedIterator<T> res = leasePooled();
+		res.reset(iter);
+		return res;
+	}
+
+
+	@SuppressWarnings("unchecked")
+	private static <T> EnhancedIterator<T> leasePooled() {
+		EnhancedIterator<T> iter = (EnhancedIterator<T>)POOL.lease();
+		iter.leased = true;
+		return iter;
+	}
+
+
+	/** Clear this iterator's source (without closing it) and return this iterator to the current thread's pool for reuse by {@link #lease(Supplier)}.
+	 * This iterator must not be used after calling this method. Only iterators returned by {@code lease()} can be released,
+	 * iterators created by a constructor or factory method (including subclasses) are not pooled, use {@link #close()} instead.
+	 * @throws IllegalStateException if this iterator was not returned by {@code lease()} or has already been released
+	 */
+	@SuppressWarnings("unchecked")
+	public final void release() {
+		if(!leased) {
+			throw new IllegalStateException("iterator was not leased or has already been released");
+		}
+		leased = false;
+		if(iterSource != null) {
+			iterSource.reset(Collections.<T>emptyIterator());
+		}
+		reset((Supplier<T>)EMPTY_SOURCE);
+		POOL.release(this);
+	}
+
+
+	/** Skip up to {@code n} elements, subclasses with random access sources (such as {@link IndexedLineIterator}) override this to skip without reading each element
+	 * @param n the number of elements to skip
+	 * @return the number of elements skipped, less than {@code n} if the end of the source was reached
+	 */
+	public int skip(int n) {
+		if(n < 0) {
+			throw new IllegalArgumentException("n must be greater than or equal to 0, was: " + n);
+		}
+		int skipped = 0;
+		while(skipped < n && nextElem != null) {
+			next();
+			skipped++;
+		}
+		return skipped;
+	}
+
+
+	/**
+	 * @return true if this iterator is currently reading from {@code src}, used by subclasses to detect that {@link #reset(Supplier, AutoCloseable)} replaced their source
+	 */
+	final boolean hasSource(Supplier<?> src) {
+		return source == src;
+	}
+
+
+	/** Discard the current and next elements and read the next element from the source, used by subclasses after repositioning their source
+	 * @param nextIndex the index of the element the source returns next
+	 */
+	void refill(int nextIndex) {
+		this.currentElem = null;
+		this.nextElem = source.get();
+		this.currentIndex = nextIndex - 1;
+	}
+
+
 	/** Create an {@code EnhancedIterator} from a {@link BufferedReader}
 	 * @param reader
 	 * @param includeEolNewlines true to include newlines at the end of each line
@@ -141,6 +280,82 @@ public class EnhancedIterator<T> implements ClosableIterator<T>, PeekableIterato
 	}
 
 
+	/** Create an {@code EnhancedIterator} from a specific {@link Path} and a {@link LineIndex} of that file.
+	 * The returned iterator can {@link IndexedLineIterator#seekToLine(int) seek}, {@link IndexedLineIterator#skip(int) skip}
+	 * and {@link IndexedLineIterator#getLine(int) read} any line without reading the preceding lines
+	 * @param file the indexed file
+	 * @param cs the file's charset, see {@link LineIndex} for supported charsets
+	 * @param index the file's line index
+	 * @param startLine the first line to return
+	 * @param includeEolNewlines true to include newlines at the end of each line
+	 * @param modifier an optional function which transforms each line of text before it is returned
+	 * @return an {@link IndexedLineIterator} that iterates over the lines from {@code startLine} to the end of the file
+	 * @throws IOException
+	 */
+	public static final IndexedLineIterator fromPath(Path file, Charset cs, LineIndex index, int startLine, boolean includeEolNewlines, Function<String, String> modifier) throws IOException {
+		return IndexedLineIterator.open(file, cs, index, startLine, index.lineCount(), includeEolNewlines, modifier);
+	}
+
+
+	/** Create an {@code EnhancedIterator} from a specific {@link Path}, starting at a {@link LineCheckpoint}.
+	 * The file is opened with a seek to the checkpoint's byte offset, so the preceding lines are not read, and
+	 * {@link ResumableLineIterator#checkpoint()} can be used to save the position again
+	 * @param file the file to read
+	 * @param checkpoint the position of the first line to return, use {@code new LineCheckpoint(0, 0, cs)} to start at the beginning of the file
+	 * @param includeEolNewlines true to include newlines at the end of each line
+	 * @param modifier an optional function which transforms each line of text before it is returned
+	 * @return a {@link ResumableLineIterator} that iterates over the lines from {@code checkpoint} to the end of the file
+	 * @throws IOException if the file cannot be read or the checkpoint is not at the start of a line of the file
+	 */
+	public static final ResumableLineIterator fromPath(Path file, LineCheckpoint checkpoint, boolean includeEolNewlines, Function<String, String> modifier) throws IOException {
+		return ResumableLineIterator.open(file, checkpoint, includeEolNewlines, modifier);
+	}
+
+
+	/** Create an {@code EnhancedIterator} over the lines of a file which contain any of a set of literals.
+	 * The file's raw bytes are searched (using a multi-literal automaton, one table lookup per byte) before decoding,
+	 * so lines which do not match are never decoded, unlike filtering with a {@code modifier}
+	 * @param file the file to read
+	 * @param cs the file's charset, must be ASCII compatible, see {@link LineIndex}
+	 * @param literals the literals to search for, a line is returned if it contains at least one, must not be empty or contain newlines
+	 * @param ignoreCase true to match ASCII letters case-insensitively
+	 * @param includeEolNewlines true to include newlines at the end of each line
+	 * @param modifier an optional function which transforms each matching line of text before it is returned
+	 * @return an {@link EnhancedIterator} that iterates over the matching lines of {@code file}
+	 * @throws IOException
+	 */
+	public static final EnhancedIterator<String> fromPathMatching(Path file, Charset cs, Collection<String> literals, boolean ignoreCase,
+			boolean includeEolNewlines, Function<String, String> modifier) throws IOException {
+		return fromPathMatching(file, cs, literals, ignoreCase, includeEolNewlines, null, modifier);
+	}
+
+
+	/** Create an {@code EnhancedIterator} over the lines of a file which contain any of a set of literals, deduplicating the matching lines with a {@link StringInternCache}
+	 * @param file the file to read
+	 * @param cs the file's charset, must be ASCII compatible, see {@link LineIndex}
+	 * @param literals the literals to search for, a line is returned if it contains at least one, must not be empty or contain newlines
+	 * @param ignoreCase true to match ASCII letters case-insensitively
+	 * @param includeEolNewlines true to include newlines at the end of each line
+	 * @param interner an optional cache which each matching line's bytes are looked up in before they are decoded, see {@link StringInternCache#intern(byte[], int, int, Charset)}
+	 * @param modifier an optional function which transforms each matching line of text before it is returned, it receives the interned line
+	 * @return an {@link EnhancedIterator} that iterates over the matching lines of {@code file}
+	 * @throws IOException
+	 * @see #fromPathMatching(Path, Charset, Collection, boolean, boolean, Function)
+	 */
+	public static final EnhancedIterator<String> fromPathMatching(Path file, Charset cs, Collection<String> literals, boolean ignoreCase,
+			boolean includeEolNewlines, StringInternCache interner, Function<String, String> modifier) throws IOException {
+		ByteLiteralMatcher matcher = new ByteLiteralMatcher(literals, cs, ignoreCase);
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		MatchingLineSource source = new MatchingLineSource(channel, cs, matcher, includeEolNewlines, interner, modifier);
+		try {
+			return new EnhancedIterator<String>(source, source);
+		} catch(RuntimeException e) {
+			source.close();
+			throw e;
+		}
+	}
+
+
 	/** Create an {@code EnhancedIterator} from a URL source
 	 * @param src
 	 * @param cs
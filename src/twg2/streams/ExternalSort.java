@@ -0,0 +1,310 @@
+package twg2.streams;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/** Sort data sets which do not fit in memory. The source is read in runs of at most {@code maxRunSize} elements,
+ * each run is sorted (using {@link Arrays#parallelSort(Object[], int, int, Comparator)} so large runs are sorted across all cores)
+ * and spilled to a temporary file using an {@link ElementSerializer}. The sorted result is returned as a {@link ClosableIterator}
+ * which lazily k-way merges the runs and deletes the temporary files when it is closed.<br>
+ * If the source fits in a single run, no temporary files are created. The sort is stable.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class ExternalSort {
+	public static final int DEFAULT_MAX_MERGE_WAYS = 64;
+	static final int INITIAL_RUN_CAPACITY = 1024;
+
+	private ExternalSort() { throw new AssertionError("cannot instantiate static class ExternalSort"); }
+
+
+	/** @see #sort(Iterator, Comparator, ElementSerializer, int, int, Path)
+	 */
+	public static <T> ClosableIterator<T> sort(Iterator<? extends T> src, Comparator<? super T> comparator, ElementSerializer<T> serializer, int maxRunSize) throws IOException {
+		return sort(src, comparator, serializer, maxRunSize, DEFAULT_MAX_MERGE_WAYS, null);
+	}
+
+
+	/** Sort the elements of an iterator using temporary files for data which does not fit in memory
+	 * @param src the elements to sort, if it is {@link AutoCloseable} it is closed once it has been read
+	 * @param comparator the sort order
+	 * @param serializer the serializer used to write and read elements to and from temporary files
+	 * @param maxRunSize the maximum number of elements held in memory and sorted at once
+	 * @param maxMergeWays the maximum number of temporary files merged (and open) at once, if there are more runs than this,
+	 * intermediate merge passes are used
+	 * @param tempDir the directory to create temporary files in, null for the default temporary-file directory
+	 * @return an iterator over the sorted elements which must be closed to delete the temporary files
+	 * @throws IOException if there is an error writing or reading the temporary files
+	 */
+	public static <T> ClosableIterator<T> sort(Iterator<? extends T> src, Comparator<? super T> comparator, ElementSerializer<T> serializer,
+			int maxRunSize, int maxMergeWays, Path tempDir) throws IOException {
+		if(maxRunSize < 1) {
+			throw new IllegalArgumentException("maxRunSize must be greater than 0, was: " + maxRunSize);
+		}
+		if(maxMergeWays < 2) {
+			throw new IllegalArgumentException("maxMergeWays must be greater than 1, was: " + maxMergeWays);
+		}
+
+		List<SpillFile<T>> runs = new ArrayList<>();
+		try {
+			// grow the run buffer as needed so small inputs do not allocate maxRunSize elements
+			@SuppressWarnings("unchecked")
+			T[] buf = (T[])new Object[Math.min(maxRunSize, INITIAL_RUN_CAPACITY)];
+			int size = 0;
+			while(src.hasNext()) {
+				if(size == maxRunSize) {
+					runs.add(spillRun(buf, size, comparator, serializer, tempDir));
+					size = 0;
+				}
+				else if(size == buf.length) {
+					buf = Arrays.copyOf(buf, (int)Math.min(maxRunSize, (long)size * 2));
+				}
+				buf[size++] = src.next();
+			}
+			closeSource(src);
+
+			if(runs.isEmpty()) {
+				// the entire input fit in memory
+				Arrays.parallelSort(buf, 0, size, comparator);
+				return new MergeIterator<>(List.of(new ArrayIterator<>(buf, size)), comparator);
+			}
+			if(size > 0) {
+				runs.add(spillRun(buf, size, comparator, serializer, tempDir));
+			}
+			buf = null;
+
+			while(runs.size() > maxMergeWays) {
+				runs = mergePass(runs, comparator, serializer, maxMergeWays, tempDir);
+			}
+
+			return openMerge(runs, comparator);
+		} catch(IOException | RuntimeException | Error e) {
+			for(SpillFile<T> run : runs) {
+				try {
+					run.delete();
+				} catch(IOException de) {
+					e.addSuppressed(de);
+				}
+			}
+			throw e;
+		}
+	}
+
+
+	private static <T> SpillFile<T> spillRun(T[] buf, int size, Comparator<? super T> comparator, ElementSerializer<T> serializer, Path tempDir) throws IOException {
+		Arrays.parallelSort(buf, 0, size, comparator);
+		SpillFile<T> run = new SpillFile<>(tempDir, "sort-run-", serializer);
+		for(int i = 0; i < size; i++) {
+			run.write(buf[i]);
+			buf[i] = null;
+		}
+		run.finishWriting();
+		return run;
+	}
+
+
+	private static <T> List<SpillFile<T>> mergePass(List<SpillFile<T>> runs, Comparator<? super T> comparator, ElementSerializer<T> serializer, int maxMergeWays, Path tempDir) throws IOException {
+		List<SpillFile<T>> merged = new ArrayList<>((runs.size() + maxMergeWays - 1) / maxMergeWays);
+		try {
+			for(int i = 0, size = runs.size(); i < size; i += maxMergeWays) {
+				List<SpillFile<T>> group = runs.subList(i, Math.min(i + maxMergeWays, size));
+				SpillFile<T> dst = new SpillFile<>(tempDir, "sort-run-", serializer);
+				merged.add(dst);
+				try(MergeIterator<T> iter = openMerge(group, comparator)) {
+					while(iter.hasNext()) {
+						dst.write(iter.next());
+					}
+				}
+				dst.finishWriting();
+			}
+			return merged;
+		} catch(IOException | RuntimeException | Error e) {
+			// the caller only deletes the input runs, delete this pass's partial output
+			for(SpillFile<T> run : merged) {
+				try {
+					run.delete();
+				} catch(IOException de) {
+					e.addSuppressed(de);
+				}
+			}
+			throw e;
+		}
+	}
+
+
+	/** Open a reader for each run (deleting each run when its reader is closed) and merge them,
+	 * if a reader cannot be opened the readers opened so far are closed
+	 */
+	private static <T> MergeIterator<T> openMerge(List<SpillFile<T>> runs, Comparator<? super T> comparator) throws IOException {
+		List<ClosableIterator<T>> readers = new ArrayList<>(runs.size());
+		try {
+			for(SpillFile<T> run : runs) {
+				readers.add(run.reader(true));
+			}
+			return new MergeIterator<>(readers, comparator);
+		} catch(IOException | RuntimeException | Error e) {
+			for(ClosableIterator<T> reader : readers) {
+				try {
+					reader.close();
+				} catch(Exception ce) {
+					e.addSuppressed(ce);
+				}
+			}
+			throw e;
+		}
+	}
+
+
+	private static void closeSource(Iterator<?> src) throws IOException {
+		if(src instanceof AutoCloseable) {
+			try {
+				((AutoCloseable)src).close();
+			} catch(IOException | RuntimeException e) {
+				throw e;
+			} catch(Exception e) {
+				throw new IOException(e);
+			}
+		}
+	}
+
+
+
+
+	/** A lazy k-way merge of sorted iterators, ties are returned in iterator order
+	 * @param <T> the data type of the elements
+	 */
+	static class MergeIterator<T> implements ClosableIterator<T>, PeekableIterator<T> {
+		private final List<ClosableIterator<T>> sources;
+		private final PriorityQueue<Head<T>> heads;
+		private boolean closed;
+
+
+		MergeIterator(List<ClosableIterator<T>> sources, Comparator<? super T> comparator) {
+			this.sources = sources;
+			this.heads = new PriorityQueue<>(Math.max(1, sources.size()), (a, b) -> {
+				int res = comparator.compare(a.elem, b.elem);
+				return res != 0 ? res : Integer.compare(a.sourceIdx, b.sourceIdx);
+			});
+			for(int i = 0, size = sources.size(); i < size; i++) {
+				ClosableIterator<T> src = sources.get(i);
+				if(src.hasNext()) {
+					heads.add(new Head<>(src.next(), i));
+				}
+			}
+		}
+
+
+		@Override
+		public boolean hasNext() {
+			return !heads.isEmpty();
+		}
+
+
+		@Override
+		public T peek() {
+			Head<T> head = heads.peek();
+			return head != null ? head.elem : null;
+		}
+
+
+		@Override
+		public T next() {
+			Head<T> head = heads.poll();
+			if(head == null) {
+				throw new NoSuchElementException();
+			}
+			T elem = head.elem;
+			ClosableIterator<T> src = sources.get(head.sourceIdx);
+			if(src.hasNext()) {
+				// reuse the head to avoid an allocation per element
+				head.elem = src.next();
+				heads.add(head);
+			}
+			return elem;
+		}
+
+
+		@Override
+		public void close() throws IOException {
+			if(closed) {
+				return;
+			}
+			closed = true;
+			heads.clear();
+			IOException err = null;
+			for(ClosableIterator<T> src : sources) {
+				try {
+					src.close();
+				} catch(Exception e) {
+					if(err == null) {
+						err = e instanceof IOException ? (IOException)e : new IOException(e);
+					}
+					else {
+						err.addSuppressed(e);
+					}
+				}
+			}
+			if(err != null) {
+				throw err;
+			}
+		}
+
+	}
+
+
+
+
+	private static class Head<T> {
+		T elem;
+		final int sourceIdx;
+
+		Head(T elem, int sourceIdx) {
+			this.elem = elem;
+			this.sourceIdx = sourceIdx;
+		}
+	}
+
+
+
+
+	private static class ArrayIterator<T> implements ClosableIterator<T> {
+		private final T[] elems;
+		private final int size;
+		private int off;
+
+
+		ArrayIterator(T[] elems, int size) {
+			this.elems = elems;
+			this.size = size;
+		}
+
+
+		@Override
+		public boolean hasNext() {
+			return off < size;
+		}
+
+
+		@Override
+		public T next() {
+			if(off >= size) {
+				throw new NoSuchElementException();
+			}
+			return elems[off++];
+		}
+
+
+		@Override
+		public void close() {
+		}
+
+	}
+
+}
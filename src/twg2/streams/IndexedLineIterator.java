@@ -0,0 +1,243 @@
+package twg2.streams;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/** An {@link EnhancedIterator} over a range of lines of a file which has a {@link LineIndex}.<br>
+ * Lines are decoded directly from byte ranges given by the index, so {@link #seekToLine(int)}, {@link #skip(int)} and
+ * {@link #getLine(int)} do not read the lines before the target line. The file is read with positional reads, so
+ * {@link #getLine(int)} does not affect the iterator's position.<br>
+ * Multiple iterators over disjoint line ranges (see {@link LineIndex#splitPoints(int)}) can be used to read a file in parallel.<br>
+ * Like any {@link EnhancedIterator}, the source can be replaced by {@link #reset(Supplier)}. After that, {@link #skip(int)} reads
+ * and discards elements of the new source and {@link #seekToLine(int)} is not available. {@link #close()} always closes the indexed file.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class IndexedLineIterator extends EnhancedIterator<String> {
+	private final LineSource lineSource;
+
+
+	private IndexedLineIterator(LineSource lineSource) {
+		super(lineSource, lineSource);
+		this.lineSource = lineSource;
+		super.currentIndex = lineSource.startLine - 1;
+	}
+
+
+	/** Open an iterator over a range of lines of an indexed file
+	 * @param file the indexed file
+	 * @param cs the file's charset, see {@link LineIndex} for supported charsets
+	 * @param index the file's line index
+	 * @param startLine the first line to return
+	 * @param endLine the line after the last line to return (exclusive)
+	 * @param includeEolNewlines true to include newlines at the end of each line
+	 * @param modifier an optional function which transforms each line of text before it is returned
+	 * @throws IOException
+	 */
+	public static IndexedLineIterator open(Path file, Charset cs, LineIndex index, int startLine, int endLine, boolean includeEolNewlines, Function<String, String> modifier) throws IOException {
+		return open(file, cs, index, startLine, endLine, includeEolNewlines, null, modifier);
+	}
+
+
+	/** Open an iterator over a range of lines of an indexed file, deduplicating the lines with a {@link StringInternCache}
+	 * @param file the indexed file
+	 * @param cs the file's charset, see {@link LineIndex} for supported charsets
+	 * @param index the file's line index
+	 * @param startLine the first line to return
+	 * @param endLine the line after the last line to return (exclusive)
+	 * @param includeEolNewlines true to include newlines at the end of each line
+	 * @param interner an optional cache which each line's bytes are looked up in before they are decoded (see {@link StringInternCache#intern(byte[], int, int, Charset)}),
+	 * so repeated lines share one {@code String} instance and cached lines are not decoded again
+	 * @param modifier an optional function which transforms each line of text before it is returned, it receives the interned line
+	 * @throws IOException if the file cannot be opened
+	 * @throws UncheckedIOException if the first line cannot be read, for example because the file is shorter than when it was indexed
+	 */
+	public static IndexedLineIterator open(Path file, Charset cs, LineIndex index, int startLine, int endLine, boolean includeEolNewlines,
+			StringInternCache interner, Function<String, String> modifier) throws IOException {
+		if(startLine < 0 || startLine > endLine || endLine > index.lineCount()) {
+			throw new IndexOutOfBoundsException("line range [" + startLine + ", " + endLine + ") of [0, " + index.lineCount() + "]");
+		}
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			// the first line is read by the constructor, which fails if the file has been truncated since it was indexed
+			return new IndexedLineIterator(new LineSource(channel, cs, index, startLine, endLine, includeEolNewlines, interner, modifier));
+		} catch(RuntimeException | Error e) {
+			try {
+				channel.close();
+			} catch(IOException ce) {
+				e.addSuppressed(ce);
+			}
+			throw e;
+		}
+	}
+
+
+	/**
+	 * @return the index used by this iterator
+	 */
+	public LineIndex getIndex() {
+		return lineSource.index;
+	}
+
+
+	/** Position this iterator so that the next call to {@link #next()} returns line {@code line}
+	 * @param line the line number, in the range {@code [startLine, endLine]} of this iterator
+	 * @throws IllegalStateException if the indexed source has been replaced by {@link #reset(Supplier)}
+	 */
+	public void seekToLine(int line) {
+		if(!super.hasSource(lineSource)) {
+			throw new IllegalStateException("the indexed source of this iterator has been replaced by reset()");
+		}
+		if(line < lineSource.startLine || line > lineSource.endLine) {
+			throw new IndexOutOfBoundsException(line + " of [" + lineSource.startLine + ", " + lineSource.endLine + "]");
+		}
+		lineSource.nextLine = line;
+		super.refill(line);
+	}
+
+
+	/** Skip up to {@code n} lines without reading them
+	 * @return the number of lines skipped
+	 */
+	@Override
+	public int skip(int n) {
+		if(!super.hasSource(lineSource)) {
+			return super.skip(n);
+		}
+		if(n < 0) {
+			throw new IllegalArgumentException("n must be greater than or equal to 0, was: " + n);
+		}
+		int from = super.nextIndex();
+		int to = (int)Math.min((long)from + n, lineSource.endLine);
+		seekToLine(to);
+		return to - from;
+	}
+
+
+	/** Close the current source and the indexed file, if the source has been replaced by {@link #reset(Supplier)}
+	 */
+	@Override
+	public void close() throws Exception {
+		try {
+			super.close();
+		} finally {
+			if(!super.hasSource(lineSource)) {
+				lineSource.close();
+			}
+		}
+	}
+
+
+	/** Read any line of the file, this does not change the position of this iterator
+	 * @param line the line number, in the range {@code [0, index.lineCount())}
+	 * @return the line's text, without its line separator (the {@code modifier} is not applied)
+	 */
+	public String getLine(int line) {
+		try {
+			return lineSource.index.readLine(lineSource.channel, line, lineSource.cs);
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+
+
+
+	/** Reads lines sequentially from the byte ranges given by a {@link LineIndex}
+	 */
+	private static class LineSource implements Supplier<String>, AutoCloseable {
+		private final FileChannel channel;
+		private final Charset cs;
+		private final LineIndex index;
+		private final int startLine;
+		private final int endLine;
+		private final boolean includeEolNewlines;
+		private final StringInternCache interner;
+		private final Function<String, String> modifier;
+		private final ByteBuffer buf;
+		/** the file offset of the first byte in {@link #buf} */
+		private long bufStart;
+		private byte[] lineBytes;
+		int nextLine;
+
+
+		LineSource(FileChannel channel, Charset cs, LineIndex index, int startLine, int endLine, boolean includeEolNewlines, StringInternCache interner, Function<String, String> modifier) {
+			this.channel = channel;
+			this.cs = cs;
+			this.index = index;
+			this.startLine = startLine;
+			this.endLine = endLine;
+			this.includeEolNewlines = includeEolNewlines;
+			this.interner = interner;
+			this.modifier = modifier;
+			this.buf = ByteBuffer.allocate(SpillFile.BUFFER_SIZE);
+			this.buf.limit(0);
+			this.lineBytes = new byte[256];
+			this.nextLine = startLine;
+		}
+
+
+		@Override
+		public String get() {
+			if(nextLine >= endLine) {
+				return null;
+			}
+			int line = nextLine++;
+			long start = index.lineStart(line);
+			int len = (int)(index.lineStart(line + 1) - start);
+			try {
+				readBytes(start, len);
+			} catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			String res = LineIndex.decodeLine(lineBytes, 0, len, cs, includeEolNewlines, interner);
+			if(modifier != null) {
+				res = modifier.apply(res);
+			}
+			return res;
+		}
+
+
+		/** Read {@code len} bytes starting at file offset {@code start} into {@link #lineBytes}
+		 */
+		private void readBytes(long start, int len) throws IOException {
+			if(lineBytes.length < len) {
+				lineBytes = new byte[Math.max(len, lineBytes.length * 2)];
+			}
+			int copied = 0;
+			while(copied < len) {
+				long pos = start + copied;
+				// refill the buffer if the position is outside of it (also handles seeking backward or forward)
+				if(pos < bufStart || pos >= bufStart + buf.limit()) {
+					buf.clear();
+					int n = channel.read(buf, pos);
+					buf.flip();
+					bufStart = pos;
+					if(n <= 0) {
+						buf.limit(0);
+						throw new IOException("unexpected end of file at offset " + pos + ", the file may have changed since it was indexed");
+					}
+				}
+				int off = (int)(pos - bufStart);
+				int n = Math.min(len - copied, buf.limit() - off);
+				System.arraycopy(buf.array(), off, lineBytes, copied, n);
+				copied += n;
+			}
+		}
+
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+
+	}
+
+}
@@ -0,0 +1,123 @@
+package twg2.streams;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/** A growable array of {@code int} values, an unboxed alternative to {@code ArrayList<Integer>}.
+ * This class is not thread-safe.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @see StreamUtil#toIntArray(java.util.function.ToIntFunction)
+ */
+public class IntArrayList {
+	private int[] data;
+	private int size;
+
+
+	public IntArrayList() {
+		this(16);
+	}
+
+
+	/**
+	 * @param initialCapacity the initial array size
+	 */
+	public IntArrayList(int initialCapacity) {
+		if(initialCapacity < 0) {
+			throw new IllegalArgumentException("initialCapacity must be greater than or equal to 0, was: " + initialCapacity);
+		}
+		this.data = new int[initialCapacity];
+	}
+
+
+	public void add(int value) {
+		if(size == data.length) {
+			ensureCapacity(size + 1);
+		}
+		data[size++] = value;
+	}
+
+
+	public void addAll(int[] values) {
+		addAll(values, 0, values.length);
+	}
+
+
+	public void addAll(int[] values, int off, int len) {
+		ensureCapacity(size + len);
+		System.arraycopy(values, off, data, size, len);
+		size += len;
+	}
+
+
+	public void addAll(IntArrayList list) {
+		addAll(list.data, 0, list.size);
+	}
+
+
+	public int get(int index) {
+		if(index >= size) {
+			throw new IndexOutOfBoundsException(index + " of " + size);
+		}
+		return data[index];
+	}
+
+
+	public void set(int index, int value) {
+		if(index >= size) {
+			throw new IndexOutOfBoundsException(index + " of " + size);
+		}
+		data[index] = value;
+	}
+
+
+	public int size() {
+		return size;
+	}
+
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+
+	public void clear() {
+		size = 0;
+	}
+
+
+	/**
+	 * @return a new array containing the values in this list
+	 */
+	public int[] toArray() {
+		return Arrays.copyOf(data, size);
+	}
+
+
+	/**
+	 * @return a stream of the values in this list, this list should not be modified while the stream is in use
+	 */
+	public IntStream stream() {
+		return Arrays.stream(data, 0, size);
+	}
+
+
+	/** Grow the backing array (by at least 1.5x) to hold {@code minCapacity} values
+	 */
+	public void ensureCapacity(int minCapacity) {
+		if(minCapacity > data.length) {
+			if(minCapacity < 0 || minCapacity > Integer.MAX_VALUE - 8) {
+				throw new OutOfMemoryError("array capacity " + minCapacity + " is too large");
+			}
+			int newCapacity = (int)Math.min(Integer.MAX_VALUE - 8, Math.max(minCapacity, data.length + (long)(data.length >> 1) + 1));
+			data = Arrays.copyOf(data, newCapacity);
+		}
+	}
+
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+
+}
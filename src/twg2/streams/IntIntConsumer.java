@@ -0,0 +1,16 @@
+package twg2.streams;
+
+/** Represents an operation that accepts two {@code int} arguments and returns no result,
+ * the primitive specialization of {@link java.util.function.BiConsumer} for {@code int} pairs.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @see StreamUtil#forEachPair(int[], int[], IntIntConsumer)
+ */
+@FunctionalInterface
+public interface IntIntConsumer {
+
+	/** Performs this operation on the given arguments
+	 */
+	public void accept(int a, int b);
+
+}
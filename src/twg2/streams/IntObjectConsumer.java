@@ -0,0 +1,17 @@
+package twg2.streams;
+
+/** Represents an operation that accepts an {@code int} and an object argument and returns no result,
+ * the {@code int} key specialization of {@link java.util.function.BiConsumer}.
+ * @param <V> the type of the object argument
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @see IntObjectHashMap#forEach(IntObjectConsumer)
+ */
+@FunctionalInterface
+public interface IntObjectConsumer<V> {
+
+	/** Performs this operation on the given arguments
+	 */
+	public void accept(int key, V value);
+
+}
@@ -0,0 +1,287 @@
+package twg2.streams;
+
+import java.util.Arrays;
+import java.util.function.BiFunction;
+
+/** An open-addressing (linear probing) hash map from {@code int} keys to object values.<br>
+ * Keys are stored unboxed in an {@code int[]} parallel to an {@code Object[]} of values, so each entry costs 12 bytes
+ * (4 with compressed references) per slot plus the value, instead of a {@link java.util.HashMap} node and boxed key.
+ * The maximum load factor is 0.75. Null values are allowed. This class is not thread-safe.
+ * @param <V> the data type of the values
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @see StreamUtil#toIntObjectMap(java.util.function.ToIntFunction, java.util.function.Function)
+ */
+public class IntObjectHashMap<V> {
+	private int[] keys;
+	private Object[] values;
+	private int mask;
+	/** the number of entries stored in {@link #keys}, excluding the zero key */
+	private int slotsUsed;
+	/** the key 0 marks an empty slot, so it is stored separately */
+	private boolean hasZeroKey;
+	private V zeroValue;
+
+
+	public IntObjectHashMap() {
+		this(16);
+	}
+
+
+	/**
+	 * @param expectedSize the expected number of entries, used to size the initial table
+	 */
+	public IntObjectHashMap(int expectedSize) {
+		if(expectedSize < 0) {
+			throw new IllegalArgumentException("expectedSize must be greater than or equal to 0, was: " + expectedSize);
+		}
+		int slots = tableSize(expectedSize);
+		this.keys = new int[slots];
+		this.values = new Object[slots];
+		this.mask = slots - 1;
+	}
+
+
+	/**
+	 * @return the number of entries in this map
+	 */
+	public int size() {
+		return slotsUsed + (hasZeroKey ? 1 : 0);
+	}
+
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+
+	public boolean containsKey(int key) {
+		return key == 0 ? hasZeroKey : indexOf(key) >= 0;
+	}
+
+
+	/**
+	 * @return the value associated with {@code key}, or null if the key is not in this map
+	 */
+	public V get(int key) {
+		return getOrDefault(key, null);
+	}
+
+
+	/**
+	 * @return the value associated with {@code key}, or {@code defaultValue} if the key is not in this map
+	 */
+	@SuppressWarnings("unchecked")
+	public V getOrDefault(int key, V defaultValue) {
+		if(key == 0) {
+			return hasZeroKey ? zeroValue : defaultValue;
+		}
+		int idx = indexOf(key);
+		return idx >= 0 ? (V)values[idx] : defaultValue;
+	}
+
+
+	/** Associate a value with a key, replacing any existing value
+	 * @return the previous value associated with {@code key}, or null if there was none
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(int key, V value) {
+		if(key == 0) {
+			V prev = zeroValue;
+			hasZeroKey = true;
+			zeroValue = value;
+			return prev;
+		}
+		for(int i = hash(key) & mask; ; i = (i + 1) & mask) {
+			int cur = keys[i];
+			if(cur == key) {
+				V prev = (V)values[i];
+				values[i] = value;
+				return prev;
+			}
+			if(cur == 0) {
+				keys[i] = key;
+				values[i] = value;
+				if(++slotsUsed > (keys.length >>> 2) * 3) {
+					rehash(keys.length << 1);
+				}
+				return null;
+			}
+		}
+	}
+
+
+	/** Associate a value with a key, or if the key is already associated with a non-null value, replace its value with the result of
+	 * {@code remapping(oldValue, value)} (removing the key if the result is null), like {@link java.util.Map#merge(Object, Object, BiFunction)}
+	 * @return the new value associated with {@code key}
+	 */
+	public V merge(int key, V value, BiFunction<? super V, ? super V, ? extends V> remapping) {
+		V oldValue = get(key);
+		if(oldValue == null) {
+			put(key, value);
+			return value;
+		}
+		V newValue = remapping.apply(oldValue, value);
+		if(newValue == null) {
+			remove(key);
+		}
+		else {
+			put(key, newValue);
+		}
+		return newValue;
+	}
+
+
+	/** Add all of the entries from another map to this map, replacing the values of existing keys
+	 */
+	public void putAll(IntObjectHashMap<? extends V> map) {
+		map.forEach(this::put);
+	}
+
+
+	/** Remove a key
+	 * @return the value which was associated with {@code key}, or null if there was none
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(int key) {
+		if(key == 0) {
+			V prev = zeroValue;
+			hasZeroKey = false;
+			zeroValue = null;
+			return prev;
+		}
+		int idx = indexOf(key);
+		if(idx < 0) {
+			return null;
+		}
+		V prev = (V)values[idx];
+		slotsUsed--;
+		shiftKeys(idx);
+		return prev;
+	}
+
+
+	public void clear() {
+		Arrays.fill(keys, 0);
+		Arrays.fill(values, null);
+		slotsUsed = 0;
+		hasZeroKey = false;
+		zeroValue = null;
+	}
+
+
+	/** Call {@code consumer} with each key and value in this map, in no particular order
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(IntObjectConsumer<? super V> consumer) {
+		if(hasZeroKey) {
+			consumer.accept(0, zeroValue);
+		}
+		int[] ks = keys;
+		Object[] vs = values;
+		for(int i = 0, n = ks.length; i < n; i++) {
+			if(ks[i] != 0) {
+				consumer.accept(ks[i], (V)vs[i]);
+			}
+		}
+	}
+
+
+	/**
+	 * @return a new array containing the keys of this map, in no particular order
+	 */
+	public int[] keys() {
+		int[] res = new int[size()];
+		int n = 0;
+		if(hasZeroKey) {
+			res[n++] = 0;
+		}
+		for(int key : keys) {
+			if(key != 0) {
+				res[n++] = key;
+			}
+		}
+		return res;
+	}
+
+
+	private int indexOf(int key) {
+		for(int i = hash(key) & mask; ; i = (i + 1) & mask) {
+			int cur = keys[i];
+			if(cur == key) {
+				return i;
+			}
+			if(cur == 0) {
+				return -1;
+			}
+		}
+	}
+
+
+	/** Fill the slot at {@code pos} by shifting back the following entries in its probe sequence, so lookups never need tombstones
+	 */
+	private void shiftKeys(int pos) {
+		while(true) {
+			int last = pos;
+			pos = (pos + 1) & mask;
+			int cur;
+			while(true) {
+				cur = keys[pos];
+				if(cur == 0) {
+					keys[last] = 0;
+					values[last] = null;
+					return;
+				}
+				int slot = hash(cur) & mask;
+				// move the entry back if its ideal slot is not cyclically in (last, pos]
+				if(last <= pos ? (last >= slot || slot > pos) : (last >= slot && slot > pos)) {
+					break;
+				}
+				pos = (pos + 1) & mask;
+			}
+			keys[last] = cur;
+			values[last] = values[pos];
+		}
+	}
+
+
+	private void rehash(int slots) {
+		if(slots <= 0 || slots > (1 << 30)) {
+			throw new IllegalStateException("hash map is full (" + size() + " entries)");
+		}
+		int[] oldKeys = keys;
+		Object[] oldValues = values;
+		keys = new int[slots];
+		values = new Object[slots];
+		mask = slots - 1;
+		for(int j = 0, n = oldKeys.length; j < n; j++) {
+			int key = oldKeys[j];
+			if(key != 0) {
+				int i = hash(key) & mask;
+				while(keys[i] != 0) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = key;
+				values[i] = oldValues[j];
+			}
+		}
+	}
+
+
+	private static int hash(int key) {
+		return (int)OffHeapLongHashSet.mix(key);
+	}
+
+
+	/**
+	 * @return the power of 2 table size which holds {@code expectedSize} entries below the maximum load factor
+	 */
+	static int tableSize(int expectedSize) {
+		long slots = Math.max(16, (long)(expectedSize / 0.75) + 1);
+		if(slots > (1 << 30)) {
+			throw new IllegalArgumentException("expectedSize is too large: " + expectedSize);
+		}
+		return Integer.highestOneBit((int)slots - 1) << 1;
+	}
+
+}
@@ -8,6 +8,7 @@ import java.util.Iterator;
  * 
  * @author TeamworkGuy2
  * @since 2015-1-24
+ * @see CachingIterable
  */
 public class IterableLimited<T> implements Iterable<T> {
 	private Iterator<T> iter;
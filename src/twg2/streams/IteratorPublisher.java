@@ -0,0 +1,182 @@
+package twg2.streams;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** A {@link Flow.Publisher} which emits the elements of an {@link Iterator}, such as a {@link ClosableIterator} or {@link EnhancedIterator}.<br>
+ * Elements are only pulled from the iterator when the subscriber has outstanding demand (see {@link Flow.Subscription#request(long)}),
+ * so nothing is buffered. The iterator is closed (if it is {@link AutoCloseable}) when it completes, fails, or the subscription is cancelled.<br>
+ * An iterator can only be traversed once, so this publisher only accepts one subscriber, additional subscribers receive {@code onError()}.
+ * @param <T> the data type of the elements
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @see PublisherIterator
+ */
+public class IteratorPublisher<T> implements Flow.Publisher<T> {
+	private final Iterator<? extends T> source;
+	private final Executor executor;
+	private final AtomicBoolean subscribed = new AtomicBoolean(false);
+
+
+	/** Create a publisher which delivers elements on the thread which calls {@link Flow.Subscription#request(long)}
+	 * @param source the source elements
+	 */
+	public IteratorPublisher(Iterator<? extends T> source) {
+		this(source, null);
+	}
+
+
+	/** Create a publisher which delivers elements using an {@link Executor}
+	 * @param source the source elements
+	 * @param executor the executor to pull elements from {@code source} and deliver them on, null to deliver on the requesting thread
+	 */
+	public IteratorPublisher(Iterator<? extends T> source, Executor executor) {
+		this.source = source;
+		this.executor = executor;
+	}
+
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super T> subscriber) {
+		Objects.requireNonNull(subscriber, "subscriber");
+		if(!subscribed.compareAndSet(false, true)) {
+			subscriber.onSubscribe(new Flow.Subscription() {
+				@Override public void request(long n) { }
+				@Override public void cancel() { }
+			});
+			subscriber.onError(new IllegalStateException("IteratorPublisher only supports a single subscriber"));
+			return;
+		}
+		IteratorSubscription sub = new IteratorSubscription(subscriber);
+		subscriber.onSubscribe(sub);
+	}
+
+
+
+
+	private class IteratorSubscription implements Flow.Subscription, Runnable {
+		private final Flow.Subscriber<? super T> subscriber;
+		private final AtomicLong demand = new AtomicLong();
+		/** work-in-progress counter, ensures only one thread drains at a time and that requests made during onNext() are not lost */
+		private final AtomicInteger wip = new AtomicInteger();
+		private volatile boolean cancelled;
+		private volatile Throwable badRequest;
+		private boolean done;
+
+
+		IteratorSubscription(Flow.Subscriber<? super T> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+
+		@Override
+		public void request(long n) {
+			if(n <= 0) {
+				badRequest = new IllegalArgumentException("request must be positive (Reactive Streams rule 3.9), was: " + n);
+			}
+			else {
+				demand.getAndAccumulate(n, (a, b) -> {
+					long sum = a + b;
+					return sum < 0 ? Long.MAX_VALUE : sum;
+				});
+			}
+			schedule();
+		}
+
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			schedule();
+		}
+
+
+		private void schedule() {
+			if(wip.getAndIncrement() == 0) {
+				if(executor != null) {
+					executor.execute(this);
+				}
+				else {
+					run();
+				}
+			}
+		}
+
+
+		@Override
+		public void run() {
+			int missed = 1;
+			do {
+				drain();
+				missed = wip.addAndGet(-missed);
+			} while(missed != 0);
+		}
+
+
+		private void drain() {
+			if(done) {
+				return;
+			}
+			if(cancelled) {
+				finish();
+				return;
+			}
+			Throwable err = badRequest;
+			if(err != null) {
+				finish();
+				subscriber.onError(err);
+				return;
+			}
+			try {
+				long emitted = 0;
+				long requested = demand.get();
+				while(emitted < requested && !cancelled) {
+					if(!source.hasNext()) {
+						finish();
+						subscriber.onComplete();
+						return;
+					}
+					subscriber.onNext(source.next());
+					emitted++;
+					if(emitted == requested) {
+						requested = demand.addAndGet(-emitted);
+						emitted = 0;
+					}
+				}
+				if(emitted > 0) {
+					demand.addAndGet(-emitted);
+				}
+				if(cancelled) {
+					finish();
+				}
+				else if(demand.get() == 0 && !source.hasNext()) {
+					// complete without waiting for further demand, allowed by Reactive Streams rule 1.4
+					finish();
+					subscriber.onComplete();
+				}
+			} catch(Throwable t) {
+				finish();
+				subscriber.onError(t);
+			}
+		}
+
+
+		private void finish() {
+			done = true;
+			if(source instanceof AutoCloseable) {
+				try {
+					((AutoCloseable)source).close();
+				} catch(Exception e) {
+					// do nothing, the subscription is already terminated
+				}
+			}
+		}
+
+	}
+
+}
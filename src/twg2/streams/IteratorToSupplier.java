@@ -1,5 +1,6 @@
 package twg2.streams;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.function.Supplier;
 
@@ -13,10 +14,14 @@ import java.util.function.Supplier;
  * @since 2015-1-24
  */
 public class IteratorToSupplier<T> implements Supplier<T> {
+	private static final ThreadLocalPool<IteratorToSupplier<?>> POOL = new ThreadLocalPool<>(() -> new IteratorToSupplier<Object>(Collections.emptyIterator()), ThreadLocalPool.DEFAULT_MAX_PER_THREAD);
+
 	private Iterator<T> iter;
 	private boolean ended = false;
 	private T endValue;
 	private int index = 0;
+	/** true while this supplier is leased from the pool, see {@link #release()} */
+	private boolean leased;
 
 
 	public IteratorToSupplier(Iterable<T> iterable) {
@@ -52,6 +57,55 @@ public class IteratorToSupplier<T> implements Supplier<T> {
 	}
 
 
+	/** Reuse this supplier with a new source iterator, the end value is reset to {@code null}
+	 * @param iter the source iterator
+	 */
+	public void reset(Iterator<T> iter) {
+		reset(iter, null);
+	}
+
+
+	/** Reuse this supplier with a new source iterator
+	 * @param iter the source iterator
+	 * @param endValue the value to return when {@link #get()} is called and there is no underlying value to return
+	 */
+	public void reset(Iterator<T> iter, T endValue) {
+		this.iter = iter;
+		this.endValue = endValue;
+		this.ended = false;
+		this.index = 0;
+	}
+
+
+	/** Lease a supplier from the current thread's pool, or create one if the pool is empty.
+	 * Call {@link #release()} when done to return it to the pool
+	 * @param iter the source iterator
+	 * @param endValue the value to return when {@link #get()} is called and there is no underlying value to return
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> IteratorToSupplier<T> lease(Iterator<T> iter, T endValue) {
+		IteratorToSupplier<T> res = (IteratorToSupplier<T>)POOL.lease();
+		res.leased = true;
+		res.reset(iter, endValue);
+		return res;
+	}
+
+
+	/** Clear this supplier's source and return this supplier to the current thread's pool for reuse by {@link #lease(Iterator, Object)}.
+	 * This supplier must not be used after calling this method. Only suppliers returned by {@code lease()} can be released,
+	 * suppliers created by a constructor (including subclasses) are not pooled.
+	 * @throws IllegalStateException if this supplier was not returned by {@code lease()} or has already been released
+	 */
+	public final void release() {
+		if(!leased) {
+			throw new IllegalStateException("supplier was not leased or has already been released");
+		}
+		leased = false;
+		reset(Collections.<T>emptyIterator(), null);
+		POOL.release(this);
+	}
+
+
 	@Override
 	public T get() {
 		if(!iter.hasNext()) {
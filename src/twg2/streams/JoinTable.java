@@ -0,0 +1,165 @@
+package twg2.streams;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/** An insert-only multimap used as the build side of a hash join.<br>
+ * Distinct keys are stored in an open-addressing (linear probing) table and the elements for each key form a chain
+ * through a parallel {@code int[]} of next indices, in insertion order. Each element costs one reference and one {@code int},
+ * each distinct key one reference and two {@code int}s per slot, no entry or list objects are allocated per key.
+ * @param <K> the key type
+ * @param <R> the element type
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+final class JoinTable<K, R> {
+	private Object[] keys;
+	/** the index of the first and last element of each key's chain */
+	private int[] heads;
+	private int[] tails;
+	private int mask;
+	private int keyCount;
+	private Object[] elems;
+	/** the index of the next element with the same key, -1 at the end of a chain */
+	private int[] next;
+	private int size;
+
+
+	JoinTable() {
+		int slots = 16;
+		this.keys = new Object[slots];
+		this.heads = new int[slots];
+		this.tails = new int[slots];
+		this.mask = slots - 1;
+		this.elems = new Object[16];
+		this.next = new int[16];
+	}
+
+
+	/** Add an element, elements with null keys are ignored since they never match
+	 */
+	public void add(K key, R elem) {
+		if(key == null) {
+			return;
+		}
+		if(size == elems.length) {
+			int newCapacity = size + (size >> 1) + 1;
+			elems = Arrays.copyOf(elems, newCapacity);
+			next = Arrays.copyOf(next, newCapacity);
+		}
+		int idx = size++;
+		elems[idx] = elem;
+		next[idx] = -1;
+
+		int slot = slotOf(key);
+		if(keys[slot] == null) {
+			keys[slot] = key;
+			heads[slot] = idx;
+			tails[slot] = idx;
+			if(++keyCount > (keys.length >>> 2) * 3) {
+				rehash();
+			}
+		}
+		else {
+			next[tails[slot]] = idx;
+			tails[slot] = idx;
+		}
+	}
+
+
+	/**
+	 * @return the index of the first element with {@code key}, or -1 if there are none
+	 */
+	public int first(Object key) {
+		if(key == null) {
+			return -1;
+		}
+		int slot = slotOf(key);
+		return keys[slot] != null ? heads[slot] : -1;
+	}
+
+
+	/**
+	 * @return the index of the next element with the same key as the element at {@code idx}, or -1 if there are no more
+	 */
+	public int next(int idx) {
+		return next[idx];
+	}
+
+
+	@SuppressWarnings("unchecked")
+	public R get(int idx) {
+		return (R)elems[idx];
+	}
+
+
+	/**
+	 * @return the number of elements
+	 */
+	public int size() {
+		return size;
+	}
+
+
+	/**
+	 * @return an iterator over the elements in the order they were added
+	 */
+	public Iterator<R> iterator() {
+		return new Iterator<R>() {
+			private int idx;
+
+			@Override
+			public boolean hasNext() {
+				return idx < size;
+			}
+
+			@Override
+			public R next() {
+				if(idx >= size) {
+					throw new NoSuchElementException();
+				}
+				return get(idx++);
+			}
+		};
+	}
+
+
+	/**
+	 * @return the slot containing {@code key}, or the empty slot where it belongs
+	 */
+	private int slotOf(Object key) {
+		// use the high bits, the low bits of the mixed hash are shared by all keys in a StreamSplitFilter.hashPartition() partition
+		int i = (int)(OffHeapLongHashSet.mix(key.hashCode()) >>> 32) & mask;
+		Object cur;
+		while((cur = keys[i]) != null && !cur.equals(key)) {
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+
+	private void rehash() {
+		Object[] oldKeys = keys;
+		int[] oldHeads = heads;
+		int[] oldTails = tails;
+		int slots = oldKeys.length << 1;
+		if(slots <= 0) {
+			throw new IllegalStateException("join table is full (" + keyCount + " keys)");
+		}
+		keys = new Object[slots];
+		heads = new int[slots];
+		tails = new int[slots];
+		mask = slots - 1;
+		for(int j = 0; j < oldKeys.length; j++) {
+			Object key = oldKeys[j];
+			if(key != null) {
+				int i = slotOf(key);
+				keys[i] = key;
+				heads[i] = oldHeads[j];
+				tails[i] = oldTails[j];
+			}
+		}
+	}
+
+}
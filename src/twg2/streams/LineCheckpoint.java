@@ -0,0 +1,108 @@
+package twg2.streams;
+
+import java.nio.charset.Charset;
+import java.util.Objects;
+
+/** An immutable position in a text file, taken at a line boundary, from which a {@link ResumableLineIterator} can be reopened
+ * without reading the preceding lines.<br>
+ * A checkpoint contains the byte offset of the next line, that line's number, and the decoder state at that offset.
+ * Lines are split on {@code '\n'} bytes and each line is decoded independently (see {@link LineIndex}), so the decoder state
+ * at a line boundary is fully described by the charset.<br>
+ * {@link #toString()} returns a compact token which can be saved and parsed with {@link #parse(String)}.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public final class LineCheckpoint {
+	private static final String TOKEN_VERSION = "1";
+
+	private final long offset;
+	private final int line;
+	private final Charset charset;
+
+
+	/**
+	 * @param offset the byte offset of the start of the next line
+	 * @param line the line number of the next line
+	 * @param charset the file's charset
+	 */
+	public LineCheckpoint(long offset, int line, Charset charset) {
+		if(offset < 0) {
+			throw new IllegalArgumentException("offset must be greater than or equal to 0, was: " + offset);
+		}
+		if(line < 0) {
+			throw new IllegalArgumentException("line must be greater than or equal to 0, was: " + line);
+		}
+		this.offset = offset;
+		this.line = line;
+		this.charset = Objects.requireNonNull(charset, "charset");
+	}
+
+
+	/**
+	 * @return the byte offset of the start of the next line
+	 */
+	public long getOffset() {
+		return offset;
+	}
+
+
+	/**
+	 * @return the line number of the next line
+	 */
+	public int getLine() {
+		return line;
+	}
+
+
+	/**
+	 * @return the charset used to decode lines
+	 */
+	public Charset getCharset() {
+		return charset;
+	}
+
+
+	/** Parse a token created by {@link #toString()}
+	 * @throws IllegalArgumentException if the token is not valid
+	 */
+	public static LineCheckpoint parse(String token) {
+		String[] parts = token.split(":", 4);
+		if(parts.length != 4 || !TOKEN_VERSION.equals(parts[0])) {
+			throw new IllegalArgumentException("invalid line checkpoint token: '" + token + "'");
+		}
+		try {
+			return new LineCheckpoint(Long.parseLong(parts[1]), Integer.parseInt(parts[2]), Charset.forName(parts[3]));
+		} catch(IllegalArgumentException e) {
+			throw new IllegalArgumentException("invalid line checkpoint token: '" + token + "'", e);
+		}
+	}
+
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) {
+			return true;
+		}
+		if(!(obj instanceof LineCheckpoint)) {
+			return false;
+		}
+		LineCheckpoint o = (LineCheckpoint)obj;
+		return offset == o.offset && line == o.line && charset.equals(o.charset);
+	}
+
+
+	@Override
+	public int hashCode() {
+		return (Long.hashCode(offset) * 31 + line) * 31 + charset.hashCode();
+	}
+
+
+	/**
+	 * @return a token of the form {@code 'version:offset:line:charset'}
+	 */
+	@Override
+	public String toString() {
+		return TOKEN_VERSION + ":" + offset + ":" + line + ":" + charset.name();
+	}
+
+}
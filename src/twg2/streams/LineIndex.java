@@ -0,0 +1,320 @@
+package twg2.streams;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/** An index of the byte offset at which each line of a text file starts, allowing lines to be read by line number without
+ * decoding the preceding lines.<br>
+ * The index is built by scanning the file's raw bytes for {@code '\n'} (8 bytes at a time), so it is only valid for charsets
+ * in which {@code '\n'} is always encoded as the single byte {@code 0x0A} and that byte never appears inside another character
+ * (such as UTF-8, US-ASCII and ISO-8859-*, but not UTF-16). A trailing {@code '\r'} is stripped from each line, a lone {@code '\r'}
+ * is not treated as a line separator. Like {@link java.io.BufferedReader#readLine()}, a final newline does not start an extra empty line.<br>
+ * An index can be saved to a sidecar file along with the indexed file's size and modification time, see {@link #loadOrBuild(Path, Path)}.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @see IndexedLineIterator
+ */
+public class LineIndex {
+	private static final int SIDECAR_MAGIC = 0x4C494458; // "LIDX"
+	private static final int SIDECAR_VERSION = 1;
+	/** magic, version, file size, last modified, line count */
+	private static final int SIDECAR_HEADER_SIZE = 4 + 4 + 8 + 8 + 4;
+	private static final int SCAN_BUFFER_SIZE = 1 << 20;
+	private static final long ONES = 0x0101010101010101L;
+	private static final long LOW7 = 0x7F7F7F7F7F7F7F7FL;
+	private static final long NEWLINES = ONES * '\n';
+
+	/** the start offset of each line, followed by the file size */
+	private final long[] offsets;
+	private final int lineCount;
+	private final long fileSize;
+	private final long lastModified;
+
+
+	private LineIndex(long[] offsets, int lineCount, long fileSize, long lastModified) {
+		this.offsets = offsets;
+		this.lineCount = lineCount;
+		this.fileSize = fileSize;
+		this.lastModified = lastModified;
+	}
+
+
+	/**
+	 * @return the number of lines in the indexed file
+	 */
+	public int lineCount() {
+		return lineCount;
+	}
+
+
+	/**
+	 * @return the size, in bytes, of the indexed file when it was indexed
+	 */
+	public long fileSize() {
+		return fileSize;
+	}
+
+
+	/**
+	 * @return the modification time, in milliseconds since the epoch, of the indexed file when it was indexed
+	 */
+	public long lastModified() {
+		return lastModified;
+	}
+
+
+	/**
+	 * @param line the line number, in the range {@code [0, lineCount()]}, {@code lineCount()} returns the file size
+	 * @return the byte offset at which the line starts
+	 */
+	public long lineStart(int line) {
+		if(line < 0 || line > lineCount) {
+			throw new IndexOutOfBoundsException(line + " of [0, " + lineCount + "]");
+		}
+		return offsets[line];
+	}
+
+
+	/**
+	 * @param line the line number, in the range {@code [0, lineCount())}
+	 * @return the byte offset at which the next line starts (i.e. the end of this line including its newline)
+	 */
+	public long lineEnd(int line) {
+		return lineStart(line + 1);
+	}
+
+
+	/**
+	 * @param offset a byte offset in the range {@code [0, fileSize()]}
+	 * @return the number of the line containing {@code offset}, or {@code lineCount()} if the offset is the end of the file
+	 */
+	public int lineAt(long offset) {
+		int idx = Arrays.binarySearch(offsets, 0, lineCount + 1, offset);
+		return idx >= 0 ? idx : -idx - 2;
+	}
+
+
+	/** Split the file into approximately equal byte ranges which start and end on line boundaries, for parallel readers
+	 * @param parts the number of parts
+	 * @return {@code parts + 1} line numbers, part {@code i} contains lines {@code [res[i], res[i + 1])}
+	 */
+	public int[] splitPoints(int parts) {
+		if(parts < 1) {
+			throw new IllegalArgumentException("parts must be greater than 0, was: " + parts);
+		}
+		int[] res = new int[parts + 1];
+		for(int i = 1; i < parts; i++) {
+			long target = fileSize * i / parts;
+			int line = lineAt(target);
+			// start the part at the first line which starts at or after the target offset
+			if(line < lineCount && offsets[line] < target) {
+				line++;
+			}
+			res[i] = Math.max(res[i - 1], line);
+		}
+		res[parts] = lineCount;
+		return res;
+	}
+
+
+	/** Read a single line using positional reads, this does not change the channel's position
+	 * @param channel a channel open for reading the indexed file
+	 * @param line the line number
+	 * @param cs the file's charset
+	 * @return the line's text, without its line separator
+	 */
+	public String readLine(FileChannel channel, int line, Charset cs) throws IOException {
+		long start = lineStart(line);
+		int len = (int)(lineEnd(line) - start);
+		ByteBuffer buf = ByteBuffer.allocate(len);
+		while(buf.hasRemaining()) {
+			if(channel.read(buf, start + buf.position()) < 0) {
+				throw new IOException("unexpected end of file reading line " + line + ", the file may have changed since it was indexed");
+			}
+		}
+		return decodeLine(buf.array(), 0, len, cs);
+	}
+
+
+	/** Save this index to a sidecar file
+	 */
+	public void save(Path sidecar) throws IOException {
+		try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(sidecar), SpillFile.BUFFER_SIZE))) {
+			out.writeInt(SIDECAR_MAGIC);
+			out.writeInt(SIDECAR_VERSION);
+			out.writeLong(fileSize);
+			out.writeLong(lastModified);
+			out.writeInt(lineCount);
+			for(int i = 0; i <= lineCount; i++) {
+				out.writeLong(offsets[i]);
+			}
+		}
+	}
+
+
+	/** Load an index from a sidecar file if it exists and matches {@code file}'s current size and modification time,
+	 * otherwise build a new index and save it to {@code sidecar}
+	 * @param file the file to index
+	 * @param sidecar the index file
+	 */
+	public static LineIndex loadOrBuild(Path file, Path sidecar) throws IOException {
+		long size = Files.size(file);
+		long modified = Files.getLastModifiedTime(file).toMillis();
+		LineIndex index = load(sidecar, size, modified);
+		if(index == null) {
+			index = build(file);
+			index.save(sidecar);
+		}
+		return index;
+	}
+
+
+	/** Load an index from a sidecar file
+	 * @return the index, or null if the sidecar does not exist, is not a valid index (including a truncated or corrupt sidecar), or does not match the expected file size and modification time
+	 */
+	static LineIndex load(Path sidecar, long expectedFileSize, long expectedLastModified) throws IOException {
+		long sidecarSize;
+		try {
+			sidecarSize = Files.size(sidecar);
+		} catch(NoSuchFileException e) {
+			return null;
+		}
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(sidecar), SpillFile.BUFFER_SIZE))) {
+			if(in.readInt() != SIDECAR_MAGIC || in.readInt() != SIDECAR_VERSION) {
+				return null;
+			}
+			long size = in.readLong();
+			long modified = in.readLong();
+			if(size != expectedFileSize || modified != expectedLastModified) {
+				return null;
+			}
+			int count = in.readInt();
+			// check the line count against the sidecar's length before allocating, so a corrupt count cannot cause a huge allocation
+			if(count < 0 || sidecarSize != SIDECAR_HEADER_SIZE + ((long)count + 1) * 8) {
+				return null;
+			}
+			long[] offsets = new long[count + 1];
+			long prev = 0;
+			for(int i = 0; i <= count; i++) {
+				long offset = in.readLong();
+				if(offset < prev || offset > size) {
+					return null;
+				}
+				offsets[i] = offset;
+				prev = offset;
+			}
+			if(offsets[0] != 0 || offsets[count] != size) {
+				return null;
+			}
+			return new LineIndex(offsets, count, size, modified);
+		} catch(NoSuchFileException | EOFException e) {
+			return null;
+		}
+	}
+
+
+	/** Build an index by scanning a file's bytes for newlines
+	 * @param file the file to index
+	 */
+	public static LineIndex build(Path file) throws IOException {
+		long modified = Files.getLastModifiedTime(file).toMillis();
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer buf = ByteBuffer.allocateDirect(SCAN_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			long[] offsets = new long[1024];
+			int count = 1; // line 0 starts at offset 0
+			long bufStart = 0;
+			long fileSize = 0;
+
+			while(channel.read(buf) >= 0 || buf.position() > 0) {
+				buf.flip();
+				int limit = buf.limit();
+				if(limit == 0) {
+					break;
+				}
+				int i = 0;
+				// scan 8 bytes at a time, 'hits' has the high bit set in each byte equal to '\n' (no carries between bytes)
+				for(int end = limit - 7; i < end; i += 8) {
+					long x = buf.getLong(i) ^ NEWLINES;
+					long hits = ~(((x & LOW7) + LOW7) | x | LOW7);
+					while(hits != 0) {
+						int pos = i + (Long.numberOfTrailingZeros(hits) >>> 3);
+						if(count == offsets.length) {
+							offsets = Arrays.copyOf(offsets, offsets.length * 2);
+						}
+						offsets[count++] = bufStart + pos + 1;
+						hits &= hits - 1;
+					}
+				}
+				for(; i < limit; i++) {
+					if(buf.get(i) == '\n') {
+						if(count == offsets.length) {
+							offsets = Arrays.copyOf(offsets, offsets.length * 2);
+						}
+						offsets[count++] = bufStart + i + 1;
+					}
+				}
+				bufStart += limit;
+				fileSize = bufStart;
+				buf.clear();
+			}
+
+			// the last offset is the start of a line only if there is text after the final newline
+			int lineCount = offsets[count - 1] < fileSize ? count : count - 1;
+			if(lineCount + 1 > offsets.length) {
+				offsets = Arrays.copyOf(offsets, lineCount + 1);
+			}
+			offsets[lineCount] = fileSize;
+			return new LineIndex(Arrays.copyOf(offsets, lineCount + 1), lineCount, fileSize, modified);
+		}
+	}
+
+
+	/** Decode a line's bytes, excluding a trailing {@code '\n'} or {@code "\r\n"}
+	 */
+	static String decodeLine(byte[] bytes, int off, int len, Charset cs) {
+		if(len > 0 && bytes[off + len - 1] == '\n') {
+			len--;
+			if(len > 0 && bytes[off + len - 1] == '\r') {
+				len--;
+			}
+		}
+		return new String(bytes, off, len, cs);
+	}
+
+
+	/** Decode a line's bytes like {@link #decodeLine(byte[], int, int, Charset)}, optionally appending a {@code '\n'}, and deduplicate the result
+	 * @param includeEolNewline true to append a {@code '\n'} to the decoded line
+	 * @param interner an optional cache to look the line up in, lines ending with a single {@code '\n'} are looked up by their raw bytes
+	 * so a {@code String} is only created for lines which are not cached
+	 */
+	static String decodeLine(byte[] bytes, int off, int len, Charset cs, boolean includeEolNewline, StringInternCache interner) {
+		if(interner == null) {
+			String line = decodeLine(bytes, off, len, cs);
+			return includeEolNewline ? line + '\n' : line;
+		}
+		int end = off + len;
+		boolean lf = len > 0 && bytes[end - 1] == '\n';
+		boolean crlf = lf && len > 1 && bytes[end - 2] == '\r';
+		if(!includeEolNewline) {
+			return interner.intern(bytes, off, len - (crlf ? 2 : (lf ? 1 : 0)), cs);
+		}
+		if(lf && !crlf) {
+			return interner.intern(bytes, off, len, cs);
+		}
+		return interner.intern(decodeLine(bytes, off, len, cs) + '\n');
+	}
+
+}
@@ -0,0 +1,16 @@
+package twg2.streams;
+
+/** Represents an operation that accepts two {@code long} arguments and returns no result,
+ * the primitive specialization of {@link java.util.function.BiConsumer} for {@code long} pairs.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @see StreamUtil#forEachPair(long[], long[], LongLongConsumer)
+ */
+@FunctionalInterface
+public interface LongLongConsumer {
+
+	/** Performs this operation on the given arguments
+	 */
+	public void accept(long a, long b);
+
+}
@@ -0,0 +1,293 @@
+package twg2.streams;
+
+import java.util.Arrays;
+import java.util.function.LongBinaryOperator;
+
+/** An open-addressing (linear probing) hash map from {@code long} keys to {@code long} values.<br>
+ * Keys and values are stored unboxed in parallel {@code long[]} arrays, so each entry costs 16 bytes per slot instead of
+ * a {@link java.util.HashMap} node and two boxed {@link Long Longs}. The maximum load factor is 0.75.
+ * Useful for lookup tables and counters keyed by IDs. This class is not thread-safe.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @see StreamUtil#toLongLongMap(java.util.function.ToLongFunction, java.util.function.ToLongFunction)
+ */
+public class LongLongHashMap {
+	private long[] keys;
+	private long[] values;
+	private int mask;
+	/** the number of entries stored in {@link #keys}, excluding the zero key */
+	private int slotsUsed;
+	/** the key 0 marks an empty slot, so it is stored separately */
+	private boolean hasZeroKey;
+	private long zeroValue;
+
+
+	public LongLongHashMap() {
+		this(16);
+	}
+
+
+	/**
+	 * @param expectedSize the expected number of entries, used to size the initial table
+	 */
+	public LongLongHashMap(int expectedSize) {
+		if(expectedSize < 0) {
+			throw new IllegalArgumentException("expectedSize must be greater than or equal to 0, was: " + expectedSize);
+		}
+		int slots = IntObjectHashMap.tableSize(expectedSize);
+		this.keys = new long[slots];
+		this.values = new long[slots];
+		this.mask = slots - 1;
+	}
+
+
+	/**
+	 * @return the number of entries in this map
+	 */
+	public int size() {
+		return slotsUsed + (hasZeroKey ? 1 : 0);
+	}
+
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+
+	public boolean containsKey(long key) {
+		return key == 0 ? hasZeroKey : indexOf(key) >= 0;
+	}
+
+
+	/**
+	 * @return the value associated with {@code key}, or {@code defaultValue} if the key is not in this map
+	 */
+	public long get(long key, long defaultValue) {
+		if(key == 0) {
+			return hasZeroKey ? zeroValue : defaultValue;
+		}
+		int idx = indexOf(key);
+		return idx >= 0 ? values[idx] : defaultValue;
+	}
+
+
+	/** Associate a value with a key, replacing any existing value
+	 * @return true if the key was not already in this map
+	 */
+	public boolean put(long key, long value) {
+		if(key == 0) {
+			boolean added = !hasZeroKey;
+			hasZeroKey = true;
+			zeroValue = value;
+			return added;
+		}
+		int idx = insertionIndex(key);
+		boolean added = keys[idx] == 0;
+		keys[idx] = key;
+		values[idx] = value;
+		if(added) {
+			grown();
+		}
+		return added;
+	}
+
+
+	/** Add {@code delta} to the value associated with {@code key}, a key which is not in this map starts at 0
+	 * @return the new value associated with {@code key}
+	 */
+	public long addTo(long key, long delta) {
+		if(key == 0) {
+			hasZeroKey = true;
+			return zeroValue += delta;
+		}
+		int idx = insertionIndex(key);
+		if(keys[idx] == 0) {
+			keys[idx] = key;
+			values[idx] = delta;
+			grown();
+			return delta;
+		}
+		return values[idx] += delta;
+	}
+
+
+	/** Associate a value with a key, or if the key is already in this map, replace its value with the result of {@code remapping(oldValue, value)}
+	 * @return the new value associated with {@code key}
+	 */
+	public long merge(long key, long value, LongBinaryOperator remapping) {
+		if(key == 0) {
+			zeroValue = hasZeroKey ? remapping.applyAsLong(zeroValue, value) : value;
+			hasZeroKey = true;
+			return zeroValue;
+		}
+		int idx = insertionIndex(key);
+		if(keys[idx] == 0) {
+			keys[idx] = key;
+			values[idx] = value;
+			grown();
+			return value;
+		}
+		return values[idx] = remapping.applyAsLong(values[idx], value);
+	}
+
+
+	/** Add all of the entries from another map to this map, replacing the values of existing keys
+	 */
+	public void putAll(LongLongHashMap map) {
+		map.forEach(this::put);
+	}
+
+
+	/** Remove a key
+	 * @return true if the key was in this map
+	 */
+	public boolean remove(long key) {
+		if(key == 0) {
+			boolean removed = hasZeroKey;
+			hasZeroKey = false;
+			zeroValue = 0;
+			return removed;
+		}
+		int idx = indexOf(key);
+		if(idx < 0) {
+			return false;
+		}
+		slotsUsed--;
+		shiftKeys(idx);
+		return true;
+	}
+
+
+	public void clear() {
+		Arrays.fill(keys, 0);
+		Arrays.fill(values, 0);
+		slotsUsed = 0;
+		hasZeroKey = false;
+		zeroValue = 0;
+	}
+
+
+	/** Call {@code consumer} with each key and value in this map, in no particular order
+	 */
+	public void forEach(LongLongConsumer consumer) {
+		if(hasZeroKey) {
+			consumer.accept(0, zeroValue);
+		}
+		long[] ks = keys;
+		long[] vs = values;
+		for(int i = 0, n = ks.length; i < n; i++) {
+			if(ks[i] != 0) {
+				consumer.accept(ks[i], vs[i]);
+			}
+		}
+	}
+
+
+	/**
+	 * @return a new array containing the keys of this map, in no particular order
+	 */
+	public long[] keys() {
+		long[] res = new long[size()];
+		int n = 0;
+		if(hasZeroKey) {
+			res[n++] = 0;
+		}
+		for(long key : keys) {
+			if(key != 0) {
+				res[n++] = key;
+			}
+		}
+		return res;
+	}
+
+
+	private int indexOf(long key) {
+		for(int i = hash(key) & mask; ; i = (i + 1) & mask) {
+			long cur = keys[i];
+			if(cur == key) {
+				return i;
+			}
+			if(cur == 0) {
+				return -1;
+			}
+		}
+	}
+
+
+	/**
+	 * @return the index of {@code key}'s slot, or the empty slot where it should be inserted
+	 */
+	private int insertionIndex(long key) {
+		int i = hash(key) & mask;
+		long cur;
+		while((cur = keys[i]) != 0 && cur != key) {
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+
+	/** Called after an entry has been inserted into an empty slot
+	 */
+	private void grown() {
+		if(++slotsUsed > (keys.length >>> 2) * 3) {
+			rehash(keys.length << 1);
+		}
+	}
+
+
+	/** Fill the slot at {@code pos} by shifting back the following entries in its probe sequence, so lookups never need tombstones
+	 */
+	private void shiftKeys(int pos) {
+		while(true) {
+			int last = pos;
+			pos = (pos + 1) & mask;
+			long cur;
+			while(true) {
+				cur = keys[pos];
+				if(cur == 0) {
+					keys[last] = 0;
+					values[last] = 0;
+					return;
+				}
+				int slot = hash(cur) & mask;
+				// move the entry back if its ideal slot is not cyclically in (last, pos]
+				if(last <= pos ? (last >= slot || slot > pos) : (last >= slot && slot > pos)) {
+					break;
+				}
+				pos = (pos + 1) & mask;
+			}
+			keys[last] = cur;
+			values[last] = values[pos];
+		}
+	}
+
+
+	private void rehash(int slots) {
+		if(slots <= 0 || slots > (1 << 30)) {
+			throw new IllegalStateException("hash map is full (" + size() + " entries)");
+		}
+		long[] oldKeys = keys;
+		long[] oldValues = values;
+		keys = new long[slots];
+		values = new long[slots];
+		mask = slots - 1;
+		for(int j = 0, n = oldKeys.length; j < n; j++) {
+			long key = oldKeys[j];
+			if(key != 0) {
+				int i = hash(key) & mask;
+				while(keys[i] != 0) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = key;
+				values[i] = oldValues[j];
+			}
+		}
+	}
+
+
+	private static int hash(long key) {
+		return (int)OffHeapLongHashSet.mix(key);
+	}
+
+}
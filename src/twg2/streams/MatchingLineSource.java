@@ -0,0 +1,163 @@
+package twg2.streams;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/** A line source which searches the raw bytes of a file for a set of literals (see {@link ByteLiteralMatcher}) and only decodes the lines
+ * which contain a match, non-matching lines are never converted to strings.<br>
+ * The buffer always starts at the beginning of a line, so the start of a matching line is found by searching backward from the match.
+ * Lines are split on {@code '\n'} bytes, so the charset must be ASCII compatible, see {@link LineIndex}.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @see EnhancedIterator#fromPathMatching(java.nio.file.Path, Charset, java.util.Collection, boolean, boolean, Function)
+ */
+final class MatchingLineSource implements Supplier<String>, AutoCloseable {
+	static final int BUFFER_SIZE = 1 << 18;
+
+	private final FileChannel channel;
+	private final Charset cs;
+	private final ByteLiteralMatcher matcher;
+	private final boolean includeEolNewlines;
+	/** an optional cache to deduplicate matching lines with */
+	private final StringInternCache interner;
+	private final Function<String, String> modifier;
+	private byte[] buf;
+	/** the number of valid bytes in {@link #buf} */
+	private int limit;
+	/** the next byte to scan */
+	private int pos;
+	/** the automaton state after scanning the bytes before {@link #pos} */
+	private int state;
+	/** the start of a line which contains a match but whose end has not been read yet, -1 if none */
+	private int matchLineStart = -1;
+	private boolean eof;
+
+
+	MatchingLineSource(FileChannel channel, Charset cs, ByteLiteralMatcher matcher, boolean includeEolNewlines, StringInternCache interner, Function<String, String> modifier) {
+		this.channel = channel;
+		this.cs = cs;
+		this.matcher = matcher;
+		this.includeEolNewlines = includeEolNewlines;
+		this.interner = interner;
+		this.modifier = modifier;
+		this.buf = new byte[BUFFER_SIZE];
+	}
+
+
+	@Override
+	public String get() {
+		try {
+			while(true) {
+				if(matchLineStart >= 0) {
+					int nl = indexOfNewline(buf, pos, limit);
+					if(nl >= 0 || eof) {
+						int end = nl >= 0 ? nl + 1 : limit;
+						String line = decode(matchLineStart, end);
+						matchLineStart = -1;
+						pos = end;
+						state = 0;
+						if(modifier != null) {
+							line = modifier.apply(line);
+						}
+						return line;
+					}
+					pos = limit;
+				}
+				else {
+					int[] table = matcher.table;
+					byte[] bytes = buf;
+					int s = state;
+					int i = pos;
+					int lim = limit;
+					for(; i < lim; i++) {
+						s = table[s + (bytes[i] & 0xFF)];
+						if(s < 0) {
+							break;
+						}
+					}
+					if(i < lim) {
+						matchLineStart = lastIndexOfNewline(bytes, i) + 1;
+						pos = i + 1;
+						state = 0;
+						continue;
+					}
+					state = s;
+					pos = lim;
+					if(eof) {
+						return null;
+					}
+				}
+				fill();
+			}
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+
+	/** Discard the lines before the current line and read more bytes, growing the buffer if the current line fills it
+	 */
+	private void fill() throws IOException {
+		int keepFrom = matchLineStart >= 0 ? matchLineStart : lastIndexOfNewline(buf, limit - 1) + 1;
+		if(keepFrom > 0) {
+			System.arraycopy(buf, keepFrom, buf, 0, limit - keepFrom);
+			limit -= keepFrom;
+			pos -= keepFrom;
+			if(matchLineStart >= 0) {
+				matchLineStart -= keepFrom;
+			}
+		}
+		else if(limit == buf.length) {
+			buf = Arrays.copyOf(buf, buf.length * 2);
+		}
+		ByteBuffer dst = ByteBuffer.wrap(buf, limit, buf.length - limit);
+		int n = channel.read(dst);
+		if(n < 0) {
+			eof = true;
+		}
+		else {
+			limit += n;
+		}
+	}
+
+
+	private String decode(int start, int end) {
+		return LineIndex.decodeLine(buf, start, end - start, cs, includeEolNewlines, interner);
+	}
+
+
+	private static int indexOfNewline(byte[] bytes, int from, int to) {
+		for(int i = from; i < to; i++) {
+			if(bytes[i] == '\n') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+
+	/**
+	 * @return the index of the last {@code '\n'} at or before {@code from}, or -1 (the start of the buffer is always the start of a line)
+	 */
+	private static int lastIndexOfNewline(byte[] bytes, int from) {
+		for(int i = from; i >= 0; i--) {
+			if(bytes[i] == '\n') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+}
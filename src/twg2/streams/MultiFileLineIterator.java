@@ -0,0 +1,344 @@
+package twg2.streams;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.stream.Stream;
+
+/** An iterator over the lines of many files, which reads up to {@code maxOpenFiles} files concurrently, each on its own task.<br>
+ * Each file's lines are read ahead in chunks of approximately {@code chunkChars} characters. In ordered mode the lines are
+ * returned in file-then-line order, each file has its own queue of up to {@code readAheadChunks} chunks, and a new file is started once
+ * the oldest file has been completely consumed. In unordered mode all files share one queue of {@code maxOpenFiles * readAheadChunks}
+ * chunks, the lines of each file stay in order but chunks from different files are interleaved in the order they are read,
+ * and a new file is started as soon as the end of any file is reached.<br>
+ * At most {@code maxOpenFiles} files are open at once, and the memory used by buffered lines is bounded by approximately
+ * {@code maxOpenFiles * (readAheadChunks + 1) * chunkChars} characters (plus one line per chunk which crosses the limit).<br>
+ * If a file cannot be read, the exception is thrown by {@link #hasNext()} or {@link #next()} when that file's lines are reached
+ * (when its failure is received in unordered mode) and the iterator is closed.<br>
+ * If the thread calling {@link #hasNext()} or {@link #next()} is interrupted while waiting for lines, the iterator is closed and
+ * a {@link CancellationException} is thrown, the thread's interrupt status is left set. If the executor rejects a file's reading task,
+ * the iterator is closed and the {@link java.util.concurrent.RejectedExecutionException} is thrown.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class MultiFileLineIterator implements ClosableIterator<String>, PeekableIterator<String> {
+	public static final int DEFAULT_CHUNK_CHARS = 1 << 15;
+	public static final int DEFAULT_READ_AHEAD_CHUNKS = 4;
+
+	private final Iterator<? extends Path> files;
+	private final Charset cs;
+	private final int maxOpenFiles;
+	private final int chunkChars;
+	private final int readAheadChunks;
+	private final boolean ordered;
+	private final Executor executor;
+	/** the executor created by this iterator which must be shutdown, or null if the executor was supplied by the caller */
+	private final ExecutorService ownedExecutor;
+	/** the files which have been started but whose lines have not all been consumed, in the order they were started */
+	private final ArrayDeque<FileReader> active;
+	/** unordered mode only, the chunks read from all active files */
+	private final ArrayBlockingQueue<Chunk> shared;
+	private String[] lines;
+	private int lineIdx;
+	private int lineCount;
+	private boolean closed;
+
+
+	private MultiFileLineIterator(Iterator<? extends Path> files, Charset cs, int maxOpenFiles, int chunkChars, int readAheadChunks, boolean ordered,
+			Executor executor, ExecutorService ownedExecutor) {
+		if(maxOpenFiles < 1) {
+			throw new IllegalArgumentException("maxOpenFiles must be greater than 0, was: " + maxOpenFiles);
+		}
+		if(chunkChars < 1) {
+			throw new IllegalArgumentException("chunkChars must be greater than 0, was: " + chunkChars);
+		}
+		if(readAheadChunks < 1) {
+			throw new IllegalArgumentException("readAheadChunks must be greater than 0, was: " + readAheadChunks);
+		}
+		this.files = files;
+		this.cs = cs;
+		this.maxOpenFiles = maxOpenFiles;
+		this.chunkChars = chunkChars;
+		this.readAheadChunks = readAheadChunks;
+		this.ordered = ordered;
+		this.executor = executor != null ? executor : ownedExecutor;
+		this.ownedExecutor = ownedExecutor;
+		this.active = new ArrayDeque<>(maxOpenFiles);
+		this.shared = ordered ? null : new ArrayBlockingQueue<>((int)Math.min(Integer.MAX_VALUE, (long)maxOpenFiles * readAheadChunks));
+	}
+
+
+	/** Read the lines of multiple files concurrently, using {@link #DEFAULT_CHUNK_CHARS} and {@link #DEFAULT_READ_AHEAD_CHUNKS}.
+	 * Files are read on virtual threads if the runtime supports them, otherwise on a new cached thread pool,
+	 * the executor is shutdown when the iterator is exhausted or closed.
+	 * @param files the files to read
+	 * @param cs the files' charset
+	 * @param maxOpenFiles the maximum number of files to read at once
+	 * @param ordered true to return lines in file-then-line order, false to return chunks of lines in the order they are read
+	 */
+	public static MultiFileLineIterator open(Iterable<? extends Path> files, Charset cs, int maxOpenFiles, boolean ordered) {
+		return new MultiFileLineIterator(files.iterator(), cs, maxOpenFiles, DEFAULT_CHUNK_CHARS, DEFAULT_READ_AHEAD_CHUNKS, ordered, null, ConcurrentMapIterator.newDefaultExecutor());
+	}
+
+
+	/** Read the lines of multiple files concurrently
+	 * @param files the files to read, consumed lazily as files are started
+	 * @param cs the files' charset
+	 * @param maxOpenFiles the maximum number of files to read at once
+	 * @param chunkChars the approximate number of characters per chunk of lines
+	 * @param readAheadChunks the number of chunks to buffer per open file
+	 * @param ordered true to return lines in file-then-line order, false to return chunks of lines in the order they are read
+	 * @param executor the executor to run file reading tasks on, it is not shutdown by this iterator
+	 */
+	public static MultiFileLineIterator open(Iterator<? extends Path> files, Charset cs, int maxOpenFiles, int chunkChars, int readAheadChunks, boolean ordered, Executor executor) {
+		return new MultiFileLineIterator(files, cs, maxOpenFiles, chunkChars, readAheadChunks, ordered, executor, null);
+	}
+
+
+	/**
+	 * @return a sequential stream of the remaining lines, closing the stream closes this iterator
+	 */
+	public Stream<String> stream() {
+		return StreamUtil.asStream(this).onClose(this::close);
+	}
+
+
+	@Override
+	public boolean hasNext() {
+		return advance();
+	}
+
+
+	@Override
+	public String peek() {
+		return advance() ? lines[lineIdx] : null;
+	}
+
+
+	@Override
+	public String next() {
+		if(!advance()) {
+			throw new NoSuchElementException();
+		}
+		String line = lines[lineIdx];
+		lines[lineIdx++] = null;
+		return line;
+	}
+
+
+	/** Stop reading, close all open files, and shutdown the executor if it was created by this iterator
+	 */
+	@Override
+	public void close() {
+		if(closed) {
+			return;
+		}
+		closed = true;
+		FileReader reader;
+		while((reader = active.pollFirst()) != null) {
+			if(reader.queue != null) {
+				reader.queue.abandon();
+			}
+			reader.future.cancel(true);
+		}
+		if(shared != null) {
+			shared.clear();
+		}
+		if(ownedExecutor != null) {
+			ownedExecutor.shutdownNow();
+		}
+		lines = null;
+		lineCount = 0;
+	}
+
+
+	private boolean advance() {
+		while(lineIdx >= lineCount) {
+			if(closed) {
+				return false;
+			}
+			startFiles();
+			if(active.isEmpty()) {
+				if(ownedExecutor != null) {
+					ownedExecutor.shutdown();
+				}
+				return false;
+			}
+
+			Chunk chunk;
+			if(ordered) {
+				FileReader head = active.peekFirst();
+				chunk = head.queue.take();
+				if(chunk == null) {
+					// take() leaves the interrupt status set if it was interrupted while waiting
+					if(Thread.currentThread().isInterrupted()) {
+						close();
+						throw new CancellationException("interrupted while waiting for file lines");
+					}
+					active.pollFirst();
+					checkFailure(head);
+					continue;
+				}
+			}
+			else {
+				try {
+					chunk = shared.take();
+				} catch(InterruptedException e) {
+					close();
+					Thread.currentThread().interrupt();
+					throw new CancellationException("interrupted while waiting for file lines");
+				}
+				if(chunk.lines == null) {
+					active.remove(chunk.reader);
+					checkFailure(chunk.reader);
+					continue;
+				}
+			}
+			lines = chunk.lines;
+			lineCount = chunk.size;
+			lineIdx = 0;
+		}
+		return true;
+	}
+
+
+	private void startFiles() {
+		while(active.size() < maxOpenFiles && files.hasNext()) {
+			FileReader reader = new FileReader(files.next());
+			try {
+				executor.execute(reader.future);
+			} catch(RuntimeException | Error e) {
+				// the file would be skipped if iteration continued, so stop the files which were already started
+				close();
+				throw e;
+			}
+			// only track the file once its reader has been accepted, a reader which never runs would never signal the end of its file
+			active.addLast(reader);
+		}
+	}
+
+
+	private void checkFailure(FileReader reader) {
+		Throwable err = reader.failure;
+		if(err != null) {
+			close();
+			if(err instanceof RuntimeException) {
+				throw (RuntimeException)err;
+			}
+			if(err instanceof Error) {
+				throw (Error)err;
+			}
+			if(err instanceof IOException) {
+				throw new UncheckedIOException("error reading " + reader.path, (IOException)err);
+			}
+			throw new CompletionException(err);
+		}
+	}
+
+
+
+
+	private static final class Chunk {
+		final FileReader reader;
+		/** null marks the end of a file in unordered mode */
+		final String[] lines;
+		final int size;
+
+		Chunk(FileReader reader, String[] lines, int size) {
+			this.reader = reader;
+			this.lines = lines;
+			this.size = size;
+		}
+	}
+
+
+
+
+	/** Reads one file into chunks of lines
+	 */
+	private final class FileReader implements Runnable {
+		final Path path;
+		final FutureTask<Void> future;
+		/** ordered mode only, this file's chunks, closed at the end of the file */
+		final SpscQueue<Chunk> queue;
+		/** written before the end of the file is signaled */
+		volatile Throwable failure;
+
+
+		FileReader(Path path) {
+			this.path = path;
+			this.future = new FutureTask<>(this, null);
+			this.queue = ordered ? new SpscQueue<>(readAheadChunks) : null;
+		}
+
+
+		@Override
+		public void run() {
+			try {
+				try(BufferedReader reader = Files.newBufferedReader(path, cs)) {
+					String[] buf = new String[64];
+					int n = 0;
+					long chars = 0;
+					String line;
+					while((line = reader.readLine()) != null) {
+						if(n == buf.length) {
+							buf = Arrays.copyOf(buf, n * 2);
+						}
+						buf[n++] = line;
+						chars += line.length();
+						if(chars >= chunkChars) {
+							if(!emit(new Chunk(this, buf, n))) {
+								return;
+							}
+							buf = new String[Math.max(64, n)];
+							n = 0;
+							chars = 0;
+						}
+					}
+					if(n > 0 && !emit(new Chunk(this, buf, n))) {
+						return;
+					}
+				}
+			} catch(Throwable e) {
+				failure = e;
+			}
+			if(ordered) {
+				queue.close();
+			}
+			else {
+				emit(new Chunk(this, null, 0));
+			}
+		}
+
+
+		/**
+		 * @return true if the chunk was queued, false if the iterator has been closed
+		 */
+		private boolean emit(Chunk chunk) {
+			if(ordered) {
+				return queue.put(chunk);
+			}
+			try {
+				shared.put(chunk);
+				return true;
+			} catch(InterruptedException e) {
+				return false;
+			}
+		}
+
+	}
+
+}
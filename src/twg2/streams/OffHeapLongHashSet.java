@@ -0,0 +1,181 @@
+package twg2.streams;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/** An insert-only, open-addressing (linear probing) hash set of {@code long} values stored outside the Java heap in direct {@link ByteBuffer ByteBuffers}.<br>
+ * The set is split into 64 independently growing segments (selected by the high bits of the hashed key), so growing only rehashes
+ * one segment at a time and the set can hold billions of values (each segment is limited to 2^27 slots).
+ * Memory use is 8 bytes per slot, with a maximum load factor of 0.75. Segments are only allocated when the first value is added to them.<br>
+ * Direct buffers are only freed once they are garbage collected, {@link #close()} drops this set's buffers so they can be collected
+ * even if the set itself is still referenced.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+final class OffHeapLongHashSet implements AutoCloseable {
+	private static final int SEGMENT_BITS = 6;
+	private static final int SEGMENT_COUNT = 1 << SEGMENT_BITS;
+	private static final int MAX_SEGMENT_SLOTS = 1 << 27;
+
+	/** null until a value is added to the segment */
+	private final ByteBuffer[] segments = new ByteBuffer[SEGMENT_COUNT];
+	private final int[] segmentSizes = new int[SEGMENT_COUNT];
+	/** the number of slots to allocate each segment with */
+	private final int initialSlots;
+	private boolean closed;
+	/** the value 0 marks an empty slot, so it is tracked separately */
+	private boolean containsZero;
+	private long size;
+
+
+	/**
+	 * @param expectedSize the expected number of values, used to size the initial segments
+	 */
+	OffHeapLongHashSet(long expectedSize) {
+		long perSegment = Math.max(16, (long)(expectedSize / SEGMENT_COUNT / 0.75) + 1);
+		this.initialSlots = (int)Math.min(MAX_SEGMENT_SLOTS, Long.highestOneBit(perSegment - 1) << 1);
+	}
+
+
+	/** Add a value to the set
+	 * @return true if the value was not already in the set
+	 */
+	public boolean add(long value) {
+		if(closed) {
+			throw new IllegalStateException("hash set closed");
+		}
+		if(value == 0) {
+			if(containsZero) {
+				return false;
+			}
+			containsZero = true;
+			size++;
+			return true;
+		}
+		long hash = mix(value);
+		int segIdx = (int)(hash >>> (64 - SEGMENT_BITS));
+		ByteBuffer seg = segments[segIdx];
+		if(seg == null) {
+			seg = allocate(initialSlots);
+			segments[segIdx] = seg;
+		}
+		if(insert(seg, hash, value)) {
+			size++;
+			int segSize = ++segmentSizes[segIdx];
+			int slots = seg.capacity() >>> 3;
+			if(segSize > (slots >>> 2) * 3) {
+				segments[segIdx] = grow(seg);
+			}
+			return true;
+		}
+		return false;
+	}
+
+
+	public boolean contains(long value) {
+		if(value == 0) {
+			return containsZero;
+		}
+		long hash = mix(value);
+		ByteBuffer seg = segments[(int)(hash >>> (64 - SEGMENT_BITS))];
+		if(seg == null) {
+			return false;
+		}
+		int mask = (seg.capacity() >>> 3) - 1;
+		for(int i = (int)hash & mask; ; i = (i + 1) & mask) {
+			long cur = seg.getLong(i << 3);
+			if(cur == value) {
+				return true;
+			}
+			if(cur == 0) {
+				return false;
+			}
+		}
+	}
+
+
+	/**
+	 * @return the number of values in the set
+	 */
+	public long size() {
+		return size;
+	}
+
+
+	/**
+	 * @return the number of off-heap bytes allocated by this set
+	 */
+	public long allocatedBytes() {
+		long total = 0;
+		for(ByteBuffer seg : segments) {
+			if(seg != null) {
+				total += seg.capacity();
+			}
+		}
+		return total;
+	}
+
+
+	/** Drop all of the set's off-heap buffers, after which the set is empty and values can no longer be added
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		Arrays.fill(segments, null);
+		Arrays.fill(segmentSizes, 0);
+		containsZero = false;
+		size = 0;
+	}
+
+
+	private static boolean insert(ByteBuffer seg, long hash, long value) {
+		int mask = (seg.capacity() >>> 3) - 1;
+		for(int i = (int)hash & mask; ; i = (i + 1) & mask) {
+			int pos = i << 3;
+			long cur = seg.getLong(pos);
+			if(cur == 0) {
+				seg.putLong(pos, value);
+				return true;
+			}
+			if(cur == value) {
+				return false;
+			}
+		}
+	}
+
+
+	private static ByteBuffer grow(ByteBuffer seg) {
+		int slots = seg.capacity() >>> 3;
+		if(slots >= MAX_SEGMENT_SLOTS) {
+			throw new IllegalStateException("hash set segment is full (" + slots + " slots)");
+		}
+		ByteBuffer dst = allocate(slots << 1);
+		for(int i = 0; i < slots; i++) {
+			long value = seg.getLong(i << 3);
+			if(value != 0) {
+				insert(dst, mix(value), value);
+			}
+		}
+		return dst;
+	}
+
+
+	private static ByteBuffer allocate(int slots) {
+		// direct buffers are zero filled
+		return ByteBuffer.allocateDirect(slots << 3).order(ByteOrder.nativeOrder());
+	}
+
+
+	/** Finalization mix from MurmurHash3, spreads poorly distributed values (such as {@link Object#hashCode()} results) across all bits
+	 */
+	static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+}
@@ -0,0 +1,216 @@
+package twg2.streams;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.LockSupport;
+
+/** A pull based {@link PeekableIterator} view of a push based {@link Flow.Publisher}.<br>
+ * At most {@code prefetch} elements are buffered. The publisher is initially asked for {@code prefetch} elements, after
+ * that demand is replenished in batches once {@code replenishThreshold} buffered elements have been consumed, so the publisher
+ * is not asked for one element at a time.<br>
+ * {@link #hasNext()}, {@link #peek()} and {@link #next()} block until an element or completion signal is available.
+ * An error signalled by the publisher is thrown from these methods once all elements received before the error have been returned.
+ * {@link #close()} cancels the subscription.
+ * @param <T> the data type of the elements
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @see IteratorPublisher
+ */
+public class PublisherIterator<T> implements ClosableIterator<T>, PeekableIterator<T>, Flow.Subscriber<T> {
+	private final int prefetch;
+	private final int replenishThreshold;
+	private final ArrayBlockingQueue<T> buffer;
+	private volatile Flow.Subscription subscription;
+	private volatile boolean done;
+	private volatile Throwable error;
+	private volatile boolean cancelled;
+	private volatile Thread waiter;
+	private T nextElem;
+	private int consumed;
+
+
+	/** Subscribe to a publisher with a prefetch window of {@code prefetch} elements, demand is replenished after 3/4 of the window is consumed
+	 * @param publisher the source of elements
+	 * @param prefetch the maximum number of elements requested from the publisher but not yet returned by this iterator
+	 */
+	public PublisherIterator(Flow.Publisher<? extends T> publisher, int prefetch) {
+		this(publisher, prefetch, Math.max(1, prefetch - (prefetch >> 2)));
+	}
+
+
+	/** Subscribe to a publisher
+	 * @param publisher the source of elements
+	 * @param prefetch the maximum number of elements requested from the publisher but not yet returned by this iterator
+	 * @param replenishThreshold the number of elements to consume before requesting more elements from the publisher, in the range {@code [1, prefetch]}
+	 */
+	public PublisherIterator(Flow.Publisher<? extends T> publisher, int prefetch, int replenishThreshold) {
+		if(prefetch < 1) {
+			throw new IllegalArgumentException("prefetch must be greater than 0, was: " + prefetch);
+		}
+		if(replenishThreshold < 1 || replenishThreshold > prefetch) {
+			throw new IllegalArgumentException("replenishThreshold must be in the range [1, " + prefetch + "], was: " + replenishThreshold);
+		}
+		this.prefetch = prefetch;
+		this.replenishThreshold = replenishThreshold;
+		this.buffer = new ArrayBlockingQueue<>(prefetch);
+		publisher.subscribe(this);
+	}
+
+
+	@Override
+	public boolean hasNext() {
+		return peek() != null;
+	}
+
+
+	@Override
+	public T peek() {
+		if(nextElem == null) {
+			nextElem = take();
+		}
+		return nextElem;
+	}
+
+
+	@Override
+	public T next() {
+		T elem = peek();
+		if(elem == null) {
+			throw new NoSuchElementException();
+		}
+		nextElem = null;
+		if(++consumed >= replenishThreshold && !done) {
+			int n = consumed;
+			consumed = 0;
+			subscription.request(n);
+		}
+		return elem;
+	}
+
+
+	/** Cancel the subscription to the publisher and discard any buffered elements
+	 */
+	@Override
+	public void close() {
+		cancelled = true;
+		Flow.Subscription sub = subscription;
+		if(sub != null) {
+			sub.cancel();
+		}
+		buffer.clear();
+		nextElem = null;
+	}
+
+
+	/**
+	 * @return the maximum number of elements this iterator buffers
+	 */
+	public int getPrefetch() {
+		return prefetch;
+	}
+
+
+	// ==== Flow.Subscriber ====
+	@Override
+	public void onSubscribe(Flow.Subscription subscription) {
+		Objects.requireNonNull(subscription, "subscription");
+		if(this.subscription != null) {
+			subscription.cancel();
+			return;
+		}
+		this.subscription = subscription;
+		if(cancelled) {
+			subscription.cancel();
+		}
+		else {
+			subscription.request(prefetch);
+		}
+	}
+
+
+	@Override
+	public void onNext(T item) {
+		if(!buffer.offer(item)) {
+			// the publisher ignored the requested demand
+			subscription.cancel();
+			onError(new IllegalStateException("publisher sent more elements than requested (prefetch " + prefetch + ")"));
+			return;
+		}
+		signal();
+	}
+
+
+	@Override
+	public void onError(Throwable throwable) {
+		error = throwable;
+		done = true;
+		signal();
+	}
+
+
+	@Override
+	public void onComplete() {
+		done = true;
+		signal();
+	}
+
+
+	private void signal() {
+		Thread thread = waiter;
+		if(thread != null) {
+			LockSupport.unpark(thread);
+		}
+	}
+
+
+	/** Block until an element is available or the publisher terminates
+	 * @return the next element or null if the publisher has completed
+	 */
+	private T take() {
+		if(cancelled) {
+			return null;
+		}
+		T elem = buffer.poll();
+		if(elem != null) {
+			return elem;
+		}
+
+		waiter = Thread.currentThread();
+		try {
+			while(true) {
+				// read 'done' before polling, so elements received before a terminal signal are not missed
+				boolean terminated = done;
+				elem = buffer.poll();
+				if(elem != null) {
+					return elem;
+				}
+				if(terminated) {
+					Throwable err = error;
+					if(err != null) {
+						if(err instanceof RuntimeException) {
+							throw (RuntimeException)err;
+						}
+						if(err instanceof Error) {
+							throw (Error)err;
+						}
+						throw new CompletionException(err);
+					}
+					return null;
+				}
+				LockSupport.park(this);
+				if(Thread.interrupted()) {
+					close();
+					Thread.currentThread().interrupt();
+					throw new CancellationException("interrupted while waiting for publisher");
+				}
+			}
+		} finally {
+			waiter = null;
+		}
+	}
+
+}
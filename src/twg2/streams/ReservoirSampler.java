@@ -0,0 +1,218 @@
+package twg2.streams;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** A fixed size, uniform random sample of a sequence of unknown length (reservoir sampling).<br>
+ * Uses 'Algorithm L' (Li, 1994) which computes how many elements to skip before the next replacement,
+ * so random numbers are only drawn when an element enters the reservoir (O(k(1 + log(n/k))) draws instead of one per element).<br>
+ * Two samplers of disjoint sequences can be combined into a uniform sample of both sequences, see {@link #combine(ReservoirSampler)}.
+ * @param <T> the data type of the elements
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @see StreamUtil#sample(int)
+ */
+final class ReservoirSampler<T> {
+	private final int k;
+	/** null to use {@link ThreadLocalRandom#current()} */
+	private final Random rand;
+	private Object[] reservoir;
+	private int size;
+	/** the number of elements offered to this sampler */
+	private long count;
+	/** the count at which the next element replaces a reservoir element */
+	private long nextReplace;
+	private double w;
+	/** true if this sampler's reservoir was created by {@link #combine(ReservoirSampler)} */
+	private boolean combined;
+
+
+	/**
+	 * @param k the sample size
+	 * @param rand the random number generator, null to use {@link ThreadLocalRandom#current()}
+	 */
+	ReservoirSampler(int k, Random rand) {
+		if(k < 0) {
+			throw new IllegalArgumentException("k must not be negative, was: " + k);
+		}
+		this.k = k;
+		this.rand = rand;
+		this.reservoir = new Object[Math.min(k, 16)];
+	}
+
+
+	public void add(T elem) {
+		if(size < k) {
+			append(elem);
+			count++;
+			if(size == k) {
+				initSkip();
+			}
+		}
+		else if(combined) {
+			// Algorithm R, replace an element with probability k/(count + 1)
+			long idx = (long)(random().nextDouble() * (count + 1));
+			if(idx < k) {
+				reservoir[(int)idx] = elem;
+			}
+			count++;
+		}
+		else {
+			if(count == nextReplace && k > 0) {
+				reservoir[random().nextInt(k)] = elem;
+				advanceSkip();
+			}
+			count++;
+		}
+	}
+
+
+	/** Sample the remaining elements of an iterator, elements which are skipped are read with {@link Iterator#next()} without drawing random numbers
+	 * @param iter the source elements
+	 */
+	public void addAll(Iterator<? extends T> iter) {
+		while(size < k && iter.hasNext()) {
+			add(iter.next());
+		}
+		if(combined) {
+			while(iter.hasNext()) {
+				add(iter.next());
+			}
+			return;
+		}
+		if(k == 0) {
+			while(iter.hasNext()) {
+				iter.next();
+				count++;
+			}
+			return;
+		}
+		while(iter.hasNext()) {
+			// skip directly to the next replacement
+			while(count < nextReplace && iter.hasNext()) {
+				iter.next();
+				count++;
+			}
+			if(!iter.hasNext()) {
+				break;
+			}
+			add(iter.next());
+		}
+	}
+
+
+	/** Merge another sampler's reservoir into this one. The number of elements taken from each reservoir follows the
+	 * hypergeometric distribution of the two populations' sizes, so the result is a uniform sample of the combined population.
+	 * @param other a sampler of a sequence disjoint from this sampler's sequence
+	 * @return this sampler
+	 */
+	public ReservoirSampler<T> combine(ReservoirSampler<T> other) {
+		if(other.count == 0) {
+			return this;
+		}
+		if(this.count == 0) {
+			return other;
+		}
+		Random rnd = random();
+		Object[] a = Arrays.copyOf(this.reservoir, this.size);
+		Object[] b = Arrays.copyOf(other.reservoir, other.size);
+		int aSize = a.length;
+		int bSize = b.length;
+		long aRemaining = this.count;
+		long bRemaining = other.count;
+		long total = this.count + other.count;
+		int resSize = (int)Math.min(k, total);
+
+		this.reservoir = new Object[resSize];
+		this.size = 0;
+		for(int i = 0; i < resSize; i++) {
+			boolean fromA = bSize == 0 || (aSize > 0 && rnd.nextDouble() * (aRemaining + bRemaining) < aRemaining);
+			if(fromA) {
+				// pick a random element from the remaining elements of 'a'
+				int idx = rnd.nextInt(aSize);
+				this.reservoir[this.size++] = a[idx];
+				a[idx] = a[--aSize];
+				aRemaining--;
+			}
+			else {
+				int idx = rnd.nextInt(bSize);
+				this.reservoir[this.size++] = b[idx];
+				b[idx] = b[--bSize];
+				bRemaining--;
+			}
+		}
+		this.count = total;
+		// the skip state of Algorithm L cannot be derived from a merged reservoir, so any further elements are sampled one at a time
+		this.combined = true;
+		return this;
+	}
+
+
+	/**
+	 * @return the sampled elements, in no particular order
+	 */
+	@SuppressWarnings("unchecked")
+	public List<T> toList() {
+		return new ArrayList<>((List<T>)Arrays.asList(Arrays.copyOf(reservoir, size)));
+	}
+
+
+	/**
+	 * @return the number of elements offered to this sampler
+	 */
+	public long count() {
+		return count;
+	}
+
+
+	private void append(T elem) {
+		if(size == reservoir.length) {
+			reservoir = Arrays.copyOf(reservoir, (int)Math.min(k, Math.max(16L, (long)reservoir.length * 2)));
+		}
+		reservoir[size++] = elem;
+	}
+
+
+	private void initSkip() {
+		w = Math.exp(Math.log(randomDouble()) / k);
+		nextReplace = count + skipLength();
+	}
+
+
+	private void advanceSkip() {
+		w *= Math.exp(Math.log(randomDouble()) / k);
+		nextReplace = count + 1 + skipLength();
+	}
+
+
+	/**
+	 * @return the number of elements to skip before the next replacement
+	 */
+	private long skipLength() {
+		double skip = Math.floor(Math.log(randomDouble()) / Math.log(1 - w));
+		return skip >= Long.MAX_VALUE / 2 || Double.isNaN(skip) ? Long.MAX_VALUE / 2 : (long)skip;
+	}
+
+
+	/**
+	 * @return a random number in the range (0, 1)
+	 */
+	private double randomDouble() {
+		Random rnd = random();
+		double d;
+		do {
+			d = rnd.nextDouble();
+		} while(d == 0.0);
+		return d;
+	}
+
+
+	private Random random() {
+		return rand != null ? rand : ThreadLocalRandom.current();
+	}
+
+}
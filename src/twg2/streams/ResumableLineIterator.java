@@ -0,0 +1,269 @@
+package twg2.streams;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/** An {@link EnhancedIterator} over the lines of a file which tracks the byte offset of each line, so that a {@link LineCheckpoint}
+ * can be taken at any time and the file reopened from that checkpoint (for example after a restart) with a single seek,
+ * instead of reading and skipping the preceding lines.<br>
+ * Lines are split on {@code '\n'} bytes, so the charset must be ASCII compatible, see {@link LineIndex}. A final line
+ * without a trailing newline is returned like any other line. Like {@link EnhancedIterator#fromReader(java.io.BufferedReader, boolean, Function)},
+ * the {@code modifier} is also called with null at the end of the file.<br>
+ * Like any {@link EnhancedIterator}, the source can be replaced by {@link #reset(Supplier)}, after which {@link #checkpoint()} and
+ * {@link #seek(LineCheckpoint)} are not available. {@link #close()} always closes the file.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class ResumableLineIterator extends EnhancedIterator<String> {
+	private final LineSource lineSource;
+
+
+	private ResumableLineIterator(LineSource lineSource, int startLine) {
+		super(lineSource, lineSource);
+		this.lineSource = lineSource;
+		super.currentIndex = startLine - 1;
+	}
+
+
+	/** Open an iterator over the lines of a file, starting at the beginning of the file
+	 * @param file the file to read
+	 * @param cs the file's charset, must be ASCII compatible, see {@link LineIndex}
+	 * @param includeEolNewlines true to include newlines at the end of each line
+	 * @param modifier an optional function which transforms each line of text before it is returned
+	 * @throws IOException
+	 */
+	public static ResumableLineIterator open(Path file, Charset cs, boolean includeEolNewlines, Function<String, String> modifier) throws IOException {
+		return open(file, new LineCheckpoint(0, 0, cs), includeEolNewlines, modifier);
+	}
+
+
+	/** Reopen a file from a checkpoint taken by {@link #checkpoint()}, the lines before the checkpoint are not read
+	 * @param file the file to read
+	 * @param checkpoint the position of the first line to return, and the charset to decode lines with
+	 * @param includeEolNewlines true to include newlines at the end of each line
+	 * @param modifier an optional function which transforms each line of text before it is returned
+	 * @throws IOException if the file is shorter than the checkpoint offset or the offset is not at the start of a line,
+	 * which indicates that the file has been truncated or replaced since the checkpoint was taken
+	 */
+	public static ResumableLineIterator open(Path file, LineCheckpoint checkpoint, boolean includeEolNewlines, Function<String, String> modifier) throws IOException {
+		return open(file, checkpoint, includeEolNewlines, null, modifier);
+	}
+
+
+	/** Reopen a file from a checkpoint taken by {@link #checkpoint()}, deduplicating the lines with a {@link StringInternCache}
+	 * @param file the file to read
+	 * @param checkpoint the position of the first line to return, and the charset to decode lines with
+	 * @param includeEolNewlines true to include newlines at the end of each line
+	 * @param interner an optional cache which each line's bytes are looked up in before they are decoded (see {@link StringInternCache#intern(byte[], int, int, Charset)}),
+	 * so repeated lines share one {@code String} instance and cached lines are not decoded again
+	 * @param modifier an optional function which transforms each line of text before it is returned, it receives the interned line
+	 * @throws IOException if the file is shorter than the checkpoint offset or the offset is not at the start of a line
+	 */
+	public static ResumableLineIterator open(Path file, LineCheckpoint checkpoint, boolean includeEolNewlines, StringInternCache interner, Function<String, String> modifier) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			LineSource src = new LineSource(channel, checkpoint.getCharset(), includeEolNewlines, interner, modifier);
+			src.seek(checkpoint.getOffset());
+			return new ResumableLineIterator(src, checkpoint.getLine());
+		} catch(IOException | RuntimeException | Error e) {
+			try {
+				channel.close();
+			} catch(IOException ce) {
+				e.addSuppressed(ce);
+			}
+			throw e;
+		}
+	}
+
+
+	/** Take a checkpoint of this iterator's position, this only copies the current byte offset and line number
+	 * @return a checkpoint at the start of the line which the next call to {@link #next()} will return
+	 * (or at the end of the data read so far if {@link #hasNext()} is false)
+	 * @throws IllegalStateException if the file source has been replaced by {@link #reset(Supplier)}
+	 */
+	public LineCheckpoint checkpoint() {
+		checkSource();
+		return new LineCheckpoint(lineSource.lineStart, super.nextIndex(), lineSource.cs);
+	}
+
+
+	/** Reposition this iterator to a checkpoint taken from the same file
+	 * @param checkpoint the checkpoint, its charset must match this iterator's charset
+	 * @throws UncheckedIOException if the checkpoint offset is not at the start of a line of the file
+	 * @throws IllegalStateException if the file source has been replaced by {@link #reset(Supplier)}
+	 */
+	public void seek(LineCheckpoint checkpoint) {
+		checkSource();
+		if(!checkpoint.getCharset().equals(lineSource.cs)) {
+			throw new IllegalArgumentException("checkpoint charset " + checkpoint.getCharset() + " does not match iterator charset " + lineSource.cs);
+		}
+		try {
+			lineSource.seek(checkpoint.getOffset());
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		super.refill(checkpoint.getLine());
+	}
+
+
+	/** Close the current source and the file, if the source has been replaced by {@link #reset(Supplier)}
+	 */
+	@Override
+	public void close() throws Exception {
+		try {
+			super.close();
+		} finally {
+			if(!super.hasSource(lineSource)) {
+				lineSource.close();
+			}
+		}
+	}
+
+
+	private void checkSource() {
+		if(!super.hasSource(lineSource)) {
+			throw new IllegalStateException("the file source of this iterator has been replaced by reset()");
+		}
+	}
+
+
+
+
+	/** Reads lines sequentially from a file channel, tracking the byte offset of each line
+	 */
+	private static class LineSource implements Supplier<String>, AutoCloseable {
+		private final FileChannel channel;
+		private final Charset cs;
+		private final boolean includeEolNewlines;
+		private final StringInternCache interner;
+		private final Function<String, String> modifier;
+		private byte[] buf;
+		/** the file offset of {@code buf[0]} */
+		private long bufStart;
+		/** the start of the next line in {@link #buf} */
+		private int pos;
+		/** the number of valid bytes in {@link #buf} */
+		private int limit;
+		/** the index in {@link #buf} to continue searching for {@code '\n'} from */
+		private int scan;
+		private boolean eof;
+		/** the file offset of the line most recently returned by {@link #get()}, or of the end of the data once it returns null */
+		long lineStart;
+
+
+		LineSource(FileChannel channel, Charset cs, boolean includeEolNewlines, StringInternCache interner, Function<String, String> modifier) {
+			this.channel = channel;
+			this.cs = cs;
+			this.includeEolNewlines = includeEolNewlines;
+			this.interner = interner;
+			this.modifier = modifier;
+			this.buf = new byte[SpillFile.BUFFER_SIZE];
+		}
+
+
+		@Override
+		public String get() {
+			try {
+				lineStart = bufStart + pos;
+				int end;
+				while(true) {
+					int nl = indexOfNewline(buf, scan, limit);
+					if(nl >= 0) {
+						end = nl + 1;
+						break;
+					}
+					scan = limit;
+					if(eof) {
+						if(pos == limit) {
+							return modifier != null ? modifier.apply(null) : null;
+						}
+						end = limit;
+						break;
+					}
+					fill();
+				}
+				String line = LineIndex.decodeLine(buf, pos, end - pos, cs, includeEolNewlines, interner);
+				pos = end;
+				scan = end;
+				if(modifier != null) {
+					line = modifier.apply(line);
+				}
+				return line;
+			} catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+
+		/** Discard the buffered data and position the channel at {@code offset}, which must be the start of a line
+		 */
+		void seek(long offset) throws IOException {
+			long size = channel.size();
+			if(offset > size) {
+				throw new IOException("checkpoint offset " + offset + " is past the end of the file (" + size + " bytes), the file may have been truncated or replaced");
+			}
+			if(offset > 0 && offset < size) {
+				ByteBuffer prev = ByteBuffer.allocate(1);
+				if(channel.read(prev, offset - 1) != 1 || prev.get(0) != '\n') {
+					throw new IOException("checkpoint offset " + offset + " is not at the start of a line, the file may have been modified or replaced");
+				}
+			}
+			channel.position(offset);
+			bufStart = offset;
+			lineStart = offset;
+			pos = 0;
+			limit = 0;
+			scan = 0;
+			eof = false;
+		}
+
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+
+
+		/** Discard the lines before {@link #pos} and read more bytes, growing the buffer if the current line fills it
+		 */
+		private void fill() throws IOException {
+			if(pos > 0) {
+				System.arraycopy(buf, pos, buf, 0, limit - pos);
+				bufStart += pos;
+				limit -= pos;
+				scan -= pos;
+				pos = 0;
+			}
+			else if(limit == buf.length) {
+				buf = Arrays.copyOf(buf, buf.length * 2);
+			}
+			int n = channel.read(ByteBuffer.wrap(buf, limit, buf.length - limit));
+			if(n < 0) {
+				eof = true;
+			}
+			else {
+				limit += n;
+			}
+		}
+
+
+		private static int indexOfNewline(byte[] bytes, int from, int to) {
+			for(int i = from; i < to; i++) {
+				if(bytes[i] == '\n') {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+	}
+
+}
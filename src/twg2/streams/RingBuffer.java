@@ -0,0 +1,135 @@
+package twg2.streams;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/** A growable circular buffer (FIFO queue) which exposes its current contents as a read-only {@link List} view.
+ * Adding to the end and removing from the front are O(1) and do not allocate (unless the buffer grows).
+ * The view returned by {@link #asList()} is live, it reflects later changes to the buffer.
+ * @param <T> the data type of the elements
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @see WindowIterator
+ */
+public class RingBuffer<T> {
+	private Object[] elems;
+	private int head;
+	private int size;
+	private final List<T> view = new ListView();
+
+
+	public RingBuffer(int initialCapacity) {
+		this.elems = new Object[Math.max(1, initialCapacity)];
+	}
+
+
+	/** Add an element to the end of the buffer, growing the buffer if it is full
+	 */
+	public void add(T elem) {
+		if(size == elems.length) {
+			grow();
+		}
+		int idx = head + size;
+		elems[idx >= elems.length ? idx - elems.length : idx] = elem;
+		size++;
+	}
+
+
+	/** Remove and return the first (oldest) element in the buffer
+	 */
+	public T removeFirst() {
+		if(size == 0) {
+			throw new NoSuchElementException();
+		}
+		T elem = elemAt(head);
+		elems[head] = null;
+		head = head + 1 == elems.length ? 0 : head + 1;
+		size--;
+		return elem;
+	}
+
+
+	/**
+	 * @return the first (oldest) element in the buffer, null if the buffer is empty
+	 */
+	public T peekFirst() {
+		return size > 0 ? elemAt(head) : null;
+	}
+
+
+	/**
+	 * @param i the index of the element, 0 being the oldest element
+	 */
+	public T get(int i) {
+		if(i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException(i + " of [0, " + size + ")");
+		}
+		int idx = head + i;
+		return elemAt(idx >= elems.length ? idx - elems.length : idx);
+	}
+
+
+	public int size() {
+		return size;
+	}
+
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+
+	public void clear() {
+		for(int i = 0; i < size; i++) {
+			int idx = head + i;
+			elems[idx >= elems.length ? idx - elems.length : idx] = null;
+		}
+		head = 0;
+		size = 0;
+	}
+
+
+	/**
+	 * @return a read-only, live view of this buffer's elements, oldest first
+	 */
+	public List<T> asList() {
+		return view;
+	}
+
+
+	@SuppressWarnings("unchecked")
+	private T elemAt(int idx) {
+		return (T)elems[idx];
+	}
+
+
+	private void grow() {
+		Object[] dst = new Object[elems.length * 2];
+		int firstPart = Math.min(size, elems.length - head);
+		System.arraycopy(elems, head, dst, 0, firstPart);
+		System.arraycopy(elems, 0, dst, firstPart, size - firstPart);
+		elems = dst;
+		head = 0;
+	}
+
+
+
+
+	private class ListView extends AbstractList<T> implements RandomAccess {
+
+		@Override
+		public T get(int index) {
+			return RingBuffer.this.get(index);
+		}
+
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+	}
+
+}
@@ -0,0 +1,133 @@
+package twg2.streams;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+/** A temporary file which elements are appended to using an {@link ElementSerializer} and then read back in the same order.
+ * The file is created lazily when the first element is written.
+ * @param <T> the data type of the elements
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+final class SpillFile<T> {
+	static final int BUFFER_SIZE = 1 << 16;
+
+	private final Path dir;
+	private final String prefix;
+	private final ElementSerializer<T> serializer;
+	private Path path;
+	private DataOutputStream out;
+	private long count;
+
+
+	/**
+	 * @param dir the directory to create the file in, null to use the default temporary-file directory
+	 * @param prefix the file name prefix
+	 * @param serializer the element serializer
+	 */
+	SpillFile(Path dir, String prefix, ElementSerializer<T> serializer) {
+		this.dir = dir;
+		this.prefix = prefix;
+		this.serializer = serializer;
+	}
+
+
+	public void write(T elem) throws IOException {
+		if(out == null) {
+			path = dir != null ? Files.createTempFile(dir, prefix, ".tmp") : Files.createTempFile(prefix, ".tmp");
+			out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+		}
+		serializer.write(elem, out);
+		count++;
+	}
+
+
+	/** Flush and close the output stream, must be called before {@link #reader(boolean)}
+	 */
+	public void finishWriting() throws IOException {
+		if(out != null) {
+			out.close();
+			out = null;
+		}
+	}
+
+
+	/**
+	 * @return the number of elements written to this file
+	 */
+	public long size() {
+		return count;
+	}
+
+
+	/** Read back the elements written to this file
+	 * @param deleteOnClose true to delete the file when the returned iterator is closed
+	 */
+	public ClosableIterator<T> reader(boolean deleteOnClose) throws IOException {
+		finishWriting();
+		DataInputStream in = path != null ? new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE)) : null;
+		long total = count;
+
+		return new ClosableIterator<T>() {
+			private long read = 0;
+			private boolean closed;
+
+			@Override
+			public boolean hasNext() {
+				return !closed && read < total;
+			}
+
+			@Override
+			public T next() {
+				if(!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				try {
+					T elem = serializer.read(in);
+					read++;
+					return elem;
+				} catch(IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+
+			@Override
+			public void close() throws IOException {
+				if(closed) {
+					return;
+				}
+				closed = true;
+				try {
+					if(in != null) {
+						in.close();
+					}
+				} finally {
+					if(deleteOnClose) {
+						delete();
+					}
+				}
+			}
+		};
+	}
+
+
+	/** Close the file if it is open and delete it
+	 */
+	public void delete() throws IOException {
+		try {
+			finishWriting();
+		} finally {
+			if(path != null) {
+				Files.deleteIfExists(path);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,116 @@
+package twg2.streams;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/** An append-only buffer which keeps up to {@code maxInMemory} elements in memory and moves them to a {@link SpillFile}
+ * each time that limit is reached. The elements are read back in the order they were added.
+ * @param <T> the data type of the elements
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+final class SpillingBuffer<T> {
+	private final int maxInMemory;
+	private final ElementSerializer<T> serializer;
+	private final Path tempDir;
+	private final String prefix;
+	private ArrayList<T> memory;
+	private SpillFile<T> spill;
+
+
+	/**
+	 * @param maxInMemory the maximum number of elements to keep in memory
+	 * @param serializer the serializer used to spill elements, null to never spill
+	 * @param tempDir the directory to create the spill file in, null for the default temporary-file directory
+	 * @param prefix the spill file name prefix
+	 */
+	SpillingBuffer(int maxInMemory, ElementSerializer<T> serializer, Path tempDir, String prefix) {
+		this.maxInMemory = maxInMemory;
+		this.serializer = serializer;
+		this.tempDir = tempDir;
+		this.prefix = prefix;
+		this.memory = new ArrayList<>();
+	}
+
+
+	public void add(T elem) throws IOException {
+		if(memory.size() >= maxInMemory && serializer != null) {
+			if(spill == null) {
+				spill = new SpillFile<>(tempDir, prefix, serializer);
+			}
+			for(int i = 0, size = memory.size(); i < size; i++) {
+				spill.write(memory.get(i));
+			}
+			memory.clear();
+		}
+		memory.add(elem);
+	}
+
+
+	/**
+	 * @return the number of elements added
+	 */
+	public long size() {
+		return (spill != null ? spill.size() : 0) + memory.size();
+	}
+
+
+	/**
+	 * @return true if some elements have been written to a spill file
+	 */
+	public boolean isSpilled() {
+		return spill != null;
+	}
+
+
+	/** Read the elements back, this buffer should not be modified after calling this method
+	 * @return an iterator over the elements in the order they were added, closing it deletes the spill file
+	 */
+	public ClosableIterator<T> reader() throws IOException {
+		ClosableIterator<T> spilled = spill != null ? spill.reader(true) : null;
+		Iterator<T> inMemory = memory.iterator();
+		memory = null;
+
+		return new ClosableIterator<T>() {
+			private boolean closed;
+
+			@Override
+			public boolean hasNext() {
+				return !closed && ((spilled != null && spilled.hasNext()) || inMemory.hasNext());
+			}
+
+			@Override
+			public T next() {
+				if(closed) {
+					throw new NoSuchElementException();
+				}
+				if(spilled != null && spilled.hasNext()) {
+					return spilled.next();
+				}
+				return inMemory.next();
+			}
+
+			@Override
+			public void close() throws Exception {
+				closed = true;
+				if(spilled != null) {
+					spilled.close();
+				}
+			}
+		};
+	}
+
+
+	/** Delete the spill file, if any, without reading it
+	 */
+	public void delete() throws IOException {
+		if(spill != null) {
+			spill.delete();
+		}
+		memory = null;
+	}
+
+}
@@ -0,0 +1,147 @@
+package twg2.streams;
+
+import java.util.concurrent.locks.LockSupport;
+
+/** A bounded, blocking, single-producer/single-consumer queue backed by a ring buffer.<br>
+ * The producer and consumer each own one index, so no locks or compare-and-set operations are needed. A thread only parks
+ * when the queue is full (producer) or empty (consumer), and is only unparked by the other thread in that case.<br>
+ * If a waiting thread is interrupted the queue is {@link #abandon() abandoned}, so neither side waits forever, and the thread's
+ * interrupt status is left set, callers can check {@link Thread#isInterrupted()} to distinguish an interrupt from the end of the queue.
+ * @param <E> the data type of the elements
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+final class SpscQueue<E> {
+	private final Object[] buf;
+	private final int mask;
+	/** the maximum number of queued elements, the buffer is rounded up to a power of 2 but only this many slots are used */
+	private final int capacity;
+	/** the next index to take, only written by the consumer */
+	private volatile long head;
+	/** the next index to put, only written by the producer */
+	private volatile long tail;
+	/** set by the producer when no more elements will be added */
+	private volatile boolean closed;
+	/** set when either side gives up, the other side stops waiting */
+	private volatile boolean abandoned;
+	private volatile Thread producerWaiting;
+	private volatile Thread consumerWaiting;
+
+
+	/**
+	 * @param capacity the maximum number of elements in the queue
+	 */
+	SpscQueue(int capacity) {
+		if(capacity < 1) {
+			throw new IllegalArgumentException("capacity must be greater than 0, was: " + capacity);
+		}
+		int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+		this.buf = new Object[size];
+		this.mask = size - 1;
+		this.capacity = capacity;
+	}
+
+
+	/** Add an element, waiting while the queue is full. Must only be called by the producer thread.
+	 * @return true if the element was added, false if the queue has been {@link #abandon() abandoned} or the producer was interrupted while waiting
+	 */
+	public boolean put(E elem) {
+		long t = tail;
+		while(t - head == capacity) {
+			if(abandoned) {
+				return false;
+			}
+			producerWaiting = Thread.currentThread();
+			// re-check after publishing the waiting thread so a concurrent take() cannot be missed
+			if(t - head == capacity && !abandoned) {
+				LockSupport.park(this);
+			}
+			producerWaiting = null;
+			if(Thread.currentThread().isInterrupted()) {
+				abandon();
+				return false;
+			}
+		}
+		if(abandoned) {
+			return false;
+		}
+		buf[(int)t & mask] = elem;
+		tail = t + 1;
+		Thread consumer = consumerWaiting;
+		if(consumer != null) {
+			LockSupport.unpark(consumer);
+		}
+		return true;
+	}
+
+
+	/** Remove an element, waiting while the queue is empty. Must only be called by the consumer thread.
+	 * @return the next element or null if the queue has been closed and is empty, has been abandoned, or the consumer was interrupted while waiting
+	 */
+	@SuppressWarnings("unchecked")
+	public E take() {
+		long h = head;
+		while(h == tail) {
+			if(abandoned) {
+				return null;
+			}
+			if(closed) {
+				// 'tail' is final once 'closed' is set
+				if(h == tail) {
+					return null;
+				}
+				break;
+			}
+			consumerWaiting = Thread.currentThread();
+			if(h == tail && !closed && !abandoned) {
+				LockSupport.park(this);
+			}
+			consumerWaiting = null;
+			if(Thread.currentThread().isInterrupted()) {
+				abandon();
+				return null;
+			}
+		}
+		if(abandoned) {
+			return null;
+		}
+		int idx = (int)h & mask;
+		E elem = (E)buf[idx];
+		buf[idx] = null;
+		head = h + 1;
+		Thread producer = producerWaiting;
+		if(producer != null) {
+			LockSupport.unpark(producer);
+		}
+		return elem;
+	}
+
+
+	/** Signal that no more elements will be added, the consumer receives the remaining elements followed by null
+	 */
+	public void close() {
+		closed = true;
+		wakeAll();
+	}
+
+
+	/** Stop both sides, {@link #put(Object)} returns false and {@link #take()} returns null
+	 */
+	public void abandon() {
+		abandoned = true;
+		wakeAll();
+	}
+
+
+	private void wakeAll() {
+		Thread thread = consumerWaiting;
+		if(thread != null) {
+			LockSupport.unpark(thread);
+		}
+		thread = producerWaiting;
+		if(thread != null) {
+			LockSupport.unpark(thread);
+		}
+	}
+
+}
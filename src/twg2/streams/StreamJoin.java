@@ -0,0 +1,569 @@
+package twg2.streams;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/** Join operators which combine the elements of two sources with equal keys.<br>
+ * A hash join reads the build (right) source into a compact multimap (see {@link JoinTable}) and then streams the probe (left) source lazily,
+ * so the smaller source should be passed as the build source. If the build source does not fit in memory, both sources are
+ * partitioned by key hash into temporary files (see {@link StreamSplitFilter#partitionByHash(Iterator, Function, int, int, ElementSerializer, Path)})
+ * and each pair of partitions is joined in turn.<br>
+ * A merge join joins two sources which are already sorted by key without buffering more than one group of equal right keys.<br>
+ * Inner joins return one result per pair of matching elements, left outer joins also return {@code combiner(left, null)}
+ * for each left element with no matches. Null keys never match in a hash join.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class StreamJoin {
+	public static final int DEFAULT_SPILL_PARTITIONS = 16;
+	/** the maximum number of times a build partition larger than {@code maxInMemory} is partitioned again */
+	static final int MAX_REPARTITION_DEPTH = 4;
+
+	private StreamJoin() { throw new AssertionError("cannot instantiate static class StreamJoin"); }
+
+
+	/** Join two sources in memory by reading the entire build source into a hash table, then lazily probing it with each probe element.
+	 * Results are returned in probe order and, for each probe element, in build order.
+	 * @param probe the left source, streamed lazily, closed when the returned iterator is closed if it is {@link AutoCloseable}
+	 * @param build the right source, read completely by this method and closed if it is {@link AutoCloseable}
+	 * @param probeKey the function which returns the join key of each left element
+	 * @param buildKey the function which returns the join key of each right element
+	 * @param combiner the function which combines each pair of matching elements into a result,
+	 * the right element is null for unmatched left elements in a left outer join
+	 * @param leftOuter true for a left outer join, false for an inner join
+	 * @return an iterator over the join results
+	 */
+	public static <L, R, K, T> ClosableIterator<T> hashJoin(Iterator<? extends L> probe, Iterator<? extends R> build,
+			Function<? super L, ? extends K> probeKey, Function<? super R, ? extends K> buildKey,
+			BiFunction<? super L, ? super R, ? extends T> combiner, boolean leftOuter) {
+		JoinTable<K, R> table = readTable(build, buildKey);
+		return new HashJoinIterator<>(probe, table, probeKey, combiner, leftOuter);
+	}
+
+
+	/** Hash join which spills to {@link #DEFAULT_SPILL_PARTITIONS} partitions in the default temporary-file directory
+	 * @see #hashJoin(Iterator, Iterator, Function, Function, BiFunction, boolean, int, int, ElementSerializer, ElementSerializer, Path)
+	 */
+	public static <L, R, K, T> ClosableIterator<T> hashJoin(Iterator<? extends L> probe, Iterator<? extends R> build,
+			Function<? super L, ? extends K> probeKey, Function<? super R, ? extends K> buildKey,
+			BiFunction<? super L, ? super R, ? extends T> combiner, boolean leftOuter,
+			int maxInMemory, ElementSerializer<L> probeSerializer, ElementSerializer<R> buildSerializer) throws IOException {
+		return hashJoin(probe, build, probeKey, buildKey, combiner, leftOuter, maxInMemory, DEFAULT_SPILL_PARTITIONS, probeSerializer, buildSerializer, null);
+	}
+
+
+	/** Join two sources using a hash table if the build source contains at most {@code maxInMemory} elements, otherwise
+	 * spill both sources to {@code partitions} temporary file partitions by key hash and join each pair of partitions in turn.<br>
+	 * If the build source fits in memory this behaves like {@link #hashJoin(Iterator, Iterator, Function, Function, BiFunction, boolean)}
+	 * and no temporary files are created. Otherwise the probe source is read completely before the first result is returned,
+	 * results are returned grouped by partition, each partition's results are in probe order, and one build partition is held in memory at a time,
+	 * so {@code partitions} should be at least the expected build source size divided by {@code maxInMemory}.<br>
+	 * A build partition which still contains more than {@code maxInMemory} elements is partitioned again, along with its probe partition,
+	 * using a different hash, up to {@value #MAX_REPARTITION_DEPTH} times. Elements with equal keys can never be separated, so the limit is
+	 * best effort: if more than {@code maxInMemory} build elements share one key, the partition containing them is read into memory once that depth is reached.
+	 * @param probe the left source, closed once it has been read or when the returned iterator is closed if it is {@link AutoCloseable}
+	 * @param build the right source, read completely by this method and closed if it is {@link AutoCloseable}
+	 * @param probeKey the function which returns the join key of each left element
+	 * @param buildKey the function which returns the join key of each right element
+	 * @param combiner the function which combines each pair of matching elements into a result,
+	 * the right element is null for unmatched left elements in a left outer join
+	 * @param leftOuter true for a left outer join, false for an inner join
+	 * @param maxInMemory the maximum number of build elements to hold in memory before partitioning
+	 * @param partitions the number of partitions to split both sources into if the build source does not fit in memory
+	 * @param probeSerializer the serializer used to write left elements to temporary files
+	 * @param buildSerializer the serializer used to write right elements to temporary files
+	 * @param tempDir the directory to create temporary files in, null for the default temporary-file directory
+	 * @return an iterator over the join results which must be closed to delete the temporary files
+	 * @throws IOException if there is an error writing the temporary files
+	 */
+	public static <L, R, K, T> ClosableIterator<T> hashJoin(Iterator<? extends L> probe, Iterator<? extends R> build,
+			Function<? super L, ? extends K> probeKey, Function<? super R, ? extends K> buildKey,
+			BiFunction<? super L, ? super R, ? extends T> combiner, boolean leftOuter,
+			int maxInMemory, int partitions, ElementSerializer<L> probeSerializer, ElementSerializer<R> buildSerializer, Path tempDir) throws IOException {
+		if(maxInMemory < 1) {
+			throw new IllegalArgumentException("maxInMemory must be greater than 0, was: " + maxInMemory);
+		}
+		if(partitions < 1) {
+			throw new IllegalArgumentException("partitions must be greater than 0, was: " + partitions);
+		}
+		JoinTable<K, R> table = new JoinTable<>();
+		while(table.size() < maxInMemory && build.hasNext()) {
+			R elem = build.next();
+			table.add(buildKey.apply(elem), elem);
+		}
+		if(!build.hasNext()) {
+			closeSource(build);
+			return new HashJoinIterator<>(probe, table, probeKey, combiner, leftOuter);
+		}
+
+		// the build source does not fit in memory
+		return PartitionedJoinIterator.partition(probe, table, build, probeKey, buildKey, combiner, leftOuter, maxInMemory, partitions, probeSerializer, buildSerializer, tempDir, 0);
+	}
+
+
+	/** Join two sources which are both sorted in ascending key order. Each left element is matched with the group of right elements
+	 * with an equal key, the group is buffered so consecutive left elements with the same key are matched without re-reading the right source.
+	 * Results are returned in left order and, for each left element, in right order.
+	 * @param left the left source, sorted by {@code leftKey}, closed when the returned iterator is closed if it is {@link AutoCloseable}
+	 * @param right the right source, sorted by {@code rightKey}, closed when the returned iterator is closed if it is {@link AutoCloseable}
+	 * @param leftKey the function which returns the join key of each left element
+	 * @param rightKey the function which returns the join key of each right element
+	 * @param comparator the key order both sources are sorted in, keys which compare as 0 match
+	 * @param combiner the function which combines each pair of matching elements into a result,
+	 * the right element is null for unmatched left elements in a left outer join
+	 * @param leftOuter true for a left outer join, false for an inner join
+	 * @return an iterator over the join results
+	 */
+	public static <L, R, K, T> ClosableIterator<T> mergeJoin(PeekableIterator<? extends L> left, PeekableIterator<? extends R> right,
+			Function<? super L, ? extends K> leftKey, Function<? super R, ? extends K> rightKey, Comparator<? super K> comparator,
+			BiFunction<? super L, ? super R, ? extends T> combiner, boolean leftOuter) {
+		return new MergeJoinIterator<>(left, right, leftKey, rightKey, comparator, combiner, leftOuter);
+	}
+
+
+	private static <K, R> JoinTable<K, R> readTable(Iterator<? extends R> build, Function<? super R, ? extends K> buildKey) {
+		JoinTable<K, R> table = new JoinTable<>();
+		while(build.hasNext()) {
+			R elem = build.next();
+			table.add(buildKey.apply(elem), elem);
+		}
+		closeSource(build);
+		return table;
+	}
+
+
+	private static void closeSource(Iterator<?> src) {
+		if(src instanceof AutoCloseable) {
+			try {
+				((AutoCloseable)src).close();
+			} catch(RuntimeException e) {
+				throw e;
+			} catch(IOException e) {
+				throw new UncheckedIOException(e);
+			} catch(Exception e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+
+
+
+	/** Probes a {@link JoinTable} with each element of a source
+	 */
+	private static final class HashJoinIterator<L, R, K, T> implements ClosableIterator<T> {
+		private final Iterator<? extends L> probe;
+		private final Function<? super L, ? extends K> probeKey;
+		private final BiFunction<? super L, ? super R, ? extends T> combiner;
+		private final boolean leftOuter;
+		private JoinTable<K, R> table;
+		private L left;
+		/** the index of the next build element matching {@link #left}, -1 if there are no more */
+		private int match = -1;
+		private T result;
+		private boolean ready;
+		private boolean closed;
+
+
+		HashJoinIterator(Iterator<? extends L> probe, JoinTable<K, R> table, Function<? super L, ? extends K> probeKey,
+				BiFunction<? super L, ? super R, ? extends T> combiner, boolean leftOuter) {
+			this.probe = probe;
+			this.table = table;
+			this.probeKey = probeKey;
+			this.combiner = combiner;
+			this.leftOuter = leftOuter;
+		}
+
+
+		@Override
+		public boolean hasNext() {
+			return advance();
+		}
+
+
+		@Override
+		public T next() {
+			if(!advance()) {
+				throw new NoSuchElementException();
+			}
+			T res = result;
+			result = null;
+			ready = false;
+			return res;
+		}
+
+
+		@Override
+		public void close() {
+			if(closed) {
+				return;
+			}
+			closed = true;
+			table = null;
+			left = null;
+			result = null;
+			ready = false;
+			closeSource(probe);
+		}
+
+
+		private boolean advance() {
+			if(ready) {
+				return true;
+			}
+			while(!closed) {
+				if(match >= 0) {
+					R elem = table.get(match);
+					match = table.next(match);
+					result = combiner.apply(left, elem);
+					return ready = true;
+				}
+				if(!probe.hasNext()) {
+					left = null;
+					return false;
+				}
+				left = probe.next();
+				match = table.first(probeKey.apply(left));
+				if(match < 0 && leftOuter) {
+					result = combiner.apply(left, null);
+					return ready = true;
+				}
+			}
+			return false;
+		}
+
+	}
+
+
+
+
+	/** Joins each pair of spilled probe and build partitions in turn, build partitions which do not fit in memory are partitioned again
+	 */
+	private static final class PartitionedJoinIterator<L, R, K, T> implements ClosableIterator<T> {
+		private final List<ClosableIterator<L>> probeParts;
+		private final List<ClosableIterator<R>> buildParts;
+		private final Function<? super L, ? extends K> probeKey;
+		private final Function<? super R, ? extends K> buildKey;
+		private final BiFunction<? super L, ? super R, ? extends T> combiner;
+		private final boolean leftOuter;
+		private final int maxInMemory;
+		private final int partitions;
+		private final ElementSerializer<L> probeSerializer;
+		private final ElementSerializer<R> buildSerializer;
+		private final Path tempDir;
+		/** the number of times the elements of these partitions have been partitioned before, also the hash seed of these partitions */
+		private final int depth;
+		/** the index of the partition being joined */
+		private int partition = -1;
+		/** a {@link HashJoinIterator}, or a {@link PartitionedJoinIterator} if the current build partition did not fit in memory */
+		private ClosableIterator<T> current;
+		private boolean closed;
+
+
+		private PartitionedJoinIterator(List<ClosableIterator<L>> probeParts, List<ClosableIterator<R>> buildParts, Function<? super L, ? extends K> probeKey,
+				Function<? super R, ? extends K> buildKey, BiFunction<? super L, ? super R, ? extends T> combiner, boolean leftOuter,
+				int maxInMemory, int partitions, ElementSerializer<L> probeSerializer, ElementSerializer<R> buildSerializer, Path tempDir, int depth) {
+			this.probeParts = probeParts;
+			this.buildParts = buildParts;
+			this.probeKey = probeKey;
+			this.buildKey = buildKey;
+			this.combiner = combiner;
+			this.leftOuter = leftOuter;
+			this.maxInMemory = maxInMemory;
+			this.partitions = partitions;
+			this.probeSerializer = probeSerializer;
+			this.buildSerializer = buildSerializer;
+			this.tempDir = tempDir;
+			this.depth = depth;
+		}
+
+
+		/** Partition the build elements read so far followed by the rest of the build source, and the probe source, using the hash for {@code depth}
+		 * @param depth the number of times these elements have been partitioned before
+		 */
+		static <L, R, K, T> PartitionedJoinIterator<L, R, K, T> partition(Iterator<? extends L> probe, JoinTable<K, R> table, Iterator<? extends R> build,
+				Function<? super L, ? extends K> probeKey, Function<? super R, ? extends K> buildKey, BiFunction<? super L, ? super R, ? extends T> combiner, boolean leftOuter,
+				int maxInMemory, int partitions, ElementSerializer<L> probeSerializer, ElementSerializer<R> buildSerializer, Path tempDir, int depth) throws IOException {
+			int maxInMemoryPerPartition = Math.max(1, maxInMemory / partitions);
+			List<ClosableIterator<R>> buildParts = StreamSplitFilter.partitionByHash(new ConcatIterator<R>(table.iterator(), build), buildKey,
+					partitions, maxInMemoryPerPartition, buildSerializer, tempDir, depth);
+			List<ClosableIterator<L>> probeParts;
+			try {
+				closeSource(build);
+				probeParts = StreamSplitFilter.partitionByHash(probe, probeKey, partitions, maxInMemoryPerPartition, probeSerializer, tempDir, depth);
+			} catch(IOException | RuntimeException | Error e) {
+				for(ClosableIterator<R> part : buildParts) {
+					try {
+						part.close();
+					} catch(Exception ce) {
+						e.addSuppressed(ce);
+					}
+				}
+				throw e;
+			}
+			return new PartitionedJoinIterator<>(probeParts, buildParts, probeKey, buildKey, combiner, leftOuter,
+					maxInMemory, partitions, probeSerializer, buildSerializer, tempDir, depth);
+		}
+
+
+		@Override
+		public boolean hasNext() {
+			while(current == null || !current.hasNext()) {
+				if(closed) {
+					return false;
+				}
+				if(current != null) {
+					ClosableIterator<T> done = current;
+					current = null;
+					closeSource(done);
+				}
+				if(partition + 1 >= probeParts.size()) {
+					return false;
+				}
+				// if reading the build partition fails, the partition is closed by close()
+				current = joinPartition(probeParts.get(partition + 1), buildParts.get(partition + 1));
+				partition++;
+			}
+			return true;
+		}
+
+
+		@Override
+		public T next() {
+			if(!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return current.next();
+		}
+
+
+		/** Close the remaining partitions and delete their temporary files
+		 */
+		@Override
+		public void close() throws IOException {
+			if(closed) {
+				return;
+			}
+			closed = true;
+			IOException err = null;
+			if(current != null) {
+				err = closePart(current, err);
+				current = null;
+			}
+			for(int i = partition + 1, size = probeParts.size(); i < size; i++) {
+				err = closePart(probeParts.get(i), err);
+				err = closePart(buildParts.get(i), err);
+			}
+			if(err != null) {
+				throw err;
+			}
+		}
+
+
+		/** Read a build partition into memory and join it with its probe partition, or partition both again if the build partition does not fit in memory
+		 */
+		private ClosableIterator<T> joinPartition(ClosableIterator<L> probePart, ClosableIterator<R> buildPart) {
+			// past the maximum depth the partition is read regardless of its size, the remaining elements likely share a few keys
+			boolean bounded = depth < MAX_REPARTITION_DEPTH;
+			JoinTable<K, R> table = new JoinTable<>();
+			while((!bounded || table.size() < maxInMemory) && buildPart.hasNext()) {
+				R elem = buildPart.next();
+				table.add(buildKey.apply(elem), elem);
+			}
+			if(!buildPart.hasNext()) {
+				closeSource(buildPart);
+				return new HashJoinIterator<>(probePart, table, probeKey, combiner, leftOuter);
+			}
+			try {
+				return partition(probePart, table, buildPart, probeKey, buildKey, combiner, leftOuter, maxInMemory, partitions, probeSerializer, buildSerializer, tempDir, depth + 1);
+			} catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+
+		private static IOException closePart(ClosableIterator<?> part, IOException err) {
+			try {
+				part.close();
+			} catch(Exception e) {
+				if(err == null) {
+					err = e instanceof IOException ? (IOException)e : (e instanceof UncheckedIOException ? ((UncheckedIOException)e).getCause() : new IOException(e));
+				}
+				else {
+					err.addSuppressed(e);
+				}
+			}
+			return err;
+		}
+
+	}
+
+
+
+
+	/** Joins the current left element with a buffered group of right elements with an equal key
+	 */
+	private static final class MergeJoinIterator<L, R, K, T> implements ClosableIterator<T> {
+		private final PeekableIterator<? extends L> left;
+		private final PeekableIterator<? extends R> right;
+		private final Function<? super L, ? extends K> leftKey;
+		private final Function<? super R, ? extends K> rightKey;
+		private final Comparator<? super K> comparator;
+		private final BiFunction<? super L, ? super R, ? extends T> combiner;
+		private final boolean leftOuter;
+		/** the right elements whose key equals {@link #groupKey} */
+		private final ArrayList<R> group;
+		private K groupKey;
+		private boolean hasGroup;
+		private L leftElem;
+		private boolean hasLeft;
+		/** the index of the next {@link #group} element to combine with {@link #leftElem} */
+		private int groupIdx;
+		private T result;
+		private boolean ready;
+		private boolean closed;
+
+
+		MergeJoinIterator(PeekableIterator<? extends L> left, PeekableIterator<? extends R> right, Function<? super L, ? extends K> leftKey,
+				Function<? super R, ? extends K> rightKey, Comparator<? super K> comparator, BiFunction<? super L, ? super R, ? extends T> combiner, boolean leftOuter) {
+			this.left = left;
+			this.right = right;
+			this.leftKey = leftKey;
+			this.rightKey = rightKey;
+			this.comparator = comparator;
+			this.combiner = combiner;
+			this.leftOuter = leftOuter;
+			this.group = new ArrayList<>();
+		}
+
+
+		@Override
+		public boolean hasNext() {
+			return advance();
+		}
+
+
+		@Override
+		public T next() {
+			if(!advance()) {
+				throw new NoSuchElementException();
+			}
+			T res = result;
+			result = null;
+			ready = false;
+			return res;
+		}
+
+
+		@Override
+		public void close() {
+			if(closed) {
+				return;
+			}
+			closed = true;
+			group.clear();
+			leftElem = null;
+			hasLeft = false;
+			result = null;
+			ready = false;
+			try {
+				closeSource(left);
+			} finally {
+				closeSource(right);
+			}
+		}
+
+
+		private boolean advance() {
+			if(ready) {
+				return true;
+			}
+			while(!closed) {
+				if(hasLeft && groupIdx < group.size()) {
+					result = combiner.apply(leftElem, group.get(groupIdx++));
+					return ready = true;
+				}
+				leftElem = null;
+				hasLeft = false;
+				if(!left.hasNext()) {
+					return false;
+				}
+				L elem = left.next();
+				K key = leftKey.apply(elem);
+				if(!hasGroup || comparator.compare(groupKey, key) != 0) {
+					loadGroup(key);
+				}
+				if(group.isEmpty()) {
+					if(leftOuter) {
+						result = combiner.apply(elem, null);
+						return ready = true;
+					}
+				}
+				else {
+					leftElem = elem;
+					hasLeft = true;
+					groupIdx = 0;
+				}
+			}
+			return false;
+		}
+
+
+		/** Skip the right elements with keys less than {@code key} and buffer the ones equal to it
+		 */
+		private void loadGroup(K key) {
+			group.clear();
+			while(right.hasNext()) {
+				int cmp = comparator.compare(rightKey.apply(right.peek()), key);
+				if(cmp > 0) {
+					break;
+				}
+				R elem = right.next();
+				if(cmp == 0) {
+					group.add(elem);
+				}
+			}
+			groupKey = key;
+			hasGroup = true;
+		}
+
+	}
+
+
+
+
+	/** Returns the elements of one iterator followed by another
+	 */
+	private static final class ConcatIterator<E> implements Iterator<E> {
+		private final Iterator<? extends E> first;
+		private final Iterator<? extends E> second;
+
+
+		ConcatIterator(Iterator<? extends E> first, Iterator<? extends E> second) {
+			this.first = first;
+			this.second = second;
+		}
+
+
+		@Override
+		public boolean hasNext() {
+			return first.hasNext() || second.hasNext();
+		}
+
+
+		@Override
+		public E next() {
+			return first.hasNext() ? first.next() : second.next();
+		}
+
+	}
+
+}
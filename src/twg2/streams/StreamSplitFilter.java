@@ -1,11 +1,20 @@
 package twg2.streams;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.RandomAccess;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -82,6 +91,245 @@ public class StreamSplitFilter {
 	}
 
 
+	/** @see #partitionByHash(Iterator, Function, int, int, ElementSerializer, Path)
+	 */
+	public static <E, K> List<ClosableIterator<E>> partitionByHash(Collection<? extends E> coll, Function<? super E, ? extends K> keyFunc, int partitions,
+			int maxInMemoryPerPartition, ElementSerializer<E> serializer) throws IOException {
+		return partitionByHash(coll.iterator(), keyFunc, partitions, maxInMemoryPerPartition, serializer, null);
+	}
+
+
+	/** Split a source into partitions by the hash of a key extracted from each element, so all elements with equal keys end up in the same partition.
+	 * Each partition keeps at most {@code maxInMemoryPerPartition} elements in memory, once a partition exceeds that limit its elements
+	 * are spilled to a temporary file using {@code serializer}, so sources larger than memory can be partitioned.
+	 * @param src the source elements, closed once it has been read (or if partitioning fails) if it is {@link AutoCloseable}
+	 * @param keyFunc the function which returns the partitioning key of each element, keys are compared by {@link Object#hashCode()}
+	 * @param partitions the number of partitions
+	 * @param maxInMemoryPerPartition the maximum number of elements each partition keeps in memory
+	 * @param serializer the serializer used to spill elements to temporary files, null to keep all elements in memory
+	 * @param tempDir the directory to create temporary files in, null for the default temporary-file directory
+	 * @return a list of {@code partitions} iterators, each returns its partition's elements in source order. Each iterator must be closed
+	 * (even if it is not read) to delete its temporary file
+	 * @throws IOException if there is an error writing the temporary files
+	 */
+	public static <E, K> List<ClosableIterator<E>> partitionByHash(Iterator<? extends E> src, Function<? super E, ? extends K> keyFunc, int partitions,
+			int maxInMemoryPerPartition, ElementSerializer<E> serializer, Path tempDir) throws IOException {
+		return partitionByHash(src, keyFunc, partitions, maxInMemoryPerPartition, serializer, tempDir, 0);
+	}
+
+
+	/** Partition by hash like {@link #partitionByHash(Iterator, Function, int, int, ElementSerializer, Path)}, using the partition function for {@code seed},
+	 * so the elements of one partition can be partitioned again with a different seed
+	 * @see #hashPartition(Object, int, int)
+	 */
+	static <E, K> List<ClosableIterator<E>> partitionByHash(Iterator<? extends E> src, Function<? super E, ? extends K> keyFunc, int partitions,
+			int maxInMemoryPerPartition, ElementSerializer<E> serializer, Path tempDir, int seed) throws IOException {
+		if(partitions < 1) {
+			throw new IllegalArgumentException("partitions must be greater than 0, was: " + partitions);
+		}
+		if(maxInMemoryPerPartition < 1) {
+			throw new IllegalArgumentException("maxInMemoryPerPartition must be greater than 0, was: " + maxInMemoryPerPartition);
+		}
+		List<SpillingBuffer<E>> buffers = new ArrayList<>(partitions);
+		for(int i = 0; i < partitions; i++) {
+			buffers.add(new SpillingBuffer<>(maxInMemoryPerPartition, serializer, tempDir, "partition-" + i + "-"));
+		}
+
+		List<ClosableIterator<E>> res = new ArrayList<>(partitions);
+		boolean srcClosed = !(src instanceof AutoCloseable);
+		try {
+			while(src.hasNext()) {
+				E elem = src.next();
+				buffers.get(hashPartition(keyFunc.apply(elem), partitions, seed)).add(elem);
+			}
+			srcClosed = true;
+			if(src instanceof AutoCloseable) {
+				((AutoCloseable)src).close();
+			}
+
+			for(SpillingBuffer<E> buffer : buffers) {
+				res.add(buffer.reader());
+			}
+			return res;
+		} catch(Exception | Error e) {
+			if(!srcClosed) {
+				try {
+					((AutoCloseable)src).close();
+				} catch(Exception ce) {
+					e.addSuppressed(ce);
+				}
+			}
+			// close the partition readers which were already opened before deleting their files
+			for(ClosableIterator<E> reader : res) {
+				try {
+					reader.close();
+				} catch(Exception ce) {
+					e.addSuppressed(ce);
+				}
+			}
+			for(SpillingBuffer<E> buffer : buffers) {
+				try {
+					buffer.delete();
+				} catch(IOException de) {
+					e.addSuppressed(de);
+				}
+			}
+			if(e instanceof IOException) {
+				throw (IOException)e;
+			}
+			if(e instanceof RuntimeException) {
+				throw (RuntimeException)e;
+			}
+			if(e instanceof Error) {
+				throw (Error)e;
+			}
+			throw new IOException(e);
+		}
+	}
+
+
+	/** Split a source between {@code splitWays} consumers which process their elements concurrently with the split.
+	 * Runs each consumer on its own virtual thread if the runtime supports them, otherwise on its own daemon thread.
+	 * @see #splitNWayConcurrent(Iterator, int, Function, List, int, Executor)
+	 */
+	public static <E> void splitNWayConcurrent(Iterator<? extends E> src, int splitWays, Function<E, Integer> splitter,
+			List<? extends Consumer<? super E>> consumers, int queueCapacity) {
+		ExecutorService executor = ConcurrentMapIterator.newDefaultExecutor();
+		try {
+			splitNWayConcurrent(src, splitWays, splitter, consumers, queueCapacity, executor);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+
+	/** Split a source between {@code splitWays} consumers which process their elements concurrently with the split (pipeline parallelism).
+	 * Each consumer is fed by a bounded single-producer/single-consumer queue and runs as its own task on {@code executor},
+	 * the calling thread reads the source and routes each element. Each consumer receives its elements in source order.
+	 * If the queue for a consumer is full the calling thread waits for that consumer.<br>
+	 * This method returns once every consumer has processed all of its elements. If a consumer or the splitter throws an exception,
+	 * all consumers are stopped and the first exception is rethrown.
+	 * @param src the source elements
+	 * @param splitWays the number of consumers
+	 * @param splitter the function to determine which consumer receives each element.
+	 * Returned values must be in the range {@code [0, splitWays)}, or -1 to filter out the element
+	 * @param consumers the {@code splitWays} consumers, each is only called from one thread at a time
+	 * @param queueCapacity the maximum number of elements waiting to be processed by each consumer
+	 * @param executor the executor to run the consumers on, it must be able to run {@code splitWays} tasks at the same time
+	 */
+	public static <E> void splitNWayConcurrent(Iterator<? extends E> src, int splitWays, Function<E, Integer> splitter,
+			List<? extends Consumer<? super E>> consumers, int queueCapacity, Executor executor) {
+		if(consumers.size() != splitWays) {
+			throw new IllegalArgumentException("expected " + splitWays + " consumers, received " + consumers.size());
+		}
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		List<SpscQueue<E>> queues = new ArrayList<>(splitWays);
+		CountDownLatch workersDone = new CountDownLatch(splitWays);
+
+		for(int i = 0; i < splitWays; i++) {
+			queues.add(new SpscQueue<>(queueCapacity));
+		}
+		// the number of consumer tasks submitted to the executor
+		int started = 0;
+		try {
+			for(; started < splitWays; started++) {
+				SpscQueue<E> queue = queues.get(started);
+				Consumer<? super E> consumer = consumers.get(started);
+				executor.execute(() -> {
+					try {
+						E elem;
+						while((elem = queue.take()) != null) {
+							consumer.accept(elem);
+						}
+						if(Thread.currentThread().isInterrupted()) {
+							throw new CancellationException("consumer interrupted");
+						}
+					} catch(Throwable t) {
+						if(failure.compareAndSet(null, t)) {
+							for(SpscQueue<E> q : queues) {
+								q.abandon();
+							}
+						}
+					} finally {
+						workersDone.countDown();
+					}
+				});
+			}
+
+			while(src.hasNext() && failure.get() == null) {
+				E elem = src.next();
+				Integer res = splitter.apply(elem);
+				if(res == -1) {
+					continue;
+				}
+				if(res < 0 || res >= splitWays) {
+					throw new IllegalStateException("splitter result must be in the range [0," + splitWays + ") (or -1), was: " + res);
+				}
+				if(!queues.get(res).put(elem)) {
+					if(Thread.currentThread().isInterrupted()) {
+						throw new CancellationException("interrupted while splitting");
+					}
+					break;
+				}
+			}
+		} catch(Throwable t) {
+			failure.compareAndSet(null, t);
+			for(SpscQueue<E> q : queues) {
+				q.abandon();
+			}
+		} finally {
+			for(SpscQueue<E> q : queues) {
+				q.close();
+			}
+			// consumers which were never started (e.g. the executor rejected them) will not count down themselves
+			for(int i = started; i < splitWays; i++) {
+				workersDone.countDown();
+			}
+		}
+
+		try {
+			workersDone.await();
+		} catch(InterruptedException e) {
+			for(SpscQueue<E> q : queues) {
+				q.abandon();
+			}
+			Thread.currentThread().interrupt();
+			throw new CancellationException("interrupted while waiting for consumers");
+		}
+
+		Throwable err = failure.get();
+		if(err != null) {
+			if(err instanceof RuntimeException) {
+				throw (RuntimeException)err;
+			}
+			if(err instanceof Error) {
+				throw (Error)err;
+			}
+			throw new IllegalStateException(err);
+		}
+	}
+
+
+	/**
+	 * @return the partition, in the range {@code [0, partitions)}, of a key
+	 */
+	static int hashPartition(Object key, int partitions) {
+		return hashPartition(key, partitions, 0);
+	}
+
+
+	/**
+	 * @param seed selects the partition function, keys in the same partition for one seed are spread across partitions for other seeds
+	 */
+	static int hashPartition(Object key, int partitions, int seed) {
+		if(key == null) {
+			return 0;
+		}
+		// spread the hash so keys with poorly distributed low bits (e.g. Integer) are not all assigned to a few partitions
+		return (int)Math.floorMod(OffHeapLongHashSet.mix(key.hashCode() + seed * 0x9E3779B97F4A7C15L), (long)partitions);
+	}
+
+
 	static <E, C extends Collection<E>> List<C> splitFilterNWay(Collection<E> coll, int splitWays, boolean allowNegativeToFilter, Supplier<C> createColl, Function<E, Integer> splitter) {
 		List<C> resultColls = new ArrayList<>(splitWays);
 		for(int i = 0; i < splitWays; i++) {
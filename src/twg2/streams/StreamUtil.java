@@ -3,17 +3,26 @@ package twg2.streams;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.RandomAccess;
 import java.util.Set;
 import java.util.Spliterators;
+import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
+import java.util.function.LongBinaryOperator;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.BaseStream;
+import java.util.stream.Collector;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -36,6 +45,36 @@ public class StreamUtil {
 	}
 
 
+	/** Iterate over two {@code int} arrays, without boxing, and stop once the end of the shorter array is reached
+	 * @see ZipUtil
+	 */
+	public static void forEachPair(int[] keys, int[] values, IntIntConsumer consumer) {
+		for(int i = 0, size = Math.min(keys.length, values.length); i < size; i++) {
+			consumer.accept(keys[i], values[i]);
+		}
+	}
+
+
+	/** Iterate over two {@code long} arrays, without boxing, and stop once the end of the shorter array is reached
+	 * @see ZipUtil
+	 */
+	public static void forEachPair(long[] keys, long[] values, LongLongConsumer consumer) {
+		for(int i = 0, size = Math.min(keys.length, values.length); i < size; i++) {
+			consumer.accept(keys[i], values[i]);
+		}
+	}
+
+
+	/** Iterate over two {@code double} arrays, without boxing, and stop once the end of the shorter array is reached
+	 * @see ZipUtil
+	 */
+	public static void forEachPair(double[] keys, double[] values, DoubleDoubleConsumer consumer) {
+		for(int i = 0, size = Math.min(keys.length, values.length); i < size; i++) {
+			consumer.accept(keys[i], values[i]);
+		}
+	}
+
+
 	/** Iterate over two {@link Collection Collections} and stop once the end of the shorter collection is reached
 	 */
 	public static <K, V> void forEachPair(Iterable<? extends K> keys, Iterable<? extends V> values, BiConsumer<K, V> consumer) {
@@ -95,6 +134,43 @@ public class StreamUtil {
 	}
 
 
+	/** Map each element of an iterator concurrently (intended for blocking, I/O-bound mapping functions) and return the results in source order.
+	 * Tasks run on virtual threads if the runtime supports them, otherwise on a cached thread pool owned by the returned iterator.
+	 * @param iter the source elements
+	 * @param mapper the mapping function
+	 * @param maxInFlight the maximum number of mapping tasks outstanding at once
+	 * @return a {@link ConcurrentMapIterator} which should be closed if it is not fully consumed
+	 * @see ConcurrentMapIterator
+	 */
+	public static <T, R> ConcurrentMapIterator<T, R> mapConcurrent(Iterator<? extends T> iter, Function<? super T, ? extends R> mapper, int maxInFlight) {
+		return new ConcurrentMapIterator<>(iter, mapper, maxInFlight);
+	}
+
+
+	/** Map each element of an iterator concurrently on the given executor and return the results in source order
+	 * @see #mapConcurrent(Iterator, Function, int)
+	 */
+	public static <T, R> ConcurrentMapIterator<T, R> mapConcurrent(Iterator<? extends T> iter, Function<? super T, ? extends R> mapper, int maxInFlight, Executor executor) {
+		return new ConcurrentMapIterator<>(iter, mapper, maxInFlight, executor);
+	}
+
+
+	/** Map each element of a stream concurrently and return the results in source order, closing the returned iterator also closes the stream
+	 * @see #mapConcurrent(Iterator, Function, int)
+	 */
+	public static <T, R> ConcurrentMapIterator<T, R> mapConcurrent(Stream<? extends T> stream, Function<? super T, ? extends R> mapper, int maxInFlight) {
+		return new ConcurrentMapIterator<>(new StreamIterator<>(stream), mapper, maxInFlight);
+	}
+
+
+	/** Map each element of a stream concurrently on the given executor and return the results in source order, closing the returned iterator also closes the stream
+	 * @see #mapConcurrent(Iterator, Function, int)
+	 */
+	public static <T, R> ConcurrentMapIterator<T, R> mapConcurrent(Stream<? extends T> stream, Function<? super T, ? extends R> mapper, int maxInFlight, Executor executor) {
+		return new ConcurrentMapIterator<>(new StreamIterator<>(stream), mapper, maxInFlight, executor);
+	}
+
+
 	public static <T, R extends Collection<? super T>> R toCollection(Stream<T> stream, R dst) {
 		stream.forEach((item) -> dst.add(item));
 		return dst;
@@ -148,9 +224,202 @@ public class StreamUtil {
 	}
 
 
+	/** A {@link Collector} which builds an unboxed {@link IntObjectHashMap}, if multiple elements have the same key, the last element's value is kept.
+	 * Supports parallel streams (partial maps are merged in encounter order).
+	 * @param keyFunc the function which returns each element's key
+	 * @param valueFunc the function which returns each element's value
+	 */
+	public static <T, V> Collector<T, ?, IntObjectHashMap<V>> toIntObjectMap(ToIntFunction<? super T> keyFunc, Function<? super T, ? extends V> valueFunc) {
+		return Collector.of(IntObjectHashMap<V>::new, (map, elem) -> map.put(keyFunc.applyAsInt(elem), valueFunc.apply(elem)), (a, b) -> {
+			a.putAll(b);
+			return a;
+		}, Collector.Characteristics.IDENTITY_FINISH);
+	}
+
+
+	/** A {@link Collector} which builds an unboxed {@link IntObjectHashMap}, combining the values of elements with the same key using {@code merge}
+	 * @see #toIntObjectMap(ToIntFunction, Function)
+	 */
+	public static <T, V> Collector<T, ?, IntObjectHashMap<V>> toIntObjectMap(ToIntFunction<? super T> keyFunc, Function<? super T, ? extends V> valueFunc, BinaryOperator<V> merge) {
+		return Collector.of(IntObjectHashMap<V>::new, (map, elem) -> map.merge(keyFunc.applyAsInt(elem), valueFunc.apply(elem), merge), (a, b) -> {
+			b.forEach((key, value) -> a.merge(key, value, merge));
+			return a;
+		}, Collector.Characteristics.IDENTITY_FINISH);
+	}
+
+
+	/** A {@link Collector} which builds an unboxed {@link LongLongHashMap}, if multiple elements have the same key, the last element's value is kept.
+	 * Supports parallel streams (partial maps are merged in encounter order).
+	 * @param keyFunc the function which returns each element's key
+	 * @param valueFunc the function which returns each element's value
+	 */
+	public static <T> Collector<T, ?, LongLongHashMap> toLongLongMap(ToLongFunction<? super T> keyFunc, ToLongFunction<? super T> valueFunc) {
+		return Collector.of(LongLongHashMap::new, (map, elem) -> map.put(keyFunc.applyAsLong(elem), valueFunc.applyAsLong(elem)), (a, b) -> {
+			a.putAll(b);
+			return a;
+		}, Collector.Characteristics.IDENTITY_FINISH);
+	}
+
+
+	/** A {@link Collector} which builds an unboxed {@link LongLongHashMap}, combining the values of elements with the same key using {@code merge}
+	 * (for example {@code toLongLongMap(keyFunc, (e) -> 1, Long::sum)} counts the elements with each key)
+	 * @see #toLongLongMap(ToLongFunction, ToLongFunction)
+	 */
+	public static <T> Collector<T, ?, LongLongHashMap> toLongLongMap(ToLongFunction<? super T> keyFunc, ToLongFunction<? super T> valueFunc, LongBinaryOperator merge) {
+		return Collector.of(LongLongHashMap::new, (map, elem) -> map.merge(keyFunc.applyAsLong(elem), valueFunc.applyAsLong(elem), merge), (a, b) -> {
+			b.forEach((key, value) -> a.merge(key, value, merge));
+			return a;
+		}, Collector.Characteristics.IDENTITY_FINISH);
+	}
+
+
+	/** A {@link Collector} which maps each element to an {@code int} and collects them into an array, in encounter order, without boxing.
+	 * Supports parallel streams.
+	 */
+	public static <T> Collector<T, ?, int[]> toIntArray(ToIntFunction<? super T> mapper) {
+		return Collector.of(IntArrayList::new, (list, elem) -> list.add(mapper.applyAsInt(elem)), (a, b) -> {
+			a.addAll(b);
+			return a;
+		}, IntArrayList::toArray);
+	}
+
+
+	/** A {@link Collector} which maps each element to a {@code long} and collects them into an array, in encounter order, without boxing.
+	 * Supports parallel streams.
+	 */
+	public static <T> Collector<T, ?, long[]> toLongArray(ToLongFunction<? super T> mapper) {
+		return Collector.of(LongArrayList::new, (list, elem) -> list.add(mapper.applyAsLong(elem)), (a, b) -> {
+			a.addAll(b);
+			return a;
+		}, LongArrayList::toArray);
+	}
+
+
+	/** A {@link Collector} which maps each element to a {@code double} and collects them into an array, in encounter order, without boxing.
+	 * Supports parallel streams.
+	 */
+	public static <T> Collector<T, ?, double[]> toDoubleArray(ToDoubleFunction<? super T> mapper) {
+		return Collector.of(DoubleArrayList::new, (list, elem) -> list.add(mapper.applyAsDouble(elem)), (a, b) -> {
+			a.addAll(b);
+			return a;
+		}, DoubleArrayList::toArray);
+	}
+
+
+	/** A bounded memory {@link Collector} which keeps the {@code k} greatest elements according to {@code comparator}.
+	 * Memory use is O(k) and each element costs at most O(log k), supports parallel streams.
+	 * @param k the maximum number of elements to return
+	 * @param comparator the comparator to order elements by, use {@link Comparator#reversed()} to collect the {@code k} smallest elements
+	 * @return a collector which returns a list of at most {@code k} elements, greatest first
+	 */
+	public static <T> Collector<T, ?, List<T>> topK(int k, Comparator<? super T> comparator) {
+		return Collector.of(() -> new TopKAccumulator<T>(k, comparator), TopKAccumulator::add, TopKAccumulator::combine, TopKAccumulator::toList, Collector.Characteristics.UNORDERED);
+	}
+
+
+	/** Consume an iterator and return the {@code k} greatest elements according to {@code comparator}, greatest first
+	 * @see #topK(int, Comparator)
+	 */
+	public static <T> List<T> topK(Iterator<? extends T> iter, int k, Comparator<? super T> comparator) {
+		TopKAccumulator<T> acc = new TopKAccumulator<>(k, comparator);
+		while(iter.hasNext()) {
+			acc.add(iter.next());
+		}
+		return acc.toList();
+	}
+
+
+	/** A bounded memory {@link Collector} which returns a uniform random sample of {@code k} elements (or all elements if there are fewer than {@code k}).
+	 * Uses reservoir sampling 'Algorithm L' which only draws random numbers for elements which enter the sample, supports parallel streams.
+	 * @param k the sample size
+	 * @return a collector which returns a list of at most {@code k} elements in no particular order
+	 */
+	public static <T> Collector<T, ?, List<T>> sample(int k) {
+		return sample(k, null);
+	}
+
+
+	/** A bounded memory {@link Collector} which returns a uniform random sample of {@code k} elements
+	 * @param rand the random number generator to use, null to use {@link java.util.concurrent.ThreadLocalRandom}
+	 * @see #sample(int)
+	 */
+	public static <T> Collector<T, ?, List<T>> sample(int k, Random rand) {
+		return Collector.of(() -> new ReservoirSampler<T>(k, rand), ReservoirSampler::add, ReservoirSampler::combine, ReservoirSampler::toList, Collector.Characteristics.UNORDERED);
+	}
+
+
+	/** Consume an iterator and return a uniform random sample of {@code k} of its elements.
+	 * Elements which are skipped by the sampling algorithm are read without drawing random numbers.
+	 * @param rand the random number generator to use, null to use {@link java.util.concurrent.ThreadLocalRandom}
+	 * @see #sample(int)
+	 */
+	public static <T> List<T> sample(Iterator<? extends T> iter, int k, Random rand) {
+		ReservoirSampler<T> sampler = new ReservoirSampler<>(k, rand);
+		sampler.addAll(iter);
+		return sampler.toList();
+	}
+
+
+	/** Remove duplicate elements from an iterator using a bounded memory {@link DistinctFilter}
+	 * @param iter the source elements, closed when the returned iterator is closed if it is {@link AutoCloseable}
+	 * @param filter the filter which determines whether an element is a duplicate, see {@link DistinctFilter#exact(java.util.function.ToLongFunction, long)},
+	 * {@link DistinctFilter#approximate(java.util.function.ToLongFunction, long, double) approximate()}, and {@link DistinctFilter#windowed(java.util.function.ToLongFunction, int) windowed()},
+	 * closed when the returned iterator is closed
+	 * @return an iterator over the first occurrence of each element, a {@link ClosableIterator}
+	 */
+	public static <T> PeekableIterator<T> distinct(PeekableIterator<? extends T> iter, DistinctFilter<? super T> filter) {
+		return new DistinctFilter.DistinctIterator<>(iter, filter);
+	}
+
+
+	/** Remove duplicate elements from a stream using a bounded memory {@link DistinctFilter}.
+	 * Filters are not thread-safe, so the returned stream is sequential. The filter is closed when the returned stream is closed.
+	 * @see #distinct(PeekableIterator, DistinctFilter)
+	 */
+	public static <T> Stream<T> distinct(Stream<T> stream, DistinctFilter<? super T> filter) {
+		return stream.sequential().filter(filter).onClose(filter::close);
+	}
+
+
 	@SuppressWarnings("unchecked")
 	public static <R, T extends R> R[] toArray(Stream<T> stream, Class<R> type) {
 		return stream.toArray((size) -> (R[])Array.newInstance(type, size));
 	}
 
+
+
+
+	/** A {@link ClosableIterator} view of a {@link Stream} which closes the stream when it is closed
+	 */
+	static class StreamIterator<T> implements ClosableIterator<T> {
+		private final Stream<T> stream;
+		private final Iterator<T> iter;
+
+
+		@SuppressWarnings("unchecked")
+		StreamIterator(Stream<? extends T> stream) {
+			this.stream = (Stream<T>)stream;
+			this.iter = this.stream.iterator();
+		}
+
+
+		@Override
+		public boolean hasNext() {
+			return iter.hasNext();
+		}
+
+
+		@Override
+		public T next() {
+			return iter.next();
+		}
+
+
+		@Override
+		public void close() {
+			stream.close();
+		}
+
+	}
+
 }
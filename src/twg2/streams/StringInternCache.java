@@ -0,0 +1,338 @@
+package twg2.streams;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/** A bounded, thread safe, lock-free cache which deduplicates repeated strings, so that equal values read from a source
+ * (such as host names, status codes or other enum-like fields) share one {@code String} instance instead of each occurrence being retained.<br>
+ * The cache is a {@link UnaryOperator}, so it can be passed directly as the {@code modifier} of {@link EnhancedIterator#fromReader(java.io.BufferedReader, boolean, java.util.function.Function)}
+ * and the other line sources. The {@code char[]}, {@link CharSequence} and {@code byte[]} overloads of {@code intern()} look values up
+ * by hashing the raw characters or bytes, so a new {@code String} is only created on a miss. The byte-level line sources
+ * ({@link IndexedLineIterator}, {@link ResumableLineIterator} and {@link EnhancedIterator#fromPathMatching(java.nio.file.Path, Charset, java.util.Collection, boolean, boolean, StringInternCache, java.util.function.Function)})
+ * accept a cache which they look each line's bytes up in before decoding it.<br>
+ * The table is divided into independent sets of {@value #WAYS} entries, each value can only be stored in the set chosen by its hash.
+ * Lookups only read the set, inserts replace an entry with a compare-and-set, so threads only contend when they insert into the same set.
+ * Each set evicts using CLOCK (second chance): a hit marks an entry as referenced, and an insert into a full set clears referenced entries
+ * until it finds an unreferenced one to replace. New entries are unreferenced, so values seen only once are evicted first.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class StringInternCache implements UnaryOperator<String> {
+	public static final int DEFAULT_MAX_LENGTH = 128;
+	static final int WAYS = 8;
+
+	private final AtomicReferenceArray<String> table;
+	/** the CLOCK reference bit of each entry, read and written without synchronization since a lost update only affects which entry is evicted */
+	private final byte[] referenced;
+	/** the CLOCK hand of each set */
+	private final byte[] hands;
+	private final int setMask;
+	private final int maxLength;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+
+	/** Create a cache which only interns strings of at most {@link #DEFAULT_MAX_LENGTH} characters
+	 * @see #StringInternCache(int, int)
+	 */
+	public StringInternCache(int capacity) {
+		this(capacity, DEFAULT_MAX_LENGTH);
+	}
+
+
+	/**
+	 * @param capacity the minimum number of strings the cache can hold, rounded up to a power of 2
+	 * @param maxLength the maximum length of strings to intern, longer strings are returned without being cached
+	 */
+	public StringInternCache(int capacity, int maxLength) {
+		if(capacity < 1 || capacity > (1 << 30)) {
+			throw new IllegalArgumentException("capacity must be in the range [1, 2^30], was: " + capacity);
+		}
+		if(maxLength < 0) {
+			throw new IllegalArgumentException("maxLength must be greater than or equal to 0, was: " + maxLength);
+		}
+		int sets = 1;
+		while(sets * WAYS < capacity) {
+			sets <<= 1;
+		}
+		this.table = new AtomicReferenceArray<>(sets * WAYS);
+		this.referenced = new byte[sets * WAYS];
+		this.hands = new byte[sets];
+		this.setMask = sets - 1;
+		this.maxLength = maxLength;
+	}
+
+
+	/** Same as {@link #intern(String)}, allows this cache to be used as a {@code modifier} function
+	 */
+	@Override
+	public String apply(String str) {
+		return intern(str);
+	}
+
+
+	/**
+	 * @return the cached string equal to {@code str}, or {@code str} (after caching it) if there is none
+	 */
+	public String intern(String str) {
+		if(str == null || str.length() > maxLength) {
+			return str;
+		}
+		int hash = str.hashCode();
+		int base = setBase(hash);
+		for(int i = base, end = base + WAYS; i < end; i++) {
+			String cur = table.get(i);
+			if(cur != null && cur.hashCode() == hash && cur.equals(str)) {
+				return hit(i, cur);
+			}
+		}
+		misses.increment();
+		insert(base, str);
+		return str;
+	}
+
+
+	/**
+	 * @return the cached string equal to {@code seq.subSequence(start, end)}, or a new string (after caching it) if there is none
+	 */
+	public String intern(CharSequence seq, int start, int end) {
+		if(start < 0 || start > end || end > seq.length()) {
+			throw new IndexOutOfBoundsException("range [" + start + ", " + end + ") of length " + seq.length());
+		}
+		int len = end - start;
+		if(len > maxLength) {
+			return seq.subSequence(start, end).toString();
+		}
+		int hash = 0;
+		for(int i = start; i < end; i++) {
+			hash = 31 * hash + seq.charAt(i);
+		}
+		int base = setBase(hash);
+		for(int i = base, setEnd = base + WAYS; i < setEnd; i++) {
+			String cur = table.get(i);
+			if(cur != null && cur.length() == len && cur.hashCode() == hash && contentEquals(cur, seq, start)) {
+				return hit(i, cur);
+			}
+		}
+		misses.increment();
+		String str = seq.subSequence(start, end).toString();
+		insert(base, str);
+		return str;
+	}
+
+
+	/**
+	 * @return the cached string equal to {@code new String(chars, off, len)}, or a new string (after caching it) if there is none
+	 */
+	public String intern(char[] chars, int off, int len) {
+		if(off < 0 || len < 0 || off > chars.length - len) {
+			throw new IndexOutOfBoundsException("offset " + off + ", length " + len + " of array length " + chars.length);
+		}
+		if(len > maxLength) {
+			return new String(chars, off, len);
+		}
+		int hash = 0;
+		for(int i = off, end = off + len; i < end; i++) {
+			hash = 31 * hash + chars[i];
+		}
+		int base = setBase(hash);
+		for(int i = base, setEnd = base + WAYS; i < setEnd; i++) {
+			String cur = table.get(i);
+			if(cur != null && cur.length() == len && cur.hashCode() == hash && contentEquals(cur, chars, off)) {
+				return hit(i, cur);
+			}
+		}
+		misses.increment();
+		String str = new String(chars, off, len);
+		insert(base, str);
+		return str;
+	}
+
+
+	/** Intern a string encoded as bytes. If {@code cs} is ASCII compatible (UTF-8, US-ASCII or ISO-8859-1) and the bytes are all ASCII,
+	 * the bytes are hashed and compared directly without decoding them, otherwise they are decoded and then interned
+	 * @return the cached string equal to {@code new String(bytes, off, len, cs)}, or a new string (after caching it) if there is none
+	 */
+	public String intern(byte[] bytes, int off, int len, Charset cs) {
+		if(off < 0 || len < 0 || off > bytes.length - len) {
+			throw new IndexOutOfBoundsException("offset " + off + ", length " + len + " of array length " + bytes.length);
+		}
+		if(len > maxLength || !isAsciiCompatible(cs)) {
+			return intern(new String(bytes, off, len, cs));
+		}
+		int hash = 0;
+		int nonAscii = 0;
+		for(int i = off, end = off + len; i < end; i++) {
+			byte b = bytes[i];
+			nonAscii |= b;
+			hash = 31 * hash + b;
+		}
+		if(nonAscii < 0) {
+			return intern(new String(bytes, off, len, cs));
+		}
+		int base = setBase(hash);
+		for(int i = base, setEnd = base + WAYS; i < setEnd; i++) {
+			String cur = table.get(i);
+			if(cur != null && cur.length() == len && cur.hashCode() == hash && contentEquals(cur, bytes, off)) {
+				return hit(i, cur);
+			}
+		}
+		misses.increment();
+		// the bytes are ASCII, so ISO-8859-1 decodes them identically and without validation
+		String str = new String(bytes, off, len, StandardCharsets.ISO_8859_1);
+		insert(base, str);
+		return str;
+	}
+
+
+	/**
+	 * @return the maximum number of strings this cache can hold
+	 */
+	public int capacity() {
+		return table.length();
+	}
+
+
+	/**
+	 * @return the number of strings currently cached, this scans the entire cache
+	 */
+	public int size() {
+		int count = 0;
+		for(int i = 0, n = table.length(); i < n; i++) {
+			if(table.get(i) != null) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+
+	/**
+	 * @return the number of {@code intern()} calls which returned a cached string
+	 */
+	public long hitCount() {
+		return hits.sum();
+	}
+
+
+	/**
+	 * @return the number of {@code intern()} calls which did not find a cached string, not including strings longer than the max length
+	 */
+	public long missCount() {
+		return misses.sum();
+	}
+
+
+	/**
+	 * @return the number of cached strings which have been replaced by newer strings
+	 */
+	public long evictionCount() {
+		return evictions.sum();
+	}
+
+
+	/**
+	 * @return the fraction of lookups which were hits, in the range {@code [0, 1]}, 0 if there have been no lookups
+	 */
+	public double hitRate() {
+		long hitCount = hits.sum();
+		long total = hitCount + misses.sum();
+		return total > 0 ? (double)hitCount / total : 0.0;
+	}
+
+
+	/** Remove all cached strings and reset the statistics
+	 */
+	public void clear() {
+		for(int i = 0, n = table.length(); i < n; i++) {
+			table.set(i, null);
+			referenced[i] = 0;
+		}
+		hits.reset();
+		misses.reset();
+		evictions.reset();
+	}
+
+
+	private int setBase(int hash) {
+		// use the high bits of the mixed hash so strings with similar hash codes are spread across sets
+		return ((int)(OffHeapLongHashSet.mix(hash) >>> 32) & setMask) * WAYS;
+	}
+
+
+	private String hit(int slot, String cur) {
+		// avoid writing to the shared array if the entry is already referenced
+		if(referenced[slot] == 0) {
+			referenced[slot] = 1;
+		}
+		hits.increment();
+		return cur;
+	}
+
+
+	/** Store a string in a set, replacing the first empty or unreferenced entry after the set's CLOCK hand.
+	 * If another thread modifies the set concurrently the string may not be stored, which only causes a later miss
+	 */
+	private void insert(int base, String str) {
+		int set = base / WAYS;
+		int hand = hands[set];
+		for(int k = 0; k < WAYS * 2; k++) {
+			int way = (hand + k) & (WAYS - 1);
+			int slot = base + way;
+			String cur = table.get(slot);
+			if(cur != null && referenced[slot] != 0) {
+				// second chance
+				referenced[slot] = 0;
+				continue;
+			}
+			if(table.compareAndSet(slot, cur, str)) {
+				referenced[slot] = 0;
+				hands[set] = (byte)((way + 1) & (WAYS - 1));
+				if(cur != null) {
+					evictions.increment();
+				}
+				return;
+			}
+		}
+	}
+
+
+	private static boolean isAsciiCompatible(Charset cs) {
+		return cs.equals(StandardCharsets.UTF_8) || cs.equals(StandardCharsets.US_ASCII) || cs.equals(StandardCharsets.ISO_8859_1);
+	}
+
+
+	private static boolean contentEquals(String str, CharSequence seq, int start) {
+		for(int i = 0, n = str.length(); i < n; i++) {
+			if(str.charAt(i) != seq.charAt(start + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	private static boolean contentEquals(String str, char[] chars, int off) {
+		for(int i = 0, n = str.length(); i < n; i++) {
+			if(str.charAt(i) != chars[off + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	private static boolean contentEquals(String str, byte[] bytes, int off) {
+		for(int i = 0, n = str.length(); i < n; i++) {
+			if(str.charAt(i) != bytes[off + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
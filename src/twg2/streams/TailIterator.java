@@ -0,0 +1,388 @@
+package twg2.streams;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/** A follow mode ({@code tail -F}) iterator over the lines of a growing file.<br>
+ * The file stays open and is read from where the previous read stopped, so data is never re-read. When no complete line is available,
+ * {@link #hasNext()} waits for the file to change using a {@link WatchService} on the file's directory, with a bounded poll interval
+ * as a fallback for file systems where watch events are slow or unavailable.<br>
+ * If the file is truncated (its size becomes smaller than the current read position), reading restarts from the beginning of the file.
+ * If the file is rotated (the path now refers to a different file), the remainder of the old file is read and then the new file is read
+ * from its beginning. Only complete lines are returned, except for the final unterminated line of a rotated file.<br>
+ * Rotation is detected by comparing {@link BasicFileAttributes#fileKey()}. File systems without file keys (such as Windows) fall back
+ * to comparing the file's creation time (if the file system records one) and checking whether the size of the file at the path is
+ * consistent with the open file. A new file with the same creation time (for example due to NTFS file tunneling) is only detected
+ * once its size differs from the old file's size, so lines written to it before then are read with a delay but are not lost.<br>
+ * The iterator never ends on its own, {@link #hasNext()} blocks until a line is available and returns false once {@link #close()} has been called
+ * (possibly from another thread), use {@link #poll(long, TimeUnit)} to wait for a limited time.<br>
+ * Lines are split on {@code '\n'} bytes, so the charset must be ASCII compatible, see {@link LineIndex}.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class TailIterator implements ClosableIterator<String>, PeekableIterator<String> {
+	public static final long DEFAULT_POLL_MILLIS = 100;
+
+	private final Path file;
+	private final Charset cs;
+	private final long pollNanos;
+	/** null if the file system does not support watching */
+	private final WatchService watcher;
+	private final ByteBuffer buf;
+	private FileChannel channel;
+	/** the file key of the file being read, null if the file system does not provide file keys */
+	private Object fileKey;
+	/** the creation time of the file being read if it has no file key and the file system records creation times, otherwise null */
+	private FileTime creationTime;
+	/** the file offset of the first byte in {@link #buf} */
+	private long bufStart;
+	/** the bytes of the current incomplete line */
+	private byte[] partial;
+	private int partialLen;
+	private String nextLine;
+	/** the file offset following {@link #nextLine} */
+	private long nextLineEnd;
+	/** the file offset following the last line returned by {@link #next()} */
+	private long position;
+	private volatile boolean closed;
+	private volatile Thread waiting;
+
+
+	private TailIterator(Path file, Charset cs, boolean fromEnd, long pollMillis) throws IOException {
+		this.file = file.toAbsolutePath();
+		this.cs = cs;
+		this.pollNanos = TimeUnit.MILLISECONDS.toNanos(pollMillis);
+		this.buf = ByteBuffer.allocate(SpillFile.BUFFER_SIZE);
+		this.buf.limit(0);
+		this.partial = new byte[256];
+		this.channel = FileChannel.open(this.file, StandardOpenOption.READ);
+		setIdentity(Files.readAttributes(this.file, BasicFileAttributes.class));
+		if(fromEnd) {
+			this.bufStart = channel.size();
+			this.position = bufStart;
+			channel.position(bufStart);
+		}
+
+		WatchService watchService = null;
+		try {
+			watchService = this.file.getFileSystem().newWatchService();
+			this.file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+		} catch(IOException | UnsupportedOperationException e) {
+			if(watchService != null) {
+				watchService.close();
+			}
+			watchService = null;
+		}
+		this.watcher = watchService;
+	}
+
+
+	/** Follow a file, waiting for lines to be appended
+	 * @param file the file to follow, it must exist
+	 * @param cs the file's charset
+	 * @param fromEnd true to start at the current end of the file (only returning new lines), false to start at the beginning of the file
+	 * @see #follow(Path, Charset, boolean, long)
+	 */
+	public static TailIterator follow(Path file, Charset cs, boolean fromEnd) throws IOException {
+		return new TailIterator(file, cs, fromEnd, DEFAULT_POLL_MILLIS);
+	}
+
+
+	/** Follow a file, waiting for lines to be appended
+	 * @param file the file to follow, it must exist
+	 * @param cs the file's charset
+	 * @param fromEnd true to start at the current end of the file (only returning new lines), false to start at the beginning of the file
+	 * @param pollMillis the maximum time to wait for a file system change event before checking the file for changes
+	 */
+	public static TailIterator follow(Path file, Charset cs, boolean fromEnd, long pollMillis) throws IOException {
+		if(pollMillis < 1) {
+			throw new IllegalArgumentException("pollMillis must be greater than 0, was: " + pollMillis);
+		}
+		return new TailIterator(file, cs, fromEnd, pollMillis);
+	}
+
+
+	/** Wait until a line is available or this iterator is closed
+	 * @return true if a line is available, false if this iterator has been closed
+	 * @throws CancellationException if the thread is interrupted while waiting
+	 */
+	@Override
+	public boolean hasNext() {
+		return await(Long.MAX_VALUE);
+	}
+
+
+	/** Wait until a line is available or this iterator is closed
+	 * @return the next line, or null if this iterator has been closed
+	 */
+	@Override
+	public String peek() {
+		return await(Long.MAX_VALUE) ? nextLine : null;
+	}
+
+
+	@Override
+	public String next() {
+		if(!await(Long.MAX_VALUE)) {
+			throw new NoSuchElementException();
+		}
+		return take();
+	}
+
+
+	/** Wait up to {@code timeout} for the next line
+	 * @return the next line, or null if no line was available before the timeout or this iterator has been closed
+	 * @throws CancellationException if the thread is interrupted while waiting
+	 */
+	public String poll(long timeout, TimeUnit unit) {
+		long nanos = unit.toNanos(timeout);
+		return await(nanos) ? take() : null;
+	}
+
+
+	/**
+	 * @return the byte offset, in the file currently being read, following the last line returned by {@link #next()}
+	 */
+	public long position() {
+		return position;
+	}
+
+
+	/** Stop following the file and release it, a thread waiting in {@link #hasNext()} returns false
+	 */
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		Thread thread = waiting;
+		if(thread != null) {
+			LockSupport.unpark(thread);
+		}
+		try {
+			if(watcher != null) {
+				watcher.close();
+			}
+		} finally {
+			synchronized(buf) {
+				channel.close();
+			}
+		}
+	}
+
+
+	private String take() {
+		String line = nextLine;
+		nextLine = null;
+		position = nextLineEnd;
+		return line;
+	}
+
+
+	private boolean await(long timeoutNanos) {
+		if(nextLine != null) {
+			return true;
+		}
+		long deadline = timeoutNanos == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + timeoutNanos;
+		try {
+			while(!closed) {
+				synchronized(buf) {
+					if(closed) {
+						break;
+					}
+					if(readLine() || checkReplaced()) {
+						return true;
+					}
+				}
+				long remaining = deadline == Long.MAX_VALUE ? Long.MAX_VALUE : deadline - System.nanoTime();
+				if(remaining <= 0) {
+					return false;
+				}
+				awaitChange(Math.min(remaining, pollNanos));
+			}
+		} catch(IOException e) {
+			if(closed) {
+				return false;
+			}
+			throw new UncheckedIOException(e);
+		}
+		return false;
+	}
+
+
+	/** Read the next complete line from the file into {@link #nextLine}
+	 * @return true if a line was read, false if no complete line is currently available
+	 */
+	private boolean readLine() throws IOException {
+		while(true) {
+			if(!buf.hasRemaining()) {
+				bufStart += buf.limit();
+				buf.clear();
+				int n = channel.read(buf);
+				buf.flip();
+				if(n <= 0) {
+					return false;
+				}
+			}
+			byte[] bytes = buf.array();
+			int start = buf.position();
+			int limit = buf.limit();
+			int i = start;
+			while(i < limit && bytes[i] != '\n') {
+				i++;
+			}
+			boolean found = i < limit;
+			int end = found ? i + 1 : limit;
+			appendPartial(bytes, start, end - start);
+			buf.position(end);
+			if(found) {
+				nextLine = LineIndex.decodeLine(partial, 0, partialLen, cs);
+				nextLineEnd = bufStart + end;
+				partialLen = 0;
+				return true;
+			}
+		}
+	}
+
+
+	/** Check whether the file has been truncated or rotated, called when no more data is available from the current channel
+	 * @return true if a line is available (the unterminated last line of a rotated file)
+	 */
+	private boolean checkReplaced() throws IOException {
+		long readPos = bufStart + buf.limit();
+		long sizeBefore = channel.size();
+		BasicFileAttributes attrs;
+		try {
+			attrs = Files.readAttributes(file, BasicFileAttributes.class);
+		} catch(NoSuchFileException e) {
+			// rotated and the new file has not been created yet
+			return false;
+		}
+		if(isReplaced(attrs, sizeBefore)) {
+			FileChannel newChannel;
+			try {
+				newChannel = FileChannel.open(file, StandardOpenOption.READ);
+			} catch(NoSuchFileException e) {
+				return false;
+			}
+			channel.close();
+			channel = newChannel;
+			setIdentity(attrs);
+			boolean hasLine = partialLen > 0;
+			if(hasLine) {
+				nextLine = LineIndex.decodeLine(partial, 0, partialLen, cs);
+				partialLen = 0;
+			}
+			resetTo(0);
+			return hasLine;
+		}
+		if(channel.size() < readPos) {
+			// truncated, discard the incomplete line and start over
+			partialLen = 0;
+			channel.position(0);
+			resetTo(0);
+		}
+		return false;
+	}
+
+
+	private void resetTo(long offset) {
+		buf.clear();
+		buf.limit(0);
+		bufStart = offset;
+		nextLineEnd = offset;
+		position = offset;
+	}
+
+
+	private void awaitChange(long nanos) {
+		if(Thread.interrupted()) {
+			throw new CancellationException("interrupted while waiting for file changes: " + file);
+		}
+		try {
+			if(watcher != null) {
+				WatchKey key = watcher.poll(nanos, TimeUnit.NANOSECONDS);
+				// drain all pending keys, any change is a reason to re-check the file
+				while(key != null) {
+					key.pollEvents();
+					key.reset();
+					key = watcher.poll();
+				}
+			}
+			else {
+				waiting = Thread.currentThread();
+				if(!closed) {
+					LockSupport.parkNanos(this, nanos);
+				}
+				waiting = null;
+				if(Thread.interrupted()) {
+					throw new CancellationException("interrupted while waiting for file changes: " + file);
+				}
+			}
+		} catch(ClosedWatchServiceException e) {
+			// closed by close()
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException("interrupted while waiting for file changes: " + file);
+		}
+	}
+
+
+	private void appendPartial(byte[] bytes, int off, int len) {
+		if(partialLen + len > partial.length) {
+			partial = Arrays.copyOf(partial, Math.max(partialLen + len, partial.length * 2));
+		}
+		System.arraycopy(bytes, off, partial, partialLen, len);
+		partialLen += len;
+	}
+
+
+	/**
+	 * @param attrs the current attributes of the file at {@link #file}
+	 * @param sizeBefore the size of the open file before {@code attrs} were read
+	 * @return true if {@link #file} refers to a different file than the one being read
+	 */
+	private boolean isReplaced(BasicFileAttributes attrs, long sizeBefore) throws IOException {
+		Object curKey = attrs.fileKey();
+		if(fileKey != null && curKey != null) {
+			return !fileKey.equals(curKey);
+		}
+		// no file keys (e.g. Windows)
+		if(creationTime != null && !creationTime.equals(attrs.creationTime())) {
+			return true;
+		}
+		long sizeAfter = channel.size();
+		if(sizeAfter < sizeBefore) {
+			// the open file itself was truncated, handled as a truncation
+			return false;
+		}
+		// while the open file is appended to its size only grows, so if the file at the path is the same file
+		// its size must be within the sizes of the open file before and after the attributes were read
+		return attrs.size() < sizeBefore || attrs.size() > sizeAfter;
+	}
+
+
+	private void setIdentity(BasicFileAttributes attrs) {
+		this.fileKey = attrs.fileKey();
+		// file systems which do not record creation times typically return the last modified time, which changes as the file is appended to
+		FileTime created = attrs.creationTime();
+		this.creationTime = fileKey == null && !created.equals(attrs.lastModifiedTime()) ? created : null;
+	}
+
+}
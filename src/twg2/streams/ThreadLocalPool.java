@@ -0,0 +1,73 @@
+package twg2.streams;
+
+import java.util.function.Supplier;
+
+/** A small per-thread pool of reusable objects. Objects leased on one thread may be released on any thread, they are
+ * added to the releasing thread's pool. Each thread keeps at most {@code maxPerThread} objects, extras are left for the garbage collector.
+ * @param <T> the data type of the pooled objects
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+final class ThreadLocalPool<T> {
+	static final int DEFAULT_MAX_PER_THREAD = 16;
+
+	private final Supplier<? extends T> factory;
+	private final int maxPerThread;
+	private final ThreadLocal<Slots> slots;
+
+
+	/**
+	 * @param factory creates a new object when the current thread's pool is empty
+	 * @param maxPerThread the maximum number of idle objects kept by each thread
+	 */
+	ThreadLocalPool(Supplier<? extends T> factory, int maxPerThread) {
+		if(maxPerThread < 1) {
+			throw new IllegalArgumentException("maxPerThread must be greater than 0, was: " + maxPerThread);
+		}
+		this.factory = factory;
+		this.maxPerThread = maxPerThread;
+		this.slots = ThreadLocal.withInitial(() -> new Slots(maxPerThread));
+	}
+
+
+	/**
+	 * @return an idle object from the current thread's pool, or a new object if the pool is empty
+	 */
+	@SuppressWarnings("unchecked")
+	public T lease() {
+		Slots s = slots.get();
+		if(s.size > 0) {
+			int idx = --s.size;
+			T obj = (T)s.items[idx];
+			s.items[idx] = null;
+			return obj;
+		}
+		return factory.get();
+	}
+
+
+	/** Return an object to the current thread's pool, the caller must have reset the object and must not use it afterward
+	 * @return true if the object was added to the pool, false if the pool is full
+	 */
+	public boolean release(T obj) {
+		Slots s = slots.get();
+		if(s.size < maxPerThread) {
+			s.items[s.size++] = obj;
+			return true;
+		}
+		return false;
+	}
+
+
+
+
+	private static final class Slots {
+		final Object[] items;
+		int size;
+
+		Slots(int capacity) {
+			this.items = new Object[capacity];
+		}
+	}
+
+}
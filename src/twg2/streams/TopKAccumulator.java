@@ -0,0 +1,105 @@
+package twg2.streams;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/** Keeps the {@code k} greatest elements seen so far according to a {@link Comparator} in a bounded binary min-heap,
+ * so each element costs at most O(log k) and memory is O(min(k, n)) for n elements, the heap grows as elements are added.
+ * @param <T> the data type of the elements
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @see StreamUtil#topK(int, Comparator)
+ */
+final class TopKAccumulator<T> {
+	private final int k;
+	private final Comparator<? super T> comparator;
+	/** a min-heap, the smallest of the retained elements is at index 0, grown as needed up to {@code k} elements */
+	private Object[] heap;
+	private int size;
+
+
+	TopKAccumulator(int k, Comparator<? super T> comparator) {
+		if(k < 0) {
+			throw new IllegalArgumentException("k must not be negative, was: " + k);
+		}
+		this.k = k;
+		this.comparator = comparator;
+		this.heap = new Object[Math.min(k, 16)];
+	}
+
+
+	public void add(T elem) {
+		if(size < k) {
+			if(size == heap.length) {
+				heap = Arrays.copyOf(heap, (int)Math.min(k, Math.max(16L, (long)heap.length * 2)));
+			}
+			heap[size] = elem;
+			siftUp(size++);
+		}
+		else if(k > 0 && comparator.compare(elem, elemAt(0)) > 0) {
+			heap[0] = elem;
+			siftDown(0);
+		}
+	}
+
+
+	public TopKAccumulator<T> combine(TopKAccumulator<T> other) {
+		for(int i = 0; i < other.size; i++) {
+			add(other.elemAt(i));
+		}
+		return this;
+	}
+
+
+	/**
+	 * @return the retained elements, greatest first
+	 */
+	@SuppressWarnings("unchecked")
+	public List<T> toList() {
+		T[] res = (T[])Arrays.copyOf(heap, size);
+		Arrays.sort(res, comparator.reversed());
+		return new ArrayList<>(Arrays.asList(res));
+	}
+
+
+	@SuppressWarnings("unchecked")
+	private T elemAt(int i) {
+		return (T)heap[i];
+	}
+
+
+	private void siftUp(int i) {
+		Object elem = heap[i];
+		while(i > 0) {
+			int parent = (i - 1) >>> 1;
+			if(comparator.compare(elemAt(parent), elemAt(i)) <= 0) {
+				break;
+			}
+			heap[i] = heap[parent];
+			heap[parent] = elem;
+			i = parent;
+		}
+	}
+
+
+	private void siftDown(int i) {
+		Object elem = heap[i];
+		int half = size >>> 1;
+		while(i < half) {
+			int child = (i << 1) + 1;
+			int right = child + 1;
+			if(right < size && comparator.compare(elemAt(right), elemAt(child)) < 0) {
+				child = right;
+			}
+			if(comparator.compare(elemAt(i), elemAt(child)) <= 0) {
+				break;
+			}
+			heap[i] = heap[child];
+			heap[child] = elem;
+			i = child;
+		}
+	}
+
+}
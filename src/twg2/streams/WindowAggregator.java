@@ -0,0 +1,42 @@
+package twg2.streams;
+
+import java.util.function.Consumer;
+
+/** Callbacks invoked as elements enter and leave a window, used to maintain incremental aggregates
+ * (such as rolling sums or averages) in O(1) per element instead of recomputing them over the whole window.
+ * @param <T> the data type of the elements
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ * @see WindowIterator
+ */
+public interface WindowAggregator<T> {
+
+	/** Called when an element is added to the window
+	 */
+	public void add(T elem);
+
+
+	/** Called when an element is removed from the window
+	 */
+	public void evict(T elem);
+
+
+	/** Create a window aggregator from two functions
+	 * @param add called when an element is added to the window
+	 * @param evict called when an element is removed from the window
+	 */
+	public static <T> WindowAggregator<T> of(Consumer<? super T> add, Consumer<? super T> evict) {
+		return new WindowAggregator<T>() {
+			@Override
+			public void add(T elem) {
+				add.accept(elem);
+			}
+
+			@Override
+			public void evict(T elem) {
+				evict.accept(elem);
+			}
+		};
+	}
+
+}
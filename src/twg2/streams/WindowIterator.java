@@ -0,0 +1,239 @@
+package twg2.streams;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.ToLongFunction;
+
+/** Groups the elements of a {@link PeekableIterator} into sliding or tumbling windows, based on either element counts or a
+ * numeric key (such as a timestamp) extracted from each element.<br>
+ * Windows are backed by a single reusable {@link RingBuffer} and each window is returned as a read-only {@link List} view of that buffer,
+ * so no list is copied per window. The returned view is only valid until the next call to {@link #hasNext()}, {@link #peek()} or {@link #next()},
+ * copy it if it must be retained.<br>
+ * An optional {@link WindowAggregator} is notified as elements enter and leave the window, so rolling aggregates cost O(1) per element.
+ * @param <T> the data type of the elements
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class WindowIterator<T> implements ClosableIterator<List<T>>, PeekableIterator<List<T>> {
+	private enum Mode { COUNT, KEY_SLIDING, KEY_TUMBLING }
+
+	private final PeekableIterator<? extends T> source;
+	private final Mode mode;
+	private final int size;
+	private final int step;
+	private final boolean emitPartial;
+	private final ToLongFunction<? super T> keyFunc;
+	private final long length;
+	private final WindowAggregator<? super T> aggregator;
+	private final RingBuffer<T> buffer;
+	private boolean started;
+	/** true if the buffer contains a window which has not been returned by {@link #next()} */
+	private boolean ready;
+	private boolean ended;
+
+
+	private WindowIterator(PeekableIterator<? extends T> source, Mode mode, int size, int step, boolean emitPartial,
+			ToLongFunction<? super T> keyFunc, long length, WindowAggregator<? super T> aggregator) {
+		this.source = source;
+		this.mode = mode;
+		this.size = size;
+		this.step = step;
+		this.emitPartial = emitPartial;
+		this.keyFunc = keyFunc;
+		this.length = length;
+		this.aggregator = aggregator;
+		this.buffer = new RingBuffer<>(mode == Mode.COUNT ? size : 16);
+	}
+
+
+	/** Create count based windows of {@code size} elements which advance by {@code step} elements.
+	 * {@code step < size} creates overlapping (sliding) windows, {@code step == size} creates tumbling windows, and {@code step > size} skips elements between windows.
+	 * @param source the source elements
+	 * @param size the number of elements in each window
+	 * @param step the number of elements each window advances by
+	 * @param emitPartial true to return a final window with fewer than {@code size} elements when the source ends
+	 * @param aggregator optional callbacks notified as elements enter and leave the window, can be null
+	 */
+	public static <T> WindowIterator<T> ofCount(PeekableIterator<? extends T> source, int size, int step, boolean emitPartial, WindowAggregator<? super T> aggregator) {
+		if(size < 1) {
+			throw new IllegalArgumentException("size must be greater than 0, was: " + size);
+		}
+		if(step < 1) {
+			throw new IllegalArgumentException("step must be greater than 0, was: " + step);
+		}
+		return new WindowIterator<>(source, Mode.COUNT, size, step, emitPartial, null, 0, aggregator);
+	}
+
+
+	/** Create sliding windows of {@code size} elements which advance one element at a time
+	 * @see #ofCount(PeekableIterator, int, int, boolean, WindowAggregator)
+	 */
+	public static <T> WindowIterator<T> sliding(PeekableIterator<? extends T> source, int size, WindowAggregator<? super T> aggregator) {
+		return ofCount(source, size, 1, false, aggregator);
+	}
+
+
+	/** Create non-overlapping windows of {@code size} elements, the last window may contain fewer than {@code size} elements
+	 * @see #ofCount(PeekableIterator, int, int, boolean, WindowAggregator)
+	 */
+	public static <T> WindowIterator<T> tumbling(PeekableIterator<? extends T> source, int size, WindowAggregator<? super T> aggregator) {
+		return ofCount(source, size, size, true, aggregator);
+	}
+
+
+	/** Create key based sliding windows, one window ending at each source element containing the preceding elements
+	 * whose keys are within {@code length} of that element's key (i.e. keys in the range {@code (key - length, key]}).
+	 * Keys must be non-decreasing.
+	 * @param source the source elements
+	 * @param keyFunc the function which returns each element's key, such as a timestamp
+	 * @param length the key range covered by each window
+	 * @param aggregator optional callbacks notified as elements enter and leave the window, can be null
+	 */
+	public static <T> WindowIterator<T> slidingByKey(PeekableIterator<? extends T> source, ToLongFunction<? super T> keyFunc, long length, WindowAggregator<? super T> aggregator) {
+		if(length < 1) {
+			throw new IllegalArgumentException("length must be greater than 0, was: " + length);
+		}
+		return new WindowIterator<>(source, Mode.KEY_SLIDING, 0, 0, false, keyFunc, length, aggregator);
+	}
+
+
+	/** Create key based tumbling windows, each window contains the consecutive elements whose keys fall in the same
+	 * range {@code [n * length, (n + 1) * length)}. Empty ranges do not produce windows. Keys must be non-decreasing.
+	 * @param source the source elements
+	 * @param keyFunc the function which returns each element's key, such as a timestamp
+	 * @param length the key range covered by each window
+	 * @param aggregator optional callbacks notified as elements enter and leave the window, can be null
+	 */
+	public static <T> WindowIterator<T> tumblingByKey(PeekableIterator<? extends T> source, ToLongFunction<? super T> keyFunc, long length, WindowAggregator<? super T> aggregator) {
+		if(length < 1) {
+			throw new IllegalArgumentException("length must be greater than 0, was: " + length);
+		}
+		return new WindowIterator<>(source, Mode.KEY_TUMBLING, 0, 0, false, keyFunc, length, aggregator);
+	}
+
+
+	@Override
+	public boolean hasNext() {
+		return advance();
+	}
+
+
+	/**
+	 * @return a view of the next window, null if there are no more windows
+	 */
+	@Override
+	public List<T> peek() {
+		return advance() ? buffer.asList() : null;
+	}
+
+
+	/**
+	 * @return a read-only view of the next window, only valid until the next call to this iterator
+	 */
+	@Override
+	public List<T> next() {
+		if(!advance()) {
+			throw new NoSuchElementException();
+		}
+		ready = false;
+		return buffer.asList();
+	}
+
+
+	@Override
+	public void close() throws Exception {
+		if(source instanceof AutoCloseable) {
+			((AutoCloseable)source).close();
+		}
+	}
+
+
+	private boolean advance() {
+		if(ready) {
+			return true;
+		}
+		if(ended) {
+			return false;
+		}
+		switch(mode) {
+		case COUNT:
+			ready = advanceCount();
+			break;
+		case KEY_SLIDING:
+			ready = advanceKeySliding();
+			break;
+		case KEY_TUMBLING:
+			ready = advanceKeyTumbling();
+			break;
+		default:
+			throw new IllegalStateException("unknown window mode " + mode);
+		}
+		started = true;
+		ended = !ready;
+		return ready;
+	}
+
+
+	private boolean advanceCount() {
+		if(started) {
+			for(int i = 0, n = Math.min(step, buffer.size()); i < n; i++) {
+				evictFirst();
+			}
+			for(int i = size; i < step && source.hasNext(); i++) {
+				source.next();
+			}
+		}
+		int added = 0;
+		while(buffer.size() < size && source.hasNext()) {
+			addLast(source.next());
+			added++;
+		}
+		return buffer.size() == size || (emitPartial && added > 0);
+	}
+
+
+	private boolean advanceKeySliding() {
+		if(!source.hasNext()) {
+			return false;
+		}
+		T elem = source.next();
+		long minKey = keyFunc.applyAsLong(elem) - length;
+		while(!buffer.isEmpty() && keyFunc.applyAsLong(buffer.peekFirst()) <= minKey) {
+			evictFirst();
+		}
+		addLast(elem);
+		return true;
+	}
+
+
+	private boolean advanceKeyTumbling() {
+		while(!buffer.isEmpty()) {
+			evictFirst();
+		}
+		if(!source.hasNext()) {
+			return false;
+		}
+		long windowId = Math.floorDiv(keyFunc.applyAsLong(source.peek()), length);
+		do {
+			addLast(source.next());
+		} while(source.hasNext() && Math.floorDiv(keyFunc.applyAsLong(source.peek()), length) == windowId);
+		return true;
+	}
+
+
+	private void addLast(T elem) {
+		buffer.add(elem);
+		if(aggregator != null) {
+			aggregator.add(elem);
+		}
+	}
+
+
+	private void evictFirst() {
+		T elem = buffer.removeFirst();
+		if(aggregator != null) {
+			aggregator.evict(elem);
+		}
+	}
+
+}
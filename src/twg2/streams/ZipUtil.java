@@ -0,0 +1,313 @@
+package twg2.streams;
+
+/** Zipped (pairwise) operations and reductions over two primitive arrays, without boxing.
+ * Like {@link StreamUtil#forEachPair(int[], int[], IntIntConsumer)}, all methods stop at the end of the shorter input array.<br>
+ * The loops are simple counted loops over arrays which the JIT compiler can auto-vectorize (SIMD), reductions use several
+ * independent accumulators to avoid a serial dependency between iterations. Because of this, {@code double} reductions
+ * may differ from a strictly sequential sum in the last bits.<br>
+ * Integer arithmetic wraps on overflow like the Java {@code +}, {@code -}, and {@code *} operators, no method throws {@link ArithmeticException}
+ * (checked arithmetic would prevent vectorization). Only the {@code int} differences are computed as {@code long} values which can not overflow,
+ * callers of the other methods must check their inputs' range if overflow is possible.
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class ZipUtil {
+
+	private ZipUtil() { throw new AssertionError("cannot instantiate static class ZipUtil"); }
+
+
+	/** The dot product (sum of pairwise products) of two arrays, stops at the end of the shorter array
+	 */
+	public static long dot(int[] a, int[] b) {
+		int size = Math.min(a.length, b.length);
+		int i = 0;
+		long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		for(int end = size - 3; i < end; i += 4) {
+			s0 += (long)a[i] * b[i];
+			s1 += (long)a[i + 1] * b[i + 1];
+			s2 += (long)a[i + 2] * b[i + 2];
+			s3 += (long)a[i + 3] * b[i + 3];
+		}
+		for(; i < size; i++) {
+			s0 += (long)a[i] * b[i];
+		}
+		return (s0 + s1) + (s2 + s3);
+	}
+
+
+	/** Store the pairwise sums {@code a[i] + b[i]} in {@code dst}, stops at the end of the shorter array
+	 * @return {@code dst}
+	 */
+	public static int[] add(int[] a, int[] b, int[] dst) {
+		int size = checkLengths(a.length, b.length, dst.length);
+		for(int i = 0; i < size; i++) {
+			dst[i] = a[i] + b[i];
+		}
+		return dst;
+	}
+
+
+	/** Store the pairwise minimums {@code min(a[i], b[i])} in {@code dst}, stops at the end of the shorter array
+	 * @return {@code dst}
+	 */
+	public static int[] min(int[] a, int[] b, int[] dst) {
+		int size = checkLengths(a.length, b.length, dst.length);
+		for(int i = 0; i < size; i++) {
+			dst[i] = Math.min(a[i], b[i]);
+		}
+		return dst;
+	}
+
+
+	/** Store the pairwise maximums {@code max(a[i], b[i])} in {@code dst}, stops at the end of the shorter array
+	 * @return {@code dst}
+	 */
+	public static int[] max(int[] a, int[] b, int[] dst) {
+		int size = checkLengths(a.length, b.length, dst.length);
+		for(int i = 0; i < size; i++) {
+			dst[i] = Math.max(a[i], b[i]);
+		}
+		return dst;
+	}
+
+
+	/** The smallest pairwise difference {@code a[i] - b[i]} of two arrays, stops at the end of the shorter array.
+	 * The differences are computed as {@code long} values, so they cannot overflow
+	 * @throws IllegalArgumentException if either array is empty
+	 */
+	public static long minDifference(int[] a, int[] b) {
+		int size = checkNotEmpty(a.length, b.length);
+		long m0 = (long)a[0] - b[0], m1 = m0;
+		int i = 1;
+		for(int end = size - 1; i < end; i += 2) {
+			m0 = Math.min(m0, (long)a[i] - b[i]);
+			m1 = Math.min(m1, (long)a[i + 1] - b[i + 1]);
+		}
+		for(; i < size; i++) {
+			m0 = Math.min(m0, (long)a[i] - b[i]);
+		}
+		return Math.min(m0, m1);
+	}
+
+
+	/** The largest pairwise difference {@code a[i] - b[i]} of two arrays, stops at the end of the shorter array.
+	 * The differences are computed as {@code long} values, so they cannot overflow
+	 * @throws IllegalArgumentException if either array is empty
+	 */
+	public static long maxDifference(int[] a, int[] b) {
+		int size = checkNotEmpty(a.length, b.length);
+		long m0 = (long)a[0] - b[0], m1 = m0;
+		int i = 1;
+		for(int end = size - 1; i < end; i += 2) {
+			m0 = Math.max(m0, (long)a[i] - b[i]);
+			m1 = Math.max(m1, (long)a[i + 1] - b[i + 1]);
+		}
+		for(; i < size; i++) {
+			m0 = Math.max(m0, (long)a[i] - b[i]);
+		}
+		return Math.max(m0, m1);
+	}
+
+
+	/** The dot product (sum of pairwise products) of two arrays, stops at the end of the shorter array
+	 */
+	public static long dot(long[] a, long[] b) {
+		int size = Math.min(a.length, b.length);
+		int i = 0;
+		long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		for(int end = size - 3; i < end; i += 4) {
+			s0 += a[i] * b[i];
+			s1 += a[i + 1] * b[i + 1];
+			s2 += a[i + 2] * b[i + 2];
+			s3 += a[i + 3] * b[i + 3];
+		}
+		for(; i < size; i++) {
+			s0 += a[i] * b[i];
+		}
+		return (s0 + s1) + (s2 + s3);
+	}
+
+
+	/** Store the pairwise sums {@code a[i] + b[i]} in {@code dst}, stops at the end of the shorter array
+	 * @return {@code dst}
+	 */
+	public static long[] add(long[] a, long[] b, long[] dst) {
+		int size = checkLengths(a.length, b.length, dst.length);
+		for(int i = 0; i < size; i++) {
+			dst[i] = a[i] + b[i];
+		}
+		return dst;
+	}
+
+
+	/** Store the pairwise minimums {@code min(a[i], b[i])} in {@code dst}, stops at the end of the shorter array
+	 * @return {@code dst}
+	 */
+	public static long[] min(long[] a, long[] b, long[] dst) {
+		int size = checkLengths(a.length, b.length, dst.length);
+		for(int i = 0; i < size; i++) {
+			dst[i] = Math.min(a[i], b[i]);
+		}
+		return dst;
+	}
+
+
+	/** Store the pairwise maximums {@code max(a[i], b[i])} in {@code dst}, stops at the end of the shorter array
+	 * @return {@code dst}
+	 */
+	public static long[] max(long[] a, long[] b, long[] dst) {
+		int size = checkLengths(a.length, b.length, dst.length);
+		for(int i = 0; i < size; i++) {
+			dst[i] = Math.max(a[i], b[i]);
+		}
+		return dst;
+	}
+
+
+	/** The smallest pairwise difference {@code a[i] - b[i]} of two arrays, stops at the end of the shorter array
+	 * @throws IllegalArgumentException if either array is empty
+	 * A difference which overflows a {@code long} wraps, see the class documentation
+	 */
+	public static long minDifference(long[] a, long[] b) {
+		int size = checkNotEmpty(a.length, b.length);
+		long m0 = a[0] - b[0], m1 = m0;
+		int i = 1;
+		for(int end = size - 1; i < end; i += 2) {
+			m0 = Math.min(m0, a[i] - b[i]);
+			m1 = Math.min(m1, a[i + 1] - b[i + 1]);
+		}
+		for(; i < size; i++) {
+			m0 = Math.min(m0, a[i] - b[i]);
+		}
+		return Math.min(m0, m1);
+	}
+
+
+	/** The largest pairwise difference {@code a[i] - b[i]} of two arrays, stops at the end of the shorter array
+	 * @throws IllegalArgumentException if either array is empty
+	 * A difference which overflows a {@code long} wraps, see the class documentation
+	 */
+	public static long maxDifference(long[] a, long[] b) {
+		int size = checkNotEmpty(a.length, b.length);
+		long m0 = a[0] - b[0], m1 = m0;
+		int i = 1;
+		for(int end = size - 1; i < end; i += 2) {
+			m0 = Math.max(m0, a[i] - b[i]);
+			m1 = Math.max(m1, a[i + 1] - b[i + 1]);
+		}
+		for(; i < size; i++) {
+			m0 = Math.max(m0, a[i] - b[i]);
+		}
+		return Math.max(m0, m1);
+	}
+
+
+	/** The dot product (sum of pairwise products) of two arrays, stops at the end of the shorter array
+	 */
+	public static double dot(double[] a, double[] b) {
+		int size = Math.min(a.length, b.length);
+		int i = 0;
+		double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		for(int end = size - 3; i < end; i += 4) {
+			s0 += a[i] * b[i];
+			s1 += a[i + 1] * b[i + 1];
+			s2 += a[i + 2] * b[i + 2];
+			s3 += a[i + 3] * b[i + 3];
+		}
+		for(; i < size; i++) {
+			s0 += a[i] * b[i];
+		}
+		return (s0 + s1) + (s2 + s3);
+	}
+
+
+	/** Store the pairwise sums {@code a[i] + b[i]} in {@code dst}, stops at the end of the shorter array
+	 * @return {@code dst}
+	 */
+	public static double[] add(double[] a, double[] b, double[] dst) {
+		int size = checkLengths(a.length, b.length, dst.length);
+		for(int i = 0; i < size; i++) {
+			dst[i] = a[i] + b[i];
+		}
+		return dst;
+	}
+
+
+	/** Store the pairwise minimums {@code min(a[i], b[i])} in {@code dst}, stops at the end of the shorter array
+	 * @return {@code dst}
+	 */
+	public static double[] min(double[] a, double[] b, double[] dst) {
+		int size = checkLengths(a.length, b.length, dst.length);
+		for(int i = 0; i < size; i++) {
+			dst[i] = Math.min(a[i], b[i]);
+		}
+		return dst;
+	}
+
+
+	/** Store the pairwise maximums {@code max(a[i], b[i])} in {@code dst}, stops at the end of the shorter array
+	 * @return {@code dst}
+	 */
+	public static double[] max(double[] a, double[] b, double[] dst) {
+		int size = checkLengths(a.length, b.length, dst.length);
+		for(int i = 0; i < size; i++) {
+			dst[i] = Math.max(a[i], b[i]);
+		}
+		return dst;
+	}
+
+
+	/** The smallest pairwise difference {@code a[i] - b[i]} of two arrays, stops at the end of the shorter array
+	 * @throws IllegalArgumentException if either array is empty
+	 */
+	public static double minDifference(double[] a, double[] b) {
+		int size = checkNotEmpty(a.length, b.length);
+		double m0 = a[0] - b[0], m1 = m0;
+		int i = 1;
+		for(int end = size - 1; i < end; i += 2) {
+			m0 = Math.min(m0, a[i] - b[i]);
+			m1 = Math.min(m1, a[i + 1] - b[i + 1]);
+		}
+		for(; i < size; i++) {
+			m0 = Math.min(m0, a[i] - b[i]);
+		}
+		return Math.min(m0, m1);
+	}
+
+
+	/** The largest pairwise difference {@code a[i] - b[i]} of two arrays, stops at the end of the shorter array
+	 * @throws IllegalArgumentException if either array is empty
+	 */
+	public static double maxDifference(double[] a, double[] b) {
+		int size = checkNotEmpty(a.length, b.length);
+		double m0 = a[0] - b[0], m1 = m0;
+		int i = 1;
+		for(int end = size - 1; i < end; i += 2) {
+			m0 = Math.max(m0, a[i] - b[i]);
+			m1 = Math.max(m1, a[i + 1] - b[i + 1]);
+		}
+		for(; i < size; i++) {
+			m0 = Math.max(m0, a[i] - b[i]);
+		}
+		return Math.max(m0, m1);
+	}
+
+
+	private static int checkLengths(int aLen, int bLen, int dstLen) {
+		int size = Math.min(aLen, bLen);
+		if(dstLen < size) {
+			throw new IndexOutOfBoundsException("destination array length " + dstLen + " is less than the input length " + size);
+		}
+		return size;
+	}
+
+
+	private static int checkNotEmpty(int aLen, int bLen) {
+		int size = Math.min(aLen, bLen);
+		if(size == 0) {
+			throw new IllegalArgumentException("cannot reduce empty arrays");
+		}
+		return size;
+	}
+
+}
@@ -0,0 +1,118 @@
+package twg2.streams.test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import twg2.junitassist.checks.CheckTask;
+import twg2.streams.CachingIterable;
+import twg2.streams.ElementSerializer;
+
+/**
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class CachingIterableTest {
+
+	@Test
+	public void interleavedReaders() throws Exception {
+		AtomicInteger reads = new AtomicInteger();
+		Iterator<Integer> src = IntStream.range(0, 100).peek((i) -> reads.incrementAndGet()).iterator();
+		try(CachingIterable<Integer> iterable = new CachingIterable<>(src, 8, 1000, null, null)) {
+			Iterator<Integer> a = iterable.iterator();
+			Iterator<Integer> b = iterable.iterator();
+			List<Integer> resA = new ArrayList<>();
+			List<Integer> resB = new ArrayList<>();
+			while(a.hasNext() || b.hasNext()) {
+				if(a.hasNext()) resA.add(a.next());
+				if(a.hasNext()) resA.add(a.next());
+				if(b.hasNext()) resB.add(b.next());
+			}
+			List<Integer> expected = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+			Assert.assertEquals(expected, resA);
+			Assert.assertEquals(expected, resB);
+
+			List<Integer> resC = new ArrayList<>();
+			iterable.forEach(resC::add);
+			Assert.assertEquals(expected, resC);
+			Assert.assertEquals(100, reads.get());
+			Assert.assertTrue(iterable.isFullyCached());
+		}
+	}
+
+
+	@Test
+	public void concurrentReaders() throws Exception {
+		AtomicInteger reads = new AtomicInteger();
+		Iterator<Integer> src = IntStream.range(0, 50_000).peek((i) -> reads.incrementAndGet()).iterator();
+		try(CachingIterable<Integer> iterable = new CachingIterable<>(src)) {
+			List<Thread> threads = new ArrayList<>();
+			AtomicInteger errors = new AtomicInteger();
+			for(int t = 0; t < 4; t++) {
+				Thread thread = new Thread(() -> {
+					int expected = 0;
+					for(Integer i : iterable) {
+						if(i != expected++) {
+							errors.incrementAndGet();
+						}
+					}
+					if(expected != 50_000) {
+						errors.incrementAndGet();
+					}
+				});
+				threads.add(thread);
+				thread.start();
+			}
+			for(Thread thread : threads) {
+				thread.join();
+			}
+			Assert.assertEquals(0, errors.get());
+			Assert.assertEquals(50_000, reads.get());
+		}
+	}
+
+
+	@Test
+	public void spillToDisk() throws Exception {
+		Path tempDir = Files.createTempDirectory("caching-iterable-test");
+		try {
+			List<String> expected = IntStream.range(0, 1000).mapToObj((i) -> "line " + i).collect(Collectors.toList());
+			try(CachingIterable<String> iterable = new CachingIterable<>(expected.iterator(), 16, 64, ElementSerializer.UTF8_STRING, tempDir)) {
+				for(int pass = 0; pass < 3; pass++) {
+					List<String> res = new ArrayList<>();
+					iterable.forEach(res::add);
+					Assert.assertEquals(expected, res);
+				}
+				try(Stream<Path> files = Files.list(tempDir)) {
+					Assert.assertEquals(1, files.count());
+				}
+			}
+			try(Stream<Path> files = Files.list(tempDir)) {
+				Assert.assertEquals(0, files.count());
+			}
+		} finally {
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+
+	@Test
+	public void memoryLimit() {
+		CachingIterable<Integer> iterable = new CachingIterable<>(IntStream.range(0, 100).iterator(), 10, 20, null, null);
+		Iterator<Integer> iter = iterable.iterator();
+		for(int i = 0; i < 20; i++) {
+			iter.next();
+		}
+		CheckTask.assertException(() -> iter.next());
+	}
+
+}
@@ -0,0 +1,82 @@
+package twg2.streams.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import twg2.streams.ConcurrentEnhancedIterator;
+
+/**
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class ConcurrentEnhancedIteratorTest {
+
+	@Test
+	public void batches() {
+		List<Integer> src = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+		ConcurrentEnhancedIterator<Integer> iter = new ConcurrentEnhancedIterator<>(src.iterator(), 4);
+
+		ConcurrentEnhancedIterator.Batch<Integer> batch = iter.nextBatch();
+		Assert.assertEquals(4, batch.size());
+		Assert.assertEquals(0, batch.startIndex());
+		Assert.assertEquals(-1, batch.previousIndex());
+		Assert.assertEquals(Integer.valueOf(0), batch.peek());
+		Assert.assertEquals(Integer.valueOf(0), batch.next());
+		Assert.assertEquals(0, batch.previousIndex());
+
+		batch = iter.nextBatch();
+		Assert.assertEquals(4, batch.startIndex());
+		Assert.assertEquals(Integer.valueOf(7), batch.get(3));
+
+		batch = iter.nextBatch();
+		Assert.assertEquals(2, batch.size());
+		Assert.assertEquals(8, batch.nextIndex());
+		Assert.assertTrue(iter.isEnded());
+		Assert.assertNull(iter.nextBatch());
+	}
+
+
+	@Test
+	public void multipleConsumers() throws InterruptedException {
+		int count = 100_000;
+		List<Integer> src = IntStream.range(0, count).boxed().collect(Collectors.toList());
+		ConcurrentEnhancedIterator<Integer> iter = new ConcurrentEnhancedIterator<>(src.iterator(), 64);
+		AtomicIntegerArray seen = new AtomicIntegerArray(count);
+		AtomicInteger misnumbered = new AtomicInteger();
+
+		List<Thread> workers = new ArrayList<>();
+		for(int i = 0; i < 4; i++) {
+			Thread worker = new Thread(() -> {
+				ConcurrentEnhancedIterator.Batch<Integer> batch;
+				while((batch = iter.nextBatch()) != null) {
+					while(batch.hasNext()) {
+						int val = batch.next();
+						// sequence numbers match the source order
+						if(val != batch.previousIndex()) {
+							misnumbered.incrementAndGet();
+						}
+						seen.incrementAndGet(val);
+					}
+				}
+			});
+			workers.add(worker);
+			worker.start();
+		}
+		for(Thread worker : workers) {
+			worker.join();
+		}
+
+		Assert.assertEquals(0, misnumbered.get());
+		for(int i = 0; i < count; i++) {
+			Assert.assertEquals(1, seen.get(i));
+		}
+	}
+
+}
@@ -0,0 +1,135 @@
+package twg2.streams.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import twg2.junitassist.checks.CheckTask;
+import twg2.streams.ConcurrentMapIterator;
+import twg2.streams.StreamUtil;
+
+/**
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class ConcurrentMapIteratorTest {
+
+	@Test
+	public void orderedResults() throws Exception {
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+
+		List<Integer> res = new ArrayList<>();
+		try(ConcurrentMapIterator<Integer, Integer> iter = StreamUtil.mapConcurrent(IntStream.range(0, 50).boxed(), (i) -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			sleep((i * 7) % 5);
+			running.decrementAndGet();
+			return i * 2;
+		}, 4)) {
+			Assert.assertEquals(Integer.valueOf(0), iter.peek());
+			while(iter.hasNext()) {
+				res.add(iter.next());
+			}
+			Assert.assertNull(iter.peek());
+		}
+
+		Assert.assertEquals(50, res.size());
+		for(int i = 0; i < 50; i++) {
+			Assert.assertEquals(Integer.valueOf(i * 2), res.get(i));
+		}
+		Assert.assertTrue(maxRunning.get() <= 4);
+	}
+
+
+	@Test
+	public void failureIsPrompt() throws Exception {
+		ExecutorService exec = Executors.newFixedThreadPool(4);
+		CountDownLatch neverReleased = new CountDownLatch(1);
+		try(ConcurrentMapIterator<Integer, Integer> iter = StreamUtil.mapConcurrent(IntStream.range(0, 10).boxed().iterator(), (i) -> {
+			if(i == 0) {
+				// the first element blocks until cancelled, the failure of the second element must still be reported
+				try {
+					neverReleased.await();
+				} catch(InterruptedException e) {
+					throw new IllegalStateException("cancelled");
+				}
+			}
+			if(i == 1) {
+				throw new IllegalArgumentException("bad element");
+			}
+			return i;
+		}, 4, exec)) {
+			try {
+				iter.next();
+				Assert.fail("expected failure");
+			} catch(IllegalArgumentException e) {
+				Assert.assertEquals("bad element", e.getMessage());
+			}
+		} finally {
+			exec.shutdown();
+			Assert.assertTrue(exec.awaitTermination(5, TimeUnit.SECONDS));
+		}
+	}
+
+
+	@Test
+	public void closeCancels() throws Exception {
+		ConcurrentMapIterator<Integer, Integer> iter = StreamUtil.mapConcurrent(IntStream.range(0, 10).boxed().iterator(), (i) -> i, 2);
+		Assert.assertEquals(Integer.valueOf(0), iter.next());
+		iter.close();
+		CheckTask.assertException(() -> iter.next());
+	}
+
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch(InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+
+	@Test
+	public void rejectedTasksAreResubmitted() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		AtomicInteger calls = new AtomicInteger();
+		// reject every third submission
+		Executor rejecting = (task) -> {
+			if(calls.incrementAndGet() % 3 == 0) {
+				throw new RejectedExecutionException("rejected");
+			}
+			pool.execute(task);
+		};
+		try(ConcurrentMapIterator<Integer, Integer> iter = new ConcurrentMapIterator<>(IntStream.range(0, 20).iterator(), (i) -> i * 2, 3, rejecting)) {
+			List<Integer> res = new ArrayList<>();
+			int rejections = 0;
+			while(true) {
+				try {
+					if(!iter.hasNext()) {
+						break;
+					}
+					res.add(iter.next());
+				} catch(RejectedExecutionException e) {
+					rejections++;
+				}
+			}
+			Assert.assertTrue(rejections > 0);
+			Assert.assertEquals(IntStream.range(0, 20).map((i) -> i * 2).boxed().collect(Collectors.toList()), res);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,88 @@
+package twg2.streams.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import twg2.junitassist.checks.CheckTask;
+import twg2.streams.DistinctFilter;
+import twg2.streams.EnhancedListIterator;
+import twg2.streams.PeekableIterator;
+import twg2.streams.StreamUtil;
+
+/**
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class DistinctFilterTest {
+
+	@Test
+	public void exact() {
+		List<String> src = IntStream.range(0, 200_000).mapToObj((i) -> "line-" + (i % 50_000)).collect(Collectors.toList());
+		// start with a small expected size to force the off-heap set to grow
+		DistinctFilter<String> filter = DistinctFilter.exact(DistinctFilter::fingerprint, 100);
+		List<String> res = StreamUtil.distinct(src.stream(), filter).collect(Collectors.toList());
+
+		Assert.assertEquals(50_000, res.size());
+		Assert.assertEquals(src.subList(0, 50_000), res);
+
+		DistinctFilter<Long> longs = DistinctFilter.exact((l) -> l, 10);
+		Assert.assertTrue(longs.test(0L));
+		Assert.assertFalse(longs.test(0L));
+		Assert.assertTrue(longs.test(-1L));
+
+		// a large expected size does not allocate memory up front, and closing releases the filter's memory
+		DistinctFilter<Long> large = DistinctFilter.exact((l) -> l, 1L << 40);
+		Assert.assertTrue(large.test(5L));
+		Assert.assertFalse(large.test(5L));
+		large.close();
+		CheckTask.assertException(() -> large.test(6L));
+
+		try(Stream<String> stream = StreamUtil.distinct(src.stream(), DistinctFilter.exact(DistinctFilter::fingerprint, 100))) {
+			Assert.assertEquals(50_000, stream.count());
+		}
+	}
+
+
+	@Test
+	public void approximate() {
+		int n = 100_000;
+		DistinctFilter<String> filter = DistinctFilter.approximate(DistinctFilter::fingerprint, n, 0.01);
+		int unique = 0;
+		for(int i = 0; i < n; i++) {
+			if(filter.test("item-" + i)) {
+				unique++;
+			}
+		}
+		// roughly 1% of distinct elements are expected to be false positives
+		Assert.assertTrue("unique: " + unique, unique > n * 0.97);
+		for(int i = 0; i < 1000; i++) {
+			Assert.assertFalse(filter.test("item-" + i));
+		}
+	}
+
+
+	@Test
+	public void windowed() {
+		PeekableIterator<String> iter = StreamUtil.distinct(new EnhancedListIterator<>(List.of("a", "b", "a", "c", "d", "a", "b", "b", "e", "e")),
+				DistinctFilter.windowed(DistinctFilter::fingerprint, 3));
+
+		Assert.assertEquals("a", iter.peek());
+		List<String> res = new ArrayList<>();
+		iter.forEachRemaining(res::add);
+		// each "a" is within 3 elements of the previous "a", the second "b" is not within 3 elements of the first
+		Assert.assertEquals(List.of("a", "b", "c", "d", "b", "e"), res);
+		Assert.assertNull(iter.peek());
+
+		// many distinct values cycling through a small window exercise removal from the window's hash map
+		DistinctFilter<Long> filter = DistinctFilter.windowed((l) -> l, 16);
+		long dups = Stream.iterate(0L, (i) -> i + 1).limit(100_000).map((i) -> (i * 31) % 40).filter((i) -> !filter.test(i)).count();
+		Assert.assertEquals(0, dups);
+	}
+
+}
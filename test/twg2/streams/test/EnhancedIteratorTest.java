@@ -1,6 +1,8 @@
 package twg2.streams.test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Assert;
@@ -81,4 +83,50 @@ public class EnhancedIteratorTest {
 
 	}
 
+
+	@Test
+	public void resetAndLease() {
+		EnhancedIterator<String> iter = new EnhancedIterator<>();
+		Assert.assertFalse(iter.hasNext());
+
+		iter.reset(Arrays.asList("A", "B").iterator());
+		Assert.assertEquals("A", iter.next());
+		Assert.assertEquals(0, iter.previousIndex());
+		iter.reset(Arrays.asList("C", "D", "E").iterator());
+		Assert.assertEquals(-1, iter.previousIndex());
+		Assert.assertEquals("C", iter.peek());
+		Assert.assertEquals(2, iter.skip(2));
+		Assert.assertEquals("E", iter.next());
+		Assert.assertFalse(iter.hasNext());
+
+		IteratorToSupplier<String> supplier = new IteratorToSupplier<>(Arrays.asList("A").iterator());
+		Assert.assertEquals("A", supplier.get());
+		supplier.reset(Arrays.asList("B").iterator(), "end");
+		Assert.assertEquals(0, supplier.getIndex());
+		Assert.assertEquals("B", supplier.get());
+		Assert.assertEquals("end", supplier.get());
+
+		// released instances are reused by the same thread
+		EnhancedIterator<String> leased = EnhancedIterator.lease(Arrays.asList("A", "B").iterator());
+		List<String> res = new ArrayList<>();
+		leased.forEachRemaining(res::add);
+		Assert.assertEquals(Arrays.asList("A", "B"), res);
+		leased.release();
+		CheckTask.assertException(() -> leased.release());
+		// only leased instances can be released
+		CheckTask.assertException(() -> iter.release());
+		CheckTask.assertException(() -> supplier.release());
+
+		EnhancedIterator<String> leased2 = EnhancedIterator.lease(new IteratorToSupplier<>(Arrays.asList("C")));
+		Assert.assertSame(leased, leased2);
+		Assert.assertEquals("C", leased2.next());
+		Assert.assertFalse(leased2.hasNext());
+		leased2.release();
+
+		IteratorToSupplier<String> leasedSupplier = IteratorToSupplier.lease(Arrays.asList("D").iterator(), null);
+		Assert.assertEquals("D", leasedSupplier.get());
+		leasedSupplier.release();
+		Assert.assertSame(leasedSupplier, IteratorToSupplier.lease(Arrays.asList("E").iterator(), null));
+	}
+
 }
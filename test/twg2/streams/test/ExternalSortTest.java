@@ -0,0 +1,121 @@
+package twg2.streams.test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import twg2.streams.ClosableIterator;
+import twg2.streams.ElementSerializer;
+import twg2.streams.ExternalSort;
+
+/**
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class ExternalSortTest {
+
+	@Test
+	public void sortInMemory() throws Exception {
+		List<String> src = List.of("d", "a", "c", "b");
+		try(ClosableIterator<String> iter = ExternalSort.sort(src.iterator(), Comparator.naturalOrder(), ElementSerializer.UTF8_STRING, 10)) {
+			Assert.assertEquals(List.of("a", "b", "c", "d"), toList(iter));
+		}
+	}
+
+
+	@Test
+	public void sortSpilled() throws Exception {
+		Random rand = new Random(42);
+		List<Long> src = new ArrayList<>();
+		for(int i = 0; i < 10_000; i++) {
+			src.add((long)rand.nextInt(5000));
+		}
+		List<Long> expected = src.stream().sorted().collect(Collectors.toList());
+
+		Path tempDir = Files.createTempDirectory("external-sort-test");
+		try {
+			// 100 runs of 100 elements merged 8 at a time requires multiple merge passes
+			try(ClosableIterator<Long> iter = ExternalSort.sort(src.iterator(), Comparator.naturalOrder(), ElementSerializer.LONG, 100, 8, tempDir)) {
+				Assert.assertEquals(expected, toList(iter));
+			}
+			try(Stream<Path> files = Files.list(tempDir)) {
+				Assert.assertEquals(0, files.count());
+			}
+		} finally {
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+
+	@Test
+	public void sortIsStable() throws Exception {
+		List<String> src = List.of("b2", "a1", "b1", "a2", "c1", "a3", "b3");
+		try(ClosableIterator<String> iter = ExternalSort.sort(src.iterator(), Comparator.comparing((s) -> s.charAt(0)), ElementSerializer.UTF8_STRING, 2)) {
+			Assert.assertEquals(List.of("a1", "a2", "a3", "b2", "b1", "b3", "c1"), toList(iter));
+		}
+	}
+
+
+	@Test
+	public void sortCleanup() throws Exception {
+		// the run buffer grows with the input instead of allocating maxRunSize elements
+		try(ClosableIterator<String> iter = ExternalSort.sort(List.of("b", "a").iterator(), Comparator.naturalOrder(), ElementSerializer.UTF8_STRING, Integer.MAX_VALUE - 8)) {
+			Assert.assertEquals(List.of("a", "b"), toList(iter));
+		}
+
+		// a write failure during an intermediate merge pass deletes every temporary file
+		AtomicInteger writes = new AtomicInteger();
+		ElementSerializer<Long> failing = new ElementSerializer<Long>() {
+			@Override
+			public void write(Long elem, DataOutput out) throws IOException {
+				if(writes.incrementAndGet() > 10_500) {
+					throw new IOException("disk full");
+				}
+				ElementSerializer.LONG.write(elem, out);
+			}
+
+			@Override
+			public Long read(DataInput in) throws IOException {
+				return ElementSerializer.LONG.read(in);
+			}
+		};
+		List<Long> src = new ArrayList<>();
+		for(int i = 0; i < 10_000; i++) {
+			src.add((long)(i * 7919 % 10_000));
+		}
+		Path tempDir = Files.createTempDirectory("external-sort-test");
+		try {
+			try {
+				ExternalSort.sort(src.iterator(), Comparator.naturalOrder(), failing, 100, 8, tempDir);
+				Assert.fail("expected IOException");
+			} catch(IOException e) {
+				Assert.assertEquals("disk full", e.getMessage());
+			}
+			try(Stream<Path> files = Files.list(tempDir)) {
+				Assert.assertEquals(0, files.count());
+			}
+		} finally {
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+
+	private static <T> List<T> toList(ClosableIterator<T> iter) {
+		List<T> res = new ArrayList<>();
+		iter.forEachRemaining(res::add);
+		return res;
+	}
+
+}
@@ -0,0 +1,211 @@
+package twg2.streams.test;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import twg2.junitassist.checks.CheckTask;
+import twg2.streams.EnhancedIterator;
+import twg2.streams.IndexedLineIterator;
+import twg2.streams.LineIndex;
+
+/**
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class LineIndexTest {
+
+	@Test
+	public void buildIndex() throws Exception {
+		Path tempDir = Files.createTempDirectory("line-index-test");
+		Path file = tempDir.resolve("lines.txt");
+		try {
+			String[] inputs = { "", "a", "a\n", "\n", "\n\n", "abc\r\ndefghijklmnop\n\nqrstuvw", "\u03B1\u03B2\u03B3\n\u03B4\u03B5\u03B6\u03B7\u03B8\u03B9\u03BA\u03BB\u03BC\r\n\u03BD\n" };
+			for(String input : inputs) {
+				Files.write(file, input.getBytes(StandardCharsets.UTF_8));
+				List<String> expected = readLines(input);
+				LineIndex index = LineIndex.build(file);
+				Assert.assertEquals(input, expected.size(), index.lineCount());
+				Assert.assertEquals(file.toFile().length(), index.fileSize());
+
+				try(IndexedLineIterator iter = EnhancedIterator.fromPath(file, StandardCharsets.UTF_8, index, 0, false, null)) {
+					List<String> res = new ArrayList<>();
+					iter.forEachRemaining(res::add);
+					Assert.assertEquals(input, expected, res);
+					for(int i = expected.size() - 1; i >= 0; i--) {
+						Assert.assertEquals(expected.get(i), iter.getLine(i));
+					}
+				}
+			}
+		} finally {
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+
+	@Test
+	public void seekAndSkip() throws Exception {
+		Path tempDir = Files.createTempDirectory("line-index-test");
+		Path file = tempDir.resolve("lines.txt");
+		try {
+			List<String> lines = IntStream.range(0, 20_000).mapToObj((i) -> "line " + i + (i % 7 == 0 ? " padding padding" : "")).collect(Collectors.toList());
+			Files.write(file, lines, StandardCharsets.UTF_8);
+			LineIndex index = LineIndex.build(file);
+			Assert.assertEquals(lines.size(), index.lineCount());
+
+			try(IndexedLineIterator iter = EnhancedIterator.fromPath(file, StandardCharsets.UTF_8, index, 100, true, String::toUpperCase)) {
+				Assert.assertEquals(99, iter.previousIndex());
+				Assert.assertEquals("LINE 100\n", iter.next());
+				Assert.assertEquals(100, iter.previousIndex());
+
+				iter.seekToLine(15_000);
+				Assert.assertEquals(15_000, iter.nextIndex());
+				Assert.assertEquals("LINE 15000\n", iter.next());
+
+				Assert.assertEquals(10, iter.skip(10));
+				Assert.assertEquals("LINE 15011\n", iter.next());
+
+				iter.seekToLine(101);
+				Assert.assertEquals("LINE 101\n", iter.next());
+				Assert.assertEquals("line 19998", iter.getLine(19_998));
+				Assert.assertEquals("LINE 102\n", iter.next());
+
+				Assert.assertEquals(20_000 - 103, iter.skip(Integer.MAX_VALUE));
+				Assert.assertFalse(iter.hasNext());
+				CheckTask.assertException(() -> iter.seekToLine(99));
+
+				// like any EnhancedIterator, the source can be replaced
+				iter.reset(Arrays.asList("A", "B", "C").iterator());
+				Assert.assertEquals(-1, iter.previousIndex());
+				Assert.assertEquals(1, iter.skip(1));
+				Assert.assertEquals("B", iter.next());
+				Assert.assertEquals("line 5", iter.getLine(5));
+				CheckTask.assertException(() -> iter.seekToLine(101));
+				CheckTask.assertException(() -> iter.release());
+			}
+		} finally {
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+
+	@Test
+	public void splitPoints() throws Exception {
+		Path tempDir = Files.createTempDirectory("line-index-test");
+		Path file = tempDir.resolve("lines.txt");
+		try {
+			List<String> lines = IntStream.range(0, 1000).mapToObj((i) -> "line " + i).collect(Collectors.toList());
+			Files.write(file, lines, StandardCharsets.UTF_8);
+			LineIndex index = LineIndex.build(file);
+
+			int[] splits = index.splitPoints(4);
+			Assert.assertEquals(5, splits.length);
+			Assert.assertEquals(0, splits[0]);
+			Assert.assertEquals(1000, splits[4]);
+			List<String> res = new ArrayList<>();
+			for(int i = 0; i < 4; i++) {
+				Assert.assertTrue(splits[i + 1] - splits[i] > 200);
+				try(IndexedLineIterator iter = IndexedLineIterator.open(file, StandardCharsets.UTF_8, index, splits[i], splits[i + 1], false, null)) {
+					iter.forEachRemaining(res::add);
+				}
+			}
+			Assert.assertEquals(lines, res);
+
+			Assert.assertArrayEquals(new int[] { 0, 1000 }, index.splitPoints(1));
+			CheckTask.assertException(() -> index.splitPoints(0));
+
+			// the first line is read when the iterator is opened, a file truncated since it was indexed fails (and the file is closed)
+			Files.write(file, lines.subList(0, 500), StandardCharsets.UTF_8);
+			try {
+				IndexedLineIterator.open(file, StandardCharsets.UTF_8, index, 900, 1000, false, null);
+				Assert.fail("expected UncheckedIOException");
+			} catch(UncheckedIOException e) {
+				// expected
+			}
+		} finally {
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+
+	@Test
+	public void sidecar() throws Exception {
+		Path tempDir = Files.createTempDirectory("line-index-test");
+		Path file = tempDir.resolve("lines.txt");
+		Path sidecar = tempDir.resolve("lines.txt.idx");
+		try {
+			Files.write(file, Arrays.asList("a", "b", "c"), StandardCharsets.UTF_8);
+			LineIndex index = LineIndex.loadOrBuild(file, sidecar);
+			Assert.assertTrue(Files.exists(sidecar));
+			Assert.assertEquals(3, index.lineCount());
+
+			LineIndex loaded = LineIndex.loadOrBuild(file, sidecar);
+			Assert.assertEquals(3, loaded.lineCount());
+			Assert.assertEquals(index.lineStart(2), loaded.lineStart(2));
+
+			// a changed file invalidates the sidecar
+			Files.write(file, Arrays.asList("a", "b", "c", "d"), StandardCharsets.UTF_8);
+			Files.setLastModifiedTime(file, FileTime.fromMillis(index.lastModified() + 2000));
+			LineIndex rebuilt = LineIndex.loadOrBuild(file, sidecar);
+			Assert.assertEquals(4, rebuilt.lineCount());
+
+			// a truncated or corrupt sidecar is rebuilt instead of failing
+			byte[] valid = Files.readAllBytes(sidecar);
+			Files.write(sidecar, Arrays.copyOf(valid, 20));
+			Assert.assertEquals(4, LineIndex.loadOrBuild(file, sidecar).lineCount());
+			Assert.assertTrue(Arrays.equals(valid, Files.readAllBytes(sidecar)));
+
+			byte[] corruptCount = valid.clone();
+			corruptCount[24] = (byte)0x7F;
+			Files.write(sidecar, corruptCount);
+			Assert.assertEquals(4, LineIndex.loadOrBuild(file, sidecar).lineCount());
+
+			byte[] negativeCount = valid.clone();
+			negativeCount[24] = (byte)0xFF;
+			Files.write(sidecar, negativeCount);
+			Assert.assertEquals(4, LineIndex.loadOrBuild(file, sidecar).lineCount());
+
+			byte[] corruptOffset = valid.clone();
+			corruptOffset[valid.length - 9] = (byte)0x7F;
+			Files.write(sidecar, corruptOffset);
+			LineIndex repaired = LineIndex.loadOrBuild(file, sidecar);
+			Assert.assertEquals(rebuilt.lineStart(3), repaired.lineStart(3));
+			Assert.assertTrue(Arrays.equals(valid, Files.readAllBytes(sidecar)));
+		} finally {
+			Files.deleteIfExists(sidecar);
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+
+	private static List<String> readLines(String str) {
+		List<String> res = new ArrayList<>();
+		int start = 0;
+		for(int i = 0; i < str.length(); i++) {
+			if(str.charAt(i) == '\n') {
+				int end = i > start && str.charAt(i - 1) == '\r' ? i - 1 : i;
+				res.add(str.substring(start, end));
+				start = i + 1;
+			}
+		}
+		if(start < str.length()) {
+			res.add(str.substring(start));
+		}
+		return res;
+	}
+
+}
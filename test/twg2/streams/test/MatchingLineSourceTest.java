@@ -0,0 +1,104 @@
+package twg2.streams.test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import twg2.junitassist.checks.CheckTask;
+import twg2.streams.EnhancedIterator;
+
+/**
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class MatchingLineSourceTest {
+
+	@Test
+	public void matchLiterals() throws Exception {
+		Path tempDir = Files.createTempDirectory("matching-line-test");
+		Path file = tempDir.resolve("lines.txt");
+		try {
+			Random rand = new Random(3);
+			String[] words = { "he", "she", "his", "hers", "ushers", "error", "warn", "x", "\u00E9t\u00E9", "ERROR" };
+			List<String> lines = new ArrayList<>();
+			for(int i = 0; i < 60_000; i++) {
+				StringBuilder sb = new StringBuilder();
+				int wordCount = rand.nextInt(12);
+				for(int j = 0; j < wordCount; j++) {
+					sb.append(words[rand.nextInt(words.length)].charAt(0)).append(words[rand.nextInt(words.length)]).append(' ');
+				}
+				lines.add(sb.toString());
+			}
+			// a line longer than the read buffer
+			StringBuilder longLine = new StringBuilder();
+			while(longLine.length() < 600_000) {
+				longLine.append("abcdefgh ");
+			}
+			lines.add(30_000, longLine.toString() + "hers");
+			lines.add(longLine.toString());
+			Files.write(file, String.join("\r\n", lines).getBytes(StandardCharsets.UTF_8));
+
+			List<List<String>> literalSets = Arrays.asList(Arrays.asList("hers"), Arrays.asList("he", "she", "his", "hers"), Arrays.asList("warn", "\u00E9t\u00E9"), Arrays.asList("rror"), Arrays.asList("zzz"));
+			for(List<String> literals : literalSets) {
+				List<String> expected = lines.stream().filter((line) -> literals.stream().anyMatch(line::contains)).collect(Collectors.toList());
+				Assert.assertEquals(literals.toString(), expected, read(file, literals, false));
+			}
+
+			List<String> expectedIgnoreCase = lines.stream().filter((line) -> line.toLowerCase(Locale.ROOT).contains("error")).collect(Collectors.toList());
+			Assert.assertTrue(expectedIgnoreCase.size() > lines.stream().filter((line) -> line.contains("error")).count());
+			Assert.assertEquals(expectedIgnoreCase, read(file, Arrays.asList("ErRoR"), true));
+
+			try(EnhancedIterator<String> iter = EnhancedIterator.fromPathMatching(file, StandardCharsets.UTF_8, Arrays.asList("ushers"), false, true, (line) -> line.substring(0, 1))) {
+				Assert.assertEquals(0, iter.nextIndex());
+				Assert.assertTrue(iter.hasNext());
+				Assert.assertEquals(1, iter.next().length());
+			}
+
+			CheckTask.assertException(() -> EnhancedIterator.fromPathMatching(file, StandardCharsets.UTF_8, Arrays.asList("a\nb"), false, false, null));
+			CheckTask.assertException(() -> EnhancedIterator.fromPathMatching(file, StandardCharsets.UTF_8, Arrays.asList(""), false, false, null));
+		} finally {
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+
+	@Test
+	public void smallFiles() throws Exception {
+		Path tempDir = Files.createTempDirectory("matching-line-test");
+		Path file = tempDir.resolve("lines.txt");
+		try {
+			Files.write(file, new byte[0]);
+			Assert.assertEquals(Arrays.asList(), read(file, Arrays.asList("a"), false));
+
+			Files.write(file, "a".getBytes(StandardCharsets.UTF_8));
+			Assert.assertEquals(Arrays.asList("a"), read(file, Arrays.asList("a"), false));
+
+			Files.write(file, "b\nab\n\nba\nc".getBytes(StandardCharsets.UTF_8));
+			Assert.assertEquals(Arrays.asList("ab", "ba"), read(file, Arrays.asList("a"), false));
+			Assert.assertEquals(Arrays.asList("b", "ab", "ba"), read(file, Arrays.asList("b", "ab"), false));
+		} finally {
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+
+	private static List<String> read(Path file, List<String> literals, boolean ignoreCase) throws Exception {
+		List<String> res = new ArrayList<>();
+		try(EnhancedIterator<String> iter = EnhancedIterator.fromPathMatching(file, StandardCharsets.UTF_8, literals, ignoreCase, false, null)) {
+			iter.forEachRemaining(res::add);
+		}
+		return res;
+	}
+
+}
@@ -0,0 +1,179 @@
+package twg2.streams.test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import twg2.junitassist.checks.CheckTask;
+import twg2.streams.MultiFileLineIterator;
+
+/**
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class MultiFileLineIteratorTest {
+
+	@Test
+	public void orderedAndUnordered() throws Exception {
+		Path tempDir = Files.createTempDirectory("multi-file-test");
+		List<Path> files = new ArrayList<>();
+		List<String> expected = new ArrayList<>();
+		try {
+			for(int f = 0; f < 30; f++) {
+				Path file = tempDir.resolve("file-" + f + ".txt");
+				int lineCount = (f * 997) % 3000;
+				List<String> lines = IntStream.range(0, lineCount).mapToObj((i) -> "file " + file.getFileName() + " line " + i).collect(Collectors.toList());
+				Files.write(file, lines, StandardCharsets.UTF_8);
+				files.add(file);
+				expected.addAll(lines);
+			}
+
+			for(int maxOpen : new int[] { 1, 3, 50 }) {
+				List<String> res = new ArrayList<>();
+				try(MultiFileLineIterator iter = MultiFileLineIterator.open(files, StandardCharsets.UTF_8, maxOpen, true)) {
+					iter.forEachRemaining(res::add);
+				}
+				Assert.assertEquals(expected, res);
+			}
+
+			ExecutorService executor = Executors.newFixedThreadPool(4);
+			try {
+				List<String> res;
+				try(MultiFileLineIterator iter = MultiFileLineIterator.open(files.iterator(), StandardCharsets.UTF_8, 4, 100, 2, false, executor);
+						Stream<String> stream = iter.stream()) {
+					res = stream.collect(Collectors.toList());
+				}
+				Assert.assertEquals(expected.size(), res.size());
+				Assert.assertEquals(expected.stream().sorted().collect(Collectors.toList()), res.stream().sorted().collect(Collectors.toList()));
+				// each file's lines stay in order
+				Map<String, Integer> lastLine = new HashMap<>();
+				for(String line : res) {
+					String[] parts = line.split(" line ");
+					int num = Integer.parseInt(parts[1]);
+					Assert.assertEquals(lastLine.getOrDefault(parts[0], -1) + 1, num);
+					lastLine.put(parts[0], num);
+				}
+			} finally {
+				executor.shutdown();
+			}
+		} finally {
+			for(Path file : files) {
+				Files.deleteIfExists(file);
+			}
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+
+	@Test
+	public void closeEarlyAndMissingFile() throws Exception {
+		Path tempDir = Files.createTempDirectory("multi-file-test");
+		List<Path> files = new ArrayList<>();
+		try {
+			for(int f = 0; f < 5; f++) {
+				Path file = tempDir.resolve("file-" + f + ".txt");
+				Files.write(file, IntStream.range(0, 50_000).mapToObj((i) -> "line " + i).collect(Collectors.toList()), StandardCharsets.UTF_8);
+				files.add(file);
+			}
+
+			for(boolean ordered : new boolean[] { true, false }) {
+				MultiFileLineIterator iter = MultiFileLineIterator.open(files, StandardCharsets.UTF_8, 2, ordered);
+				Assert.assertEquals("line 0", iter.next());
+				iter.close();
+				Assert.assertFalse(iter.hasNext());
+
+				List<Path> withMissing = new ArrayList<>(files);
+				withMissing.add(1, tempDir.resolve("missing.txt"));
+				MultiFileLineIterator iter2 = MultiFileLineIterator.open(withMissing, StandardCharsets.UTF_8, 2, ordered);
+				CheckTask.assertException(() -> {
+					while(iter2.hasNext()) {
+						iter2.next();
+					}
+				});
+				Assert.assertFalse(iter2.hasNext());
+			}
+		} finally {
+			for(Path file : files) {
+				Files.deleteIfExists(file);
+			}
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+
+	@Test
+	public void interruptedWhileWaiting() {
+		// an executor which never runs the file readers, so the iterator waits for lines until it is interrupted
+		Executor neverRuns = (task) -> { };
+		for(boolean ordered : new boolean[] { true, false }) {
+			MultiFileLineIterator iter = MultiFileLineIterator.open(List.of(Path.of("never-read.txt")).iterator(), StandardCharsets.UTF_8, 1, 16, 2, ordered, neverRuns);
+			Thread.currentThread().interrupt();
+			try {
+				iter.hasNext();
+				Assert.fail("expected CancellationException");
+			} catch(CancellationException e) {
+				Assert.assertTrue(Thread.interrupted());
+			}
+			Assert.assertFalse(iter.hasNext());
+		}
+	}
+
+
+	@Test
+	public void rejectedFileReader() throws Exception {
+		Path tempDir = Files.createTempDirectory("multi-file-test");
+		List<Path> files = new ArrayList<>();
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			for(int f = 0; f < 4; f++) {
+				Path file = tempDir.resolve("file-" + f + ".txt");
+				Files.write(file, List.of("a" + f, "b" + f), StandardCharsets.UTF_8);
+				files.add(file);
+			}
+			for(boolean ordered : new boolean[] { true, false }) {
+				AtomicInteger calls = new AtomicInteger();
+				// accept the first two files, then reject
+				Executor rejecting = (task) -> {
+					if(calls.incrementAndGet() > 2) {
+						throw new RejectedExecutionException("rejected");
+					}
+					pool.execute(task);
+				};
+				MultiFileLineIterator iter = MultiFileLineIterator.open(files.iterator(), StandardCharsets.UTF_8, 2, 16, 2, ordered, rejecting);
+				try {
+					while(iter.hasNext()) {
+						iter.next();
+					}
+					Assert.fail("expected RejectedExecutionException");
+				} catch(RejectedExecutionException e) {
+					// expected
+				}
+				// closed, so later calls return instead of waiting for a reader which never runs
+				Assert.assertFalse(iter.hasNext());
+			}
+		} finally {
+			pool.shutdown();
+			for(Path file : files) {
+				Files.deleteIfExists(file);
+			}
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+}
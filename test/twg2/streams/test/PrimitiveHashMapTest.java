@@ -0,0 +1,91 @@
+package twg2.streams.test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import twg2.streams.IntObjectHashMap;
+import twg2.streams.LongLongHashMap;
+
+/**
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class PrimitiveHashMapTest {
+
+	@Test
+	public void intObjectMap() {
+		Random rand = new Random(11);
+		IntObjectHashMap<String> map = new IntObjectHashMap<>(0);
+		Map<Integer, String> expected = new HashMap<>();
+		for(int i = 0; i < 200_000; i++) {
+			// a small key range so puts, replacements, and removes collide often
+			int key = rand.nextInt(5000) - 100;
+			if(rand.nextInt(3) == 0) {
+				Assert.assertEquals(expected.remove(key), map.remove(key));
+			}
+			else {
+				String value = "v" + i;
+				Assert.assertEquals(expected.put(key, value), map.put(key, value));
+			}
+		}
+		Assert.assertEquals(expected.size(), map.size());
+		for(int key = -100; key < 4900; key++) {
+			Assert.assertEquals(expected.containsKey(key), map.containsKey(key));
+			Assert.assertEquals(expected.get(key), map.get(key));
+		}
+		Map<Integer, String> entries = new HashMap<>();
+		map.forEach(entries::put);
+		Assert.assertEquals(expected, entries);
+		Assert.assertEquals(expected.size(), map.keys().length);
+
+		map.put(0, null);
+		Assert.assertTrue(map.containsKey(0));
+		Assert.assertEquals("x", map.merge(0, "x", (a, b) -> a + b));
+		Assert.assertEquals("xy", map.merge(0, "y", (a, b) -> a + b));
+		Assert.assertNull(map.merge(0, "z", (a, b) -> null));
+		Assert.assertFalse(map.containsKey(0));
+
+		map.clear();
+		Assert.assertTrue(map.isEmpty());
+		Assert.assertNull(map.get(1));
+	}
+
+
+	@Test
+	public void longLongMap() {
+		Random rand = new Random(13);
+		LongLongHashMap map = new LongLongHashMap();
+		Map<Long, Long> expected = new HashMap<>();
+		for(int i = 0; i < 200_000; i++) {
+			long key = (rand.nextInt(5000) - 100) * 0x100000000L;
+			int op = rand.nextInt(4);
+			if(op == 0) {
+				Assert.assertEquals(expected.remove(key) != null, map.remove(key));
+			}
+			else if(op == 1) {
+				Assert.assertEquals(expected.put(key, (long)i) == null, map.put(key, i));
+			}
+			else {
+				Assert.assertEquals((long)expected.merge(key, 3L, Long::sum), map.addTo(key, 3));
+			}
+		}
+		Assert.assertEquals(expected.size(), map.size());
+		for(long k = -100; k < 4900; k++) {
+			long key = k * 0x100000000L;
+			Assert.assertEquals(expected.containsKey(key), map.containsKey(key));
+			Assert.assertEquals((long)expected.getOrDefault(key, -1L), map.get(key, -1));
+		}
+		Map<Long, Long> entries = new HashMap<>();
+		map.forEach(entries::put);
+		Assert.assertEquals(expected, entries);
+
+		Assert.assertEquals(5, map.merge(Long.MIN_VALUE, 5, Math::max));
+		Assert.assertEquals(7, map.merge(Long.MIN_VALUE, 7, Math::max));
+		Assert.assertEquals(7, map.merge(Long.MIN_VALUE, 6, Math::max));
+	}
+
+}
@@ -0,0 +1,122 @@
+package twg2.streams.test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import twg2.streams.EnhancedIterator;
+import twg2.streams.IteratorPublisher;
+import twg2.streams.IteratorToSupplier;
+import twg2.streams.PublisherIterator;
+
+/**
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class PublisherIteratorTest {
+
+	@Test
+	public void roundTrip() throws Exception {
+		List<Integer> src = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+		ExecutorService exec = Executors.newSingleThreadExecutor();
+		try {
+			for(Iterator<Integer> iter : List.of(
+					new PublisherIterator<>(new IteratorPublisher<>(src.iterator()), 16),
+					new PublisherIterator<>(new IteratorPublisher<>(src.iterator(), exec), 7, 3))) {
+				List<Integer> res = new ArrayList<>();
+				iter.forEachRemaining(res::add);
+				Assert.assertEquals(src, res);
+			}
+		} finally {
+			exec.shutdown();
+		}
+	}
+
+
+	@Test
+	public void honorsDemand() {
+		AtomicInteger pulled = new AtomicInteger();
+		AtomicReference<String> state = new AtomicReference<>("open");
+		Iterator<Integer> counting = IntStream.range(0, 100).peek((i) -> pulled.incrementAndGet()).iterator();
+		EnhancedIterator<Integer> src = new EnhancedIterator<>(new IteratorToSupplier<>(counting), () -> state.set("closed"));
+		int pulledByConstructor = pulled.get();
+
+		AtomicReference<Flow.Subscription> sub = new AtomicReference<>();
+		List<Integer> received = new ArrayList<>();
+		new IteratorPublisher<>(src).subscribe(new Flow.Subscriber<Integer>() {
+			@Override public void onSubscribe(Flow.Subscription subscription) { sub.set(subscription); }
+			@Override public void onNext(Integer item) { received.add(item); }
+			@Override public void onError(Throwable throwable) { }
+			@Override public void onComplete() { }
+		});
+
+		Assert.assertEquals(0, received.size());
+		Assert.assertEquals(pulledByConstructor, pulled.get());
+
+		sub.get().request(5);
+		Assert.assertEquals(5, received.size());
+		// EnhancedIterator reads one element ahead
+		Assert.assertEquals(6, pulled.get());
+
+		sub.get().cancel();
+		Assert.assertEquals("closed", state.get());
+		sub.get().request(5);
+		Assert.assertEquals(5, received.size());
+	}
+
+
+	@Test
+	public void fromSubmissionPublisher() throws Exception {
+		List<Integer> res = new ArrayList<>();
+		try(SubmissionPublisher<Integer> pub = new SubmissionPublisher<>()) {
+			PublisherIterator<Integer> iter = new PublisherIterator<>(pub, 8);
+			Thread producer = new Thread(() -> {
+				for(int i = 0; i < 200; i++) {
+					pub.submit(i);
+				}
+				pub.close();
+			});
+			producer.start();
+			while(iter.hasNext()) {
+				Integer peeked = iter.peek();
+				Assert.assertEquals(peeked, iter.next());
+				res.add(peeked);
+			}
+			producer.join();
+		}
+		Assert.assertEquals(200, res.size());
+	}
+
+
+	@Test
+	public void error() {
+		Flow.Publisher<Integer> pub = (subscriber) -> {
+			subscriber.onSubscribe(new Flow.Subscription() {
+				@Override public void request(long n) { }
+				@Override public void cancel() { }
+			});
+			subscriber.onNext(1);
+			subscriber.onError(new IllegalStateException("publisher failed"));
+		};
+		PublisherIterator<Integer> iter = new PublisherIterator<>(pub, 4);
+		Assert.assertEquals(Integer.valueOf(1), iter.next());
+		try {
+			iter.hasNext();
+			Assert.fail("expected publisher error");
+		} catch(IllegalStateException e) {
+			Assert.assertEquals("publisher failed", e.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,129 @@
+package twg2.streams.test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import twg2.junitassist.checks.CheckTask;
+import twg2.streams.EnhancedIterator;
+import twg2.streams.LineCheckpoint;
+import twg2.streams.ResumableLineIterator;
+
+/**
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class ResumableLineIteratorTest {
+
+	@Test
+	public void checkpointAndResume() throws Exception {
+		Path tempDir = Files.createTempDirectory("resumable-line-test");
+		Path file = tempDir.resolve("lines.txt");
+		try {
+			List<String> lines = new ArrayList<>();
+			StringBuilder sb = new StringBuilder();
+			for(int i = 0; i < 50_000; i++) {
+				// multi-byte characters, CRLF line endings, and lines longer than the read buffer
+				String line = i % 10_000 == 5 ? repeat("long-line ", 10_000) : "line " + i + (i % 3 == 0 ? " \u00E9\u4E2D" : "");
+				lines.add(line);
+				sb.append(line).append(i % 2 == 0 ? "\r\n" : "\n");
+			}
+			sb.append("last");
+			lines.add("last");
+			Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+
+			List<String> res = new ArrayList<>();
+			LineCheckpoint checkpoint;
+			try(ResumableLineIterator iter = ResumableLineIterator.open(file, StandardCharsets.UTF_8, false, null)) {
+				Assert.assertEquals(new LineCheckpoint(0, 0, StandardCharsets.UTF_8), iter.checkpoint());
+				for(int i = 0; i < 20_006; i++) {
+					res.add(iter.next());
+				}
+				checkpoint = iter.checkpoint();
+			}
+			Assert.assertEquals(20_006, checkpoint.getLine());
+
+			// resume from the saved token
+			LineCheckpoint parsed = LineCheckpoint.parse(checkpoint.toString());
+			Assert.assertEquals(checkpoint, parsed);
+			try(ResumableLineIterator iter = EnhancedIterator.fromPath(file, parsed, false, null)) {
+				Assert.assertEquals(20_006, iter.nextIndex());
+				while(iter.hasNext()) {
+					res.add(iter.next());
+				}
+				Assert.assertEquals(lines.size(), iter.nextIndex());
+				Assert.assertEquals(Files.size(file), iter.checkpoint().getOffset());
+
+				// seek back on an open iterator
+				iter.seek(checkpoint);
+				Assert.assertEquals(20_006, iter.nextIndex());
+				Assert.assertEquals(lines.get(20_006), iter.next());
+				iter.seek(new LineCheckpoint(0, 0, StandardCharsets.UTF_8));
+				Assert.assertEquals(lines.get(0), iter.next());
+			}
+			Assert.assertEquals(lines, res);
+		} finally {
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+
+	@Test
+	public void invalidCheckpoints() throws Exception {
+		Path tempDir = Files.createTempDirectory("resumable-line-test");
+		Path file = tempDir.resolve("lines.txt");
+		try {
+			Files.write(file, "abc\ndef\n".getBytes(StandardCharsets.UTF_8));
+
+			// like fromReader(), the modifier is called with null at the end of the file
+			List<String> modified = new ArrayList<>();
+			try(ResumableLineIterator iter = ResumableLineIterator.open(file, new LineCheckpoint(4, 1, StandardCharsets.UTF_8), true, (line) -> {
+				modified.add(line);
+				return line != null ? line.toUpperCase() : null;
+			})) {
+				Assert.assertEquals("DEF\n", iter.next());
+				Assert.assertFalse(iter.hasNext());
+				Assert.assertEquals(new LineCheckpoint(8, 2, StandardCharsets.UTF_8), iter.checkpoint());
+			}
+			Assert.assertEquals(Arrays.asList("def\n", null), modified);
+
+			// not at a line start, past the end of the file
+			CheckTask.assertException(() -> ResumableLineIterator.open(file, new LineCheckpoint(2, 0, StandardCharsets.UTF_8), false, null));
+			CheckTask.assertException(() -> ResumableLineIterator.open(file, new LineCheckpoint(9, 2, StandardCharsets.UTF_8), false, null));
+			CheckTask.assertException(() -> LineCheckpoint.parse("1:abc:0:UTF-8"));
+			CheckTask.assertException(() -> LineCheckpoint.parse("2:0:0:UTF-8"));
+			CheckTask.assertException(() -> new LineCheckpoint(-1, 0, StandardCharsets.UTF_8));
+
+			try(ResumableLineIterator iter = ResumableLineIterator.open(file, StandardCharsets.UTF_8, false, null)) {
+				CheckTask.assertException(() -> iter.seek(new LineCheckpoint(0, 0, StandardCharsets.ISO_8859_1)));
+				Assert.assertEquals(Arrays.asList("abc", "def"), Arrays.asList(iter.next(), iter.next()));
+
+				// like any EnhancedIterator, the source can be replaced
+				iter.reset(Arrays.asList("A", "B").iterator());
+				Assert.assertEquals("A", iter.next());
+				CheckTask.assertException(() -> iter.checkpoint());
+				CheckTask.assertException(() -> iter.seek(new LineCheckpoint(0, 0, StandardCharsets.UTF_8)));
+			}
+		} finally {
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+
+	private static String repeat(String s, int count) {
+		StringBuilder sb = new StringBuilder(s.length() * count);
+		for(int i = 0; i < count; i++) {
+			sb.append(s);
+		}
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,210 @@
+package twg2.streams.test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import twg2.junitassist.checks.CheckTask;
+import twg2.streams.ClosableIterator;
+import twg2.streams.ElementSerializer;
+import twg2.streams.EnhancedIterator;
+import twg2.streams.IteratorToSupplier;
+import twg2.streams.StreamJoin;
+
+/**
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class StreamJoinTest {
+
+	@Test
+	public void hashJoinInMemory() throws Exception {
+		List<String> left = Arrays.asList("a1", "b1", "c1", "a2", null, "d1");
+		List<String> right = Arrays.asList("a-x", "c-x", "a-y", "e-x", null);
+
+		try(ClosableIterator<String> iter = StreamJoin.hashJoin(left.iterator(), right.iterator(), StreamJoinTest::key, StreamJoinTest::key, StreamJoinTest::combine, false)) {
+			Assert.assertEquals(Arrays.asList("a1|a-x", "a1|a-y", "c1|c-x", "a2|a-x", "a2|a-y"), toList(iter));
+		}
+		try(ClosableIterator<String> iter = StreamJoin.hashJoin(left.iterator(), right.iterator(), StreamJoinTest::key, StreamJoinTest::key, StreamJoinTest::combine, true)) {
+			Assert.assertEquals(Arrays.asList("a1|a-x", "a1|a-y", "b1|null", "c1|c-x", "a2|a-x", "a2|a-y", "null|null", "d1|null"), toList(iter));
+		}
+		try(ClosableIterator<String> iter = StreamJoin.hashJoin(left.iterator(), Collections.<String>emptyIterator(), StreamJoinTest::key, StreamJoinTest::key, StreamJoinTest::combine, false)) {
+			Assert.assertFalse(iter.hasNext());
+		}
+	}
+
+
+	@Test
+	public void hashJoinSpilled() throws Exception {
+		Random rand = new Random(7);
+		List<Long> left = randomLongs(rand, 5_000, 3_000);
+		List<Long> right = randomLongs(rand, 4_000, 3_000);
+
+		for(boolean leftOuter : new boolean[] { false, true }) {
+			List<String> expected = nestedLoopJoin(left, right, (k) -> k % 1000, leftOuter);
+			Collections.sort(expected);
+
+			// fits in memory
+			try(ClosableIterator<String> iter = StreamJoin.hashJoin(left.iterator(), right.iterator(), (l) -> l % 1000, (r) -> r % 1000,
+					(l, r) -> l + "|" + r, leftOuter, 10_000, ElementSerializer.LONG, ElementSerializer.LONG)) {
+				List<String> res = toList(iter);
+				Assert.assertEquals(nestedLoopJoin(left, right, (k) -> k % 1000, leftOuter), res);
+			}
+
+			Path tempDir = Files.createTempDirectory("stream-join-test");
+			try {
+				try(ClosableIterator<String> iter = StreamJoin.hashJoin(left.iterator(), right.iterator(), (l) -> l % 1000, (r) -> r % 1000,
+						(l, r) -> l + "|" + r, leftOuter, 500, 8, ElementSerializer.LONG, ElementSerializer.LONG, tempDir)) {
+					List<String> res = toList(iter);
+					Collections.sort(res);
+					Assert.assertEquals(expected, res);
+				}
+				assertEmpty(tempDir);
+
+				// closing before reading all the partitions deletes the temporary files
+				ClosableIterator<String> iter = StreamJoin.hashJoin(left.iterator(), right.iterator(), (l) -> l % 1000, (r) -> r % 1000,
+						(l, r) -> l + "|" + r, leftOuter, 500, 8, ElementSerializer.LONG, ElementSerializer.LONG, tempDir);
+				Assert.assertTrue(iter.hasNext());
+				iter.next();
+				iter.close();
+				Assert.assertFalse(iter.hasNext());
+				assertEmpty(tempDir);
+			} finally {
+				Files.deleteIfExists(tempDir);
+			}
+		}
+
+		CheckTask.assertException(() -> StreamJoin.hashJoin(left.iterator(), right.iterator(), (l) -> l, (r) -> r, (l, r) -> l, false, 0, ElementSerializer.LONG, ElementSerializer.LONG));
+	}
+
+
+	@Test
+	public void hashJoinRepartitioned() throws Exception {
+		Random rand = new Random(13);
+		List<Long> left = randomLongs(rand, 3_000, 3_000);
+		List<Long> right = randomLongs(rand, 4_000, 3_000);
+		// a skewed key which cannot fit in memory however many times its partition is split
+		for(int i = 0; i < 500; i++) {
+			right.set(i * 8, 7L);
+		}
+
+		Path tempDir = Files.createTempDirectory("stream-join-test");
+		try {
+			for(boolean leftOuter : new boolean[] { false, true }) {
+				List<String> expected = nestedLoopJoin(left, right, (k) -> k % 1000, leftOuter);
+				Collections.sort(expected);
+
+				// 2 partitions of a 4000 element build source with 40 elements in memory, so the partitions are split several times
+				try(ClosableIterator<String> iter = StreamJoin.hashJoin(left.iterator(), right.iterator(), (l) -> l % 1000, (r) -> r % 1000,
+						(l, r) -> l + "|" + r, leftOuter, 40, 2, ElementSerializer.LONG, ElementSerializer.LONG, tempDir)) {
+					List<String> res = toList(iter);
+					Collections.sort(res);
+					Assert.assertEquals(expected, res);
+				}
+				assertEmpty(tempDir);
+
+				// closing while joining a repartitioned partition deletes all of the temporary files
+				ClosableIterator<String> iter = StreamJoin.hashJoin(left.iterator(), right.iterator(), (l) -> l % 1000, (r) -> r % 1000,
+						(l, r) -> l + "|" + r, leftOuter, 40, 2, ElementSerializer.LONG, ElementSerializer.LONG, tempDir);
+				for(int i = 0; i < 100; i++) {
+					iter.next();
+				}
+				iter.close();
+				Assert.assertFalse(iter.hasNext());
+				assertEmpty(tempDir);
+			}
+		} finally {
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+
+	@Test
+	public void mergeJoin() throws Exception {
+		Random rand = new Random(11);
+		List<Long> left = randomLongs(rand, 3_000, 500);
+		List<Long> right = randomLongs(rand, 2_000, 500);
+		Collections.sort(left);
+		Collections.sort(right);
+
+		for(boolean leftOuter : new boolean[] { false, true }) {
+			try(ClosableIterator<String> iter = StreamJoin.mergeJoin(peekable(left), peekable(right), (l) -> l / 2, (r) -> r / 2, Comparator.naturalOrder(),
+					(l, r) -> l + "|" + r, leftOuter)) {
+				Assert.assertEquals(nestedLoopJoin(left, right, (k) -> k / 2, leftOuter), toList(iter));
+			}
+		}
+
+		try(ClosableIterator<String> iter = StreamJoin.mergeJoin(peekable(Arrays.asList("a1", "b1", "b2", "d1")), peekable(Arrays.asList("b-x", "b-y", "c-x", "d-x")),
+				StreamJoinTest::key, StreamJoinTest::key, Comparator.naturalOrder(), StreamJoinTest::combine, true)) {
+			Assert.assertEquals(Arrays.asList("a1|null", "b1|b-x", "b1|b-y", "b2|b-x", "b2|b-y", "d1|d-x"), toList(iter));
+		}
+	}
+
+
+	private static String key(String s) {
+		return s != null ? s.substring(0, 1) : null;
+	}
+
+
+	private static String combine(String l, String r) {
+		return l + "|" + r;
+	}
+
+
+	private static List<Long> randomLongs(Random rand, int count, int bound) {
+		List<Long> res = new ArrayList<>(count);
+		for(int i = 0; i < count; i++) {
+			res.add((long)rand.nextInt(bound));
+		}
+		return res;
+	}
+
+
+	private static List<String> nestedLoopJoin(List<Long> left, List<Long> right, LongUnaryOperator keyFunc, boolean leftOuter) {
+		List<String> res = new ArrayList<>();
+		for(Long l : left) {
+			boolean matched = false;
+			for(Long r : right) {
+				if(keyFunc.applyAsLong(l) == keyFunc.applyAsLong(r)) {
+					res.add(l + "|" + r);
+					matched = true;
+				}
+			}
+			if(!matched && leftOuter) {
+				res.add(l + "|null");
+			}
+		}
+		return res;
+	}
+
+
+	private static <T> EnhancedIterator<T> peekable(List<T> list) {
+		return new EnhancedIterator<>(new IteratorToSupplier<>(list.iterator()));
+	}
+
+
+	private static void assertEmpty(Path dir) throws Exception {
+		try(Stream<Path> files = Files.list(dir)) {
+			Assert.assertEquals(0, files.count());
+		}
+	}
+
+
+	private static <T> List<T> toList(Iterator<T> iter) {
+		List<T> res = new ArrayList<>();
+		iter.forEachRemaining(res::add);
+		return res;
+	}
+
+}
@@ -1,15 +1,30 @@
 package twg2.streams.test;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import twg2.junitassist.checks.CheckTask;
+import twg2.streams.ClosableIterator;
+import twg2.streams.ElementSerializer;
 import twg2.streams.StreamSplitFilter;
 
 /**
@@ -91,6 +106,130 @@ public class StreamSplitFilterTest {
 	}
 
 
+	@Test
+	public void partitionByHash() throws Exception {
+		List<Integer> src = toIntegers(IntStream.range(0, 5000).map((i) -> i % 300).toArray());
+		Path tempDir = Files.createTempDirectory("partition-test");
+		try {
+			List<ClosableIterator<Integer>> partitions = StreamSplitFilter.partitionByHash(src.iterator(), (i) -> i, 4, 100, ElementSerializer.INT, tempDir);
+			Assert.assertEquals(4, partitions.size());
+			try(Stream<Path> files = Files.list(tempDir)) {
+				Assert.assertTrue(files.count() > 0);
+			}
+
+			Set<Integer> seenKeys = new HashSet<>();
+			int total = 0;
+			for(ClosableIterator<Integer> partition : partitions) {
+				Set<Integer> keys = new HashSet<>();
+				int prev = -1;
+				int count = 0;
+				while(partition.hasNext()) {
+					int val = partition.next();
+					keys.add(val);
+					count++;
+					// each key's elements are in source order, the source cycles through keys so the first occurrences are increasing
+					if(count <= keys.size()) {
+						Assert.assertTrue(val > prev);
+						prev = val;
+					}
+				}
+				partition.close();
+				// each key only appears in one partition
+				for(Integer key : keys) {
+					Assert.assertTrue(seenKeys.add(key));
+				}
+				total += count;
+			}
+			Assert.assertEquals(5000, total);
+			Assert.assertEquals(300, seenKeys.size());
+
+			try(Stream<Path> files = Files.list(tempDir)) {
+				Assert.assertEquals(0, files.count());
+			}
+
+			// a failure while reading the source closes the source and deletes the spilled partitions
+			boolean[] srcClosed = { false };
+			Iterator<Integer> srcIter = src.iterator();
+			ClosableIterator<Integer> failingSrc = new ClosableIterator<Integer>() {
+				private int count = 0;
+
+				@Override
+				public boolean hasNext() {
+					return srcIter.hasNext();
+				}
+
+				@Override
+				public Integer next() {
+					if(++count > 3000) {
+						throw new IllegalStateException("source failed");
+					}
+					return srcIter.next();
+				}
+
+				@Override
+				public void close() {
+					srcClosed[0] = true;
+				}
+			};
+			CheckTask.assertException(() -> StreamSplitFilter.partitionByHash(failingSrc, (i) -> i, 4, 100, ElementSerializer.INT, tempDir));
+			Assert.assertTrue(srcClosed[0]);
+			try(Stream<Path> files = Files.list(tempDir)) {
+				Assert.assertEquals(0, files.count());
+			}
+		} finally {
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+
+	@Test
+	public void splitNWayConcurrent() {
+		List<List<Integer>> dsts = createLists(expectedFiltered.length);
+		List<Consumer<Integer>> consumers = new ArrayList<>();
+		for(List<Integer> dst : dsts) {
+			consumers.add(dst::add);
+		}
+
+		StreamSplitFilter.splitNWayConcurrent(elems.iterator(), 4, (i) -> {
+			return i % 7 == 0 ? -1 : i % 4;
+		}, consumers, 2);
+
+		checkResults(dsts, expectedFiltered);
+
+		// a failing consumer stops the split and its exception is rethrown
+		AtomicInteger processed = new AtomicInteger();
+		List<Consumer<Integer>> failing = List.of((i) -> processed.incrementAndGet(), (i) -> { throw new IllegalArgumentException("bad " + i); });
+		CheckTask.assertException(() -> StreamSplitFilter.splitNWayConcurrent(IntStream.range(0, 100_000).iterator(), 2, (i) -> i % 2, failing, 4));
+		Assert.assertTrue(processed.get() < 100_000);
+
+		// consumers started before the executor rejects a task are stopped instead of waiting forever
+		AtomicInteger submitted = new AtomicInteger();
+		Executor rejecting = (task) -> {
+			if(submitted.getAndIncrement() > 0) {
+				throw new RejectedExecutionException("executor full");
+			}
+			new Thread(task).start();
+		};
+		List<Consumer<Integer>> noop = List.of((i) -> { }, (i) -> { });
+		try {
+			StreamSplitFilter.splitNWayConcurrent(IntStream.range(0, 1000).iterator(), 2, (i) -> i % 2, noop, 4, rejecting);
+			Assert.fail("expected RejectedExecutionException");
+		} catch(RejectedExecutionException e) {
+			// expected
+		}
+
+		// an interrupted producer stops waiting for a full queue
+		List<Consumer<Integer>> slow = List.of((i) -> LockSupport.parkNanos(1_000_000));
+		Thread.currentThread().interrupt();
+		try {
+			StreamSplitFilter.splitNWayConcurrent(IntStream.range(0, 1000).iterator(), 1, (i) -> 0, slow, 2);
+			Assert.fail("expected CancellationException");
+		} catch(CancellationException e) {
+			Assert.assertTrue(Thread.interrupted());
+		}
+	}
+
+
 	private static void checkResults(List<List<Integer>> results, int[][] expected) {
 		int i = 0;
 		for(List<Integer> resultSet : results) {
@@ -0,0 +1,102 @@
+package twg2.streams.test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import twg2.streams.IntObjectHashMap;
+import twg2.streams.LongLongHashMap;
+import twg2.streams.StreamUtil;
+
+/**
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class StreamUtilTest {
+
+	@Test
+	public void topK() {
+		List<Integer> src = IntStream.range(0, 10_000).map((i) -> (i * 7919) % 10_000).boxed().collect(Collectors.toList());
+
+		Assert.assertEquals(List.of(9999, 9998, 9997), src.stream().collect(StreamUtil.topK(3, Comparator.<Integer>naturalOrder())));
+		Assert.assertEquals(List.of(9999, 9998, 9997), src.parallelStream().collect(StreamUtil.topK(3, Comparator.<Integer>naturalOrder())));
+		Assert.assertEquals(List.of(0, 1), StreamUtil.topK(src.iterator(), 2, Comparator.<Integer>reverseOrder()));
+		Assert.assertEquals(List.of(2, 1), StreamUtil.topK(List.of(1, 2).iterator(), 5, Comparator.<Integer>naturalOrder()));
+		Assert.assertEquals(List.of(), StreamUtil.topK(List.of(1, 2).iterator(), 0, Comparator.<Integer>naturalOrder()));
+
+		// a large k does not allocate k elements up front, including for each split of a parallel stream
+		Assert.assertEquals(List.of(2, 1), StreamUtil.topK(List.of(1, 2).iterator(), Integer.MAX_VALUE - 8, Comparator.<Integer>naturalOrder()));
+		List<Integer> all = src.parallelStream().collect(StreamUtil.topK(Integer.MAX_VALUE - 8, Comparator.<Integer>naturalOrder()));
+		Assert.assertEquals(10_000, all.size());
+		Assert.assertEquals(Integer.valueOf(9999), all.get(0));
+		Assert.assertEquals(Integer.valueOf(0), all.get(9999));
+	}
+
+
+	@Test
+	public void sample() {
+		Random rand = new Random(7);
+		List<Integer> small = StreamUtil.sample(List.of(1, 2, 3).iterator(), 5, rand);
+		Assert.assertEquals(new HashSet<>(List.of(1, 2, 3)), new HashSet<>(small));
+
+		// each element should be selected close to k/n of the time
+		int n = 100;
+		int k = 10;
+		int rounds = 4000;
+		int[] hits = new int[n];
+		for(int r = 0; r < rounds; r++) {
+			List<Integer> res = r % 2 == 0
+					? StreamUtil.sample(IntStream.range(0, n).boxed().iterator(), k, rand)
+					: IntStream.range(0, n).boxed().parallel().collect(StreamUtil.sample(k, rand));
+			Assert.assertEquals(k, res.size());
+			Assert.assertEquals(k, new HashSet<>(res).size());
+			for(int i : res) {
+				hits[i]++;
+			}
+		}
+		double expected = (double)rounds * k / n;
+		for(int i = 0; i < n; i++) {
+			Assert.assertTrue("element " + i + " sampled " + hits[i] + " times, expected ~" + expected, Math.abs(hits[i] - expected) < expected * 0.35);
+		}
+	}
+
+
+	@Test
+	public void primitiveCollectors() {
+		List<String> src = IntStream.range(0, 50_000).mapToObj((i) -> "item " + i).collect(Collectors.toList());
+
+		IntObjectHashMap<String> byIndex = src.parallelStream().collect(StreamUtil.toIntObjectMap((s) -> Integer.parseInt(s.substring(5)), (s) -> s));
+		Assert.assertEquals(50_000, byIndex.size());
+		Assert.assertEquals("item 0", byIndex.get(0));
+		Assert.assertEquals("item 49999", byIndex.get(49_999));
+		Assert.assertNull(byIndex.get(50_000));
+
+		IntObjectHashMap<String> byLength = src.stream().collect(StreamUtil.toIntObjectMap(String::length, (s) -> s, (a, b) -> a));
+		Assert.assertEquals(5, byLength.size());
+		Assert.assertEquals("item 10", byLength.get(7));
+
+		LongLongHashMap counts = src.parallelStream().collect(StreamUtil.toLongLongMap((s) -> s.length(), (s) -> 1, Long::sum));
+		Assert.assertEquals(5, counts.size());
+		Assert.assertEquals(9000, counts.get(9, -1));
+		Assert.assertEquals(40_000, counts.get(10, -1));
+		Assert.assertEquals(-1, counts.get(11, -1));
+
+		LongLongHashMap lastWins = IntStream.range(0, 100).boxed().collect(StreamUtil.toLongLongMap((i) -> i % 10, (i) -> i));
+		Assert.assertEquals(99, lastWins.get(9, -1));
+
+		int[] ints = src.parallelStream().collect(StreamUtil.toIntArray(String::length));
+		Assert.assertEquals(50_000, ints.length);
+		Assert.assertEquals(6, ints[0]);
+		Assert.assertEquals(10, ints[49_999]);
+		Assert.assertArrayEquals(new long[] { 0, 2, 4 }, IntStream.range(0, 3).boxed().collect(StreamUtil.toLongArray((i) -> i * 2L)));
+		Assert.assertTrue(Arrays.equals(new double[] { 0.5, 1.5 }, IntStream.range(0, 2).boxed().collect(StreamUtil.toDoubleArray((i) -> i + 0.5))));
+	}
+
+}
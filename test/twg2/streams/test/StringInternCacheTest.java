@@ -0,0 +1,199 @@
+package twg2.streams.test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import twg2.junitassist.checks.CheckTask;
+import twg2.streams.EnhancedIterator;
+import twg2.streams.IndexedLineIterator;
+import twg2.streams.LineCheckpoint;
+import twg2.streams.LineIndex;
+import twg2.streams.ResumableLineIterator;
+import twg2.streams.StringInternCache;
+
+/**
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class StringInternCacheTest {
+
+	@Test
+	public void internDeduplicates() throws Exception {
+		StringInternCache cache = new StringInternCache(64);
+		String a = new String("host-a");
+		Assert.assertSame(a, cache.intern(a));
+		Assert.assertSame(a, cache.intern(new String("host-a")));
+		Assert.assertSame(a, cache.intern("xhost-ax", 1, 7));
+		Assert.assertSame(a, cache.intern("[host-a]".toCharArray(), 1, 6));
+		Assert.assertSame(a, cache.intern("host-a".getBytes(StandardCharsets.UTF_8), 0, 6, StandardCharsets.UTF_8));
+		Assert.assertSame(a, cache.intern("host-a".getBytes(StandardCharsets.UTF_16BE), 0, 12, StandardCharsets.UTF_16BE));
+		Assert.assertEquals(1, cache.missCount());
+		Assert.assertEquals(5, cache.hitCount());
+		Assert.assertEquals(5.0 / 6, cache.hitRate(), 0.0001);
+
+		// non-ASCII bytes are decoded before lookup
+		String s = "\u00E9t\u00E9";
+		Assert.assertSame(cache.intern(s), cache.intern(s.getBytes(StandardCharsets.UTF_8), 0, 5, StandardCharsets.UTF_8));
+
+		// strings longer than the max length are not cached
+		StringInternCache small = new StringInternCache(8, 3);
+		String abcd = new String("abcd");
+		Assert.assertSame(abcd, small.intern(abcd));
+		Assert.assertNotSame(abcd, small.intern(new String("abcd")));
+		Assert.assertEquals(0, small.size());
+		Assert.assertNull(small.intern(null));
+
+		cache.clear();
+		Assert.assertEquals(0, cache.size());
+		Assert.assertEquals(0.0, cache.hitRate(), 0.0);
+
+		CheckTask.assertException(() -> new StringInternCache(0));
+		CheckTask.assertException(() -> cache.intern("abc", 2, 4));
+		CheckTask.assertException(() -> cache.intern(new char[2], 1, 2));
+	}
+
+
+	@Test
+	public void boundedWithClockEviction() {
+		StringInternCache cache = new StringInternCache(100);
+		Assert.assertEquals(128, cache.capacity());
+
+		List<String> hot = new ArrayList<>();
+		for(int i = 0; i < 20; i++) {
+			hot.add(cache.intern("hot-" + i));
+		}
+		for(int round = 0; round < 50; round++) {
+			for(int i = 0; i < 20; i++) {
+				cache.intern("hot-" + i);
+			}
+			for(int i = 0; i < 30; i++) {
+				cache.intern("cold-" + round + "-" + i);
+			}
+		}
+		Assert.assertTrue(cache.size() <= cache.capacity());
+		Assert.assertTrue(cache.evictionCount() > 0);
+
+		// referenced values survive the scan of values seen only once
+		int retained = 0;
+		for(int i = 0; i < 20; i++) {
+			if(cache.intern(new String("hot-" + i)) == hot.get(i)) {
+				retained++;
+			}
+		}
+		Assert.assertTrue("retained " + retained, retained >= 18);
+	}
+
+
+	@Test
+	public void modifierAndConcurrentUse() throws Exception {
+		StringInternCache cache = new StringInternCache(256);
+		StringBuilder sb = new StringBuilder();
+		for(int i = 0; i < 1000; i++) {
+			sb.append("status-").append(i % 5).append('\n');
+		}
+		List<String> lines = new ArrayList<>();
+		EnhancedIterator.fromReader(new BufferedReader(new StringReader(sb.toString())), false, cache).forEachRemaining(lines::add);
+		Assert.assertEquals(1000, lines.size());
+		for(String line : lines) {
+			Assert.assertSame(lines.get(Integer.parseInt(line.substring(7))), line);
+		}
+		Assert.assertEquals(995, cache.hitCount());
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for(int t = 0; t < 4; t++) {
+				int seed = t;
+				results.add(executor.submit(() -> {
+					char[] buf = new char[16];
+					for(int i = 0; i < 100_000; i++) {
+						String expected = "key-" + ((i * 31 + seed) % 500);
+						expected.getChars(0, expected.length(), buf, 0);
+						if(!expected.equals(cache.intern(buf, 0, expected.length())) || !expected.equals(cache.intern(expected))) {
+							return false;
+						}
+					}
+					return true;
+				}));
+			}
+			for(Future<Boolean> res : results) {
+				Assert.assertTrue(res.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+		Assert.assertTrue(cache.size() <= cache.capacity());
+	}
+
+
+	@Test
+	public void byteLevelSources() throws Exception {
+		Path tempDir = Files.createTempDirectory("intern-test");
+		Path file = tempDir.resolve("lines.txt");
+		try {
+			StringBuilder sb = new StringBuilder();
+			for(int i = 0; i < 300; i++) {
+				// mixed line endings and a final line without a newline
+				sb.append("status-").append(i % 3).append(i % 2 == 0 ? "\r\n" : "\n");
+			}
+			sb.append("status-0");
+			Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+
+			for(boolean includeEolNewlines : new boolean[] { false, true }) {
+				List<String> expected = new ArrayList<>();
+				EnhancedIterator.fromPath(file, StandardCharsets.UTF_8, includeEolNewlines, null).forEachRemaining(expected::add);
+
+				StringInternCache cache = new StringInternCache(64);
+				List<String> resumable = new ArrayList<>();
+				try(ResumableLineIterator iter = ResumableLineIterator.open(file, new LineCheckpoint(0, 0, StandardCharsets.UTF_8), includeEolNewlines, cache, null)) {
+					iter.forEachRemaining(resumable::add);
+				}
+				checkInterned(expected, resumable, cache);
+
+				List<String> indexed = new ArrayList<>();
+				LineIndex index = LineIndex.build(file);
+				try(IndexedLineIterator iter = IndexedLineIterator.open(file, StandardCharsets.UTF_8, index, 0, index.lineCount(), includeEolNewlines, cache, null)) {
+					iter.forEachRemaining(indexed::add);
+				}
+				checkInterned(expected, indexed, cache);
+				Assert.assertSame(resumable.get(0), indexed.get(0));
+
+				List<String> matching = new ArrayList<>();
+				try(EnhancedIterator<String> iter = EnhancedIterator.fromPathMatching(file, StandardCharsets.UTF_8, Arrays.asList("status"), false, includeEolNewlines, cache, null)) {
+					iter.forEachRemaining(matching::add);
+				}
+				checkInterned(expected, matching, cache);
+			}
+		} finally {
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+
+	/** Check that the lines equal the expected lines and that equal lines are the same instance
+	 */
+	private static void checkInterned(List<String> expected, List<String> lines, StringInternCache cache) {
+		Assert.assertEquals(expected, lines);
+		Map<String, String> firsts = new HashMap<>();
+		for(String line : lines) {
+			Assert.assertSame(firsts.computeIfAbsent(line, (k) -> line), line);
+			Assert.assertSame(line, cache.intern(new String(line)));
+		}
+	}
+
+}
@@ -0,0 +1,185 @@
+package twg2.streams.test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import twg2.streams.TailIterator;
+
+/**
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class TailIteratorTest {
+
+	@Test
+	public void followAppends() throws Exception {
+		Path tempDir = Files.createTempDirectory("tail-iterator-test");
+		Path file = tempDir.resolve("app.log");
+		try {
+			Files.write(file, Arrays.asList("a", "b"), StandardCharsets.UTF_8);
+			try(TailIterator iter = TailIterator.follow(file, StandardCharsets.UTF_8, false)) {
+				Assert.assertEquals("a", iter.next());
+				Assert.assertEquals("b", iter.peek());
+				Assert.assertEquals("b", iter.next());
+				Assert.assertEquals(4, iter.position());
+				Assert.assertNull(iter.poll(20, TimeUnit.MILLISECONDS));
+
+				// an incomplete line is not returned until its newline is written
+				append(file, "c\r\nd");
+				Assert.assertEquals("c", iter.poll(5, TimeUnit.SECONDS));
+				Assert.assertNull(iter.poll(20, TimeUnit.MILLISECONDS));
+				append(file, "ef\n");
+				Assert.assertEquals("def", iter.poll(5, TimeUnit.SECONDS));
+				Assert.assertEquals(11, iter.position());
+			}
+
+			try(TailIterator iter = TailIterator.follow(file, StandardCharsets.UTF_8, true)) {
+				Assert.assertNull(iter.poll(20, TimeUnit.MILLISECONDS));
+				append(file, "g\n");
+				Assert.assertEquals("g", iter.poll(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+
+	@Test
+	public void concurrentWriter() throws Exception {
+		Path tempDir = Files.createTempDirectory("tail-iterator-test");
+		Path file = tempDir.resolve("app.log");
+		try {
+			Files.write(file, new byte[0]);
+			try(TailIterator iter = TailIterator.follow(file, StandardCharsets.UTF_8, true, 10)) {
+				AtomicBoolean failed = new AtomicBoolean();
+				Thread writer = new Thread(() -> {
+					try {
+						for(int i = 0; i < 200; i++) {
+							append(file, "line " + i + "\n");
+							if(i % 20 == 0) {
+								Thread.sleep(2);
+							}
+						}
+					} catch(Exception e) {
+						failed.set(true);
+					}
+				});
+				writer.start();
+				List<String> res = new ArrayList<>();
+				for(int i = 0; i < 200; i++) {
+					String line = iter.poll(5, TimeUnit.SECONDS);
+					Assert.assertNotNull(line);
+					res.add(line);
+				}
+				writer.join();
+				Assert.assertFalse(failed.get());
+				for(int i = 0; i < 200; i++) {
+					Assert.assertEquals("line " + i, res.get(i));
+				}
+			}
+		} finally {
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+
+	@Test
+	public void truncateAndRotate() throws Exception {
+		Path tempDir = Files.createTempDirectory("tail-iterator-test");
+		Path file = tempDir.resolve("app.log");
+		Path rotated = tempDir.resolve("app.log.1");
+		try {
+			Files.write(file, Arrays.asList("first line", "second line"), StandardCharsets.UTF_8);
+			try(TailIterator iter = TailIterator.follow(file, StandardCharsets.UTF_8, false, 10)) {
+				Assert.assertEquals("first line", iter.next());
+				Assert.assertEquals("second line", iter.next());
+
+				// truncate
+				Files.write(file, Arrays.asList("new"), StandardCharsets.UTF_8);
+				Assert.assertEquals("new", iter.poll(5, TimeUnit.SECONDS));
+
+				// rotate, the unterminated end of the old file is returned before the new file
+				append(file, "old end");
+				Files.move(file, rotated);
+				Files.write(file, Arrays.asList("rotated 1", "rotated 2"), StandardCharsets.UTF_8);
+				Assert.assertEquals("old end", iter.poll(5, TimeUnit.SECONDS));
+				Assert.assertEquals("rotated 1", iter.poll(5, TimeUnit.SECONDS));
+				Assert.assertEquals("rotated 2", iter.poll(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(rotated);
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+
+	@Test
+	public void rotateToLargerFile() throws Exception {
+		Path tempDir = Files.createTempDirectory("tail-iterator-test");
+		Path file = tempDir.resolve("app.log");
+		Path rotated = tempDir.resolve("app.log.1");
+		try {
+			Files.write(file, Arrays.asList("old 1", "old 2"), StandardCharsets.UTF_8);
+			try(TailIterator iter = TailIterator.follow(file, StandardCharsets.UTF_8, false, 10)) {
+				Assert.assertEquals("old 1", iter.next());
+				Assert.assertEquals("old 2", iter.next());
+
+				// the new file is larger than the old one before the iterator checks it, so the rotation is detected by the file key,
+				// or by the size of the file at the path on file systems without file keys even if the creation time was reused
+				Files.move(file, rotated);
+				List<String> newLines = IntStream.range(0, 200).mapToObj((i) -> "new " + i).collect(Collectors.toList());
+				Files.write(file, newLines, StandardCharsets.UTF_8);
+				for(String line : newLines) {
+					Assert.assertEquals(line, iter.poll(5, TimeUnit.SECONDS));
+				}
+			}
+		} finally {
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(rotated);
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+
+	@Test
+	public void closeWakesWaiter() throws Exception {
+		Path tempDir = Files.createTempDirectory("tail-iterator-test");
+		Path file = tempDir.resolve("app.log");
+		try {
+			Files.write(file, new byte[0]);
+			TailIterator iter = TailIterator.follow(file, StandardCharsets.UTF_8, true, 10_000);
+			AtomicBoolean hasNext = new AtomicBoolean(true);
+			Thread reader = new Thread(() -> hasNext.set(iter.hasNext()));
+			reader.start();
+			Thread.sleep(50);
+			iter.close();
+			reader.join(5000);
+			Assert.assertFalse(reader.isAlive());
+			Assert.assertFalse(hasNext.get());
+		} finally {
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
+
+	private static void append(Path file, String str) throws Exception {
+		Files.write(file, str.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+	}
+
+}
@@ -0,0 +1,80 @@
+package twg2.streams.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import twg2.junitassist.checks.CheckTask;
+import twg2.streams.EnhancedListIterator;
+import twg2.streams.WindowAggregator;
+import twg2.streams.WindowIterator;
+
+/**
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class WindowIteratorTest {
+	List<Integer> elems = List.of(1, 2, 3, 4, 5, 6, 7);
+
+
+	@Test
+	public void sliding() {
+		AtomicLong sum = new AtomicLong();
+		WindowIterator<Integer> iter = WindowIterator.sliding(new EnhancedListIterator<>(elems), 3, WindowAggregator.<Integer>of((i) -> sum.addAndGet(i), (i) -> sum.addAndGet(-i)));
+
+		List<List<Integer>> windows = new ArrayList<>();
+		List<Long> sums = new ArrayList<>();
+		while(iter.hasNext()) {
+			List<Integer> window = iter.next();
+			windows.add(new ArrayList<>(window));
+			sums.add(sum.get());
+		}
+		Assert.assertEquals(List.of(List.of(1, 2, 3), List.of(2, 3, 4), List.of(3, 4, 5), List.of(4, 5, 6), List.of(5, 6, 7)), windows);
+		Assert.assertEquals(List.of(6L, 9L, 12L, 15L, 18L), sums);
+	}
+
+
+	@Test
+	public void tumbling() {
+		WindowIterator<Integer> iter = WindowIterator.tumbling(new EnhancedListIterator<>(elems), 3, null);
+		Assert.assertEquals(List.of(1, 2, 3), iter.peek());
+		Assert.assertEquals(List.of(List.of(1, 2, 3), List.of(4, 5, 6), List.of(7)), copyAll(iter));
+
+		// hopping windows skip elements between windows
+		iter = WindowIterator.ofCount(new EnhancedListIterator<>(elems), 2, 3, false, null);
+		Assert.assertEquals(List.of(List.of(1, 2), List.of(4, 5)), copyAll(iter));
+	}
+
+
+	@Test
+	public void byKey() {
+		List<Integer> times = List.of(0, 1, 5, 6, 7, 20, 21);
+
+		WindowIterator<Integer> iter = WindowIterator.slidingByKey(new EnhancedListIterator<>(times), (i) -> i, 5, null);
+		Assert.assertEquals(List.of(List.of(0), List.of(0, 1), List.of(1, 5), List.of(5, 6), List.of(5, 6, 7), List.of(20), List.of(20, 21)), copyAll(iter));
+
+		AtomicLong count = new AtomicLong();
+		WindowIterator<Integer> tumbling = WindowIterator.tumblingByKey(new EnhancedListIterator<>(times), (i) -> i, 5, WindowAggregator.of((i) -> count.incrementAndGet(), (i) -> count.decrementAndGet()));
+		Assert.assertEquals(List.of(0, 1), tumbling.next());
+		Assert.assertEquals(2, count.get());
+		Assert.assertEquals(List.of(5, 6, 7), tumbling.next());
+		Assert.assertEquals(3, count.get());
+		Assert.assertEquals(List.of(20, 21), tumbling.next());
+		Assert.assertFalse(tumbling.hasNext());
+		Assert.assertEquals(0, count.get());
+		CheckTask.assertException(() -> tumbling.next());
+	}
+
+
+	private static <T> List<List<T>> copyAll(WindowIterator<T> iter) {
+		List<List<T>> res = new ArrayList<>();
+		while(iter.hasNext()) {
+			res.add(new ArrayList<>(iter.next()));
+		}
+		return res;
+	}
+
+}
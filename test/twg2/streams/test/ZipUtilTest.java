@@ -0,0 +1,65 @@
+package twg2.streams.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import twg2.junitassist.checks.CheckTask;
+import twg2.streams.StreamUtil;
+import twg2.streams.ZipUtil;
+
+/**
+ * @author TeamworkGuy2
+ * @since 2026-10-19
+ */
+public class ZipUtilTest {
+	int[] ints1 = { 1, 2, 3, 4, 5, 6, 7 };
+	int[] ints2 = { 7, 5, 3, 1, -1, -3 };
+
+
+	@Test
+	public void forEachPair() {
+		List<String> res = new ArrayList<>();
+		StreamUtil.forEachPair(ints1, ints2, (a, b) -> res.add(a + ":" + b));
+		Assert.assertEquals(List.of("1:7", "2:5", "3:3", "4:1", "5:-1", "6:-3"), res);
+
+		double[] sum = { 0 };
+		StreamUtil.forEachPair(new double[] { 0.5, 1.5 }, new double[] { 2, 4, 8 }, (a, b) -> sum[0] += a * b);
+		Assert.assertEquals(7.0, sum[0], 0.0);
+	}
+
+
+	@Test
+	public void reductions() {
+		Assert.assertEquals(7 + 10 + 9 + 4 - 5 - 18, ZipUtil.dot(ints1, ints2));
+		Assert.assertEquals(3_000_000_000L * 2, ZipUtil.dot(new int[] { 1_500_000_000, 1_500_000_000 }, new int[] { 2, 2 }));
+		Assert.assertEquals(5.5, ZipUtil.dot(new double[] { 0.5, 1, 2, 1, 1 }, new double[] { 1, 1, 1, 1, 1 }), 0.0);
+		Assert.assertEquals(-6, ZipUtil.minDifference(ints1, ints2));
+		Assert.assertEquals(9, ZipUtil.maxDifference(ints1, ints2));
+		Assert.assertEquals(3L, ZipUtil.maxDifference(new long[] { 5 }, new long[] { 2 }));
+		CheckTask.assertException(() -> ZipUtil.minDifference(new int[0], ints2));
+
+		// differences which do not fit in the input type
+		int[] intMins = { Integer.MIN_VALUE, 0, Integer.MIN_VALUE };
+		int[] intMaxes = { 1, 0, Integer.MAX_VALUE };
+		Assert.assertEquals((long)Integer.MIN_VALUE - Integer.MAX_VALUE, ZipUtil.minDifference(intMins, intMaxes));
+		Assert.assertEquals((long)Integer.MAX_VALUE - Integer.MIN_VALUE, ZipUtil.maxDifference(intMaxes, intMins));
+		// long differences wrap
+		Assert.assertEquals(0L, ZipUtil.minDifference(new long[] { 0, Long.MIN_VALUE }, new long[] { 0, 1 }));
+		Assert.assertEquals(Long.MAX_VALUE, ZipUtil.minDifference(new long[] { Long.MIN_VALUE }, new long[] { 1 }));
+		Assert.assertEquals(Long.MIN_VALUE, ZipUtil.maxDifference(new long[] { Long.MAX_VALUE }, new long[] { -1 }));
+		Assert.assertEquals(Long.MIN_VALUE, ZipUtil.minDifference(new long[] { Long.MIN_VALUE, 5 }, new long[] { 0, 5 }));
+	}
+
+
+	@Test
+	public void pairwise() {
+		Assert.assertArrayEquals(new int[] { 8, 7, 6, 5, 4, 3 }, ZipUtil.add(ints1, ints2, new int[6]));
+		Assert.assertArrayEquals(new int[] { 1, 2, 3, 1, -1, -3 }, ZipUtil.min(ints1, ints2, new int[6]));
+		Assert.assertArrayEquals(new long[] { 7, 5, 3, 4, 5, 6 }, ZipUtil.max(new long[] { 1, 2, 3, 4, 5, 6, 7 }, new long[] { 7, 5, 3, 1, -1, -3 }, new long[6]));
+		CheckTask.assertException(() -> ZipUtil.add(ints1, ints2, new int[2]));
+	}
+
+}